@@ -0,0 +1,66 @@
+package com.example.pos.benchmark;
+
+import com.example.pos.domain.TaxClass;
+import com.example.pos.payload.response.ScanResult;
+import com.example.pos.service.CatalogSnapshot;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Barcode scans against one store's catalog of 100k products, plus the cost of a single
+// product change (a whole new snapshot). Prints the snapshot's estimated memory at setup.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CatalogSnapshotBenchmark {
+
+    private CatalogSnapshot snapshot;
+    private String[] barcodes;
+    private String[] unknown;
+    private ScanResult changed;
+    private int next;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        List<ScanResult> products = new ArrayList<>(100_000);
+        for (int i = 0; i < 100_000; i++) {
+            products.add(new ScanResult(UUID.randomUUID(), String.format("SKU-%06d", i),
+                    String.format("6%012d", Math.abs(random.nextLong()) % 1_000_000_000_000L),
+                    "Product " + i, 100 + random.nextInt(100_000), TaxClass.STANDARD));
+        }
+        snapshot = new CatalogSnapshot(products);
+        barcodes = new String[4096];
+        unknown = new String[4096];
+        for (int i = 0; i < barcodes.length; i++) {
+            barcodes[i] = products.get(random.nextInt(products.size())).getBarcode();
+            unknown[i] = String.format("7%012d", i);
+        }
+        ScanResult first = products.get(0);
+        changed = new ScanResult(first.getProductId(), first.getSku(), first.getBarcode(), first.getName(), 1, TaxClass.ZERO);
+        System.out.printf("%n%d products, ~%d KB estimated%n", snapshot.size(), snapshot.estimatedBytes() / 1024);
+    }
+
+    @Benchmark
+    public ScanResult scanHit() {
+        return snapshot.findByBarcode(barcodes[next++ & 4095]);
+    }
+
+    @Benchmark
+    public ScanResult scanMiss() {
+        return snapshot.findByBarcode(unknown[next++ & 4095]);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public CatalogSnapshot changeOneProduct() {
+        return snapshot.with(changed);
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.pos.benchmark;
+
+import com.example.pos.PosApplication;
+import com.example.pos.domain.TaxClass;
+import com.example.pos.domain.UserRole;
+import com.example.pos.exceptions.UserException;
+import com.example.pos.model.Product;
+import com.example.pos.model.Store;
+import com.example.pos.model.User;
+import com.example.pos.payload.request.CheckoutRequest;
+import com.example.pos.payload.response.CheckoutResult;
+import com.example.pos.repo.ProductRepository;
+import com.example.pos.repo.StoreRepository;
+import com.example.pos.repo.UserRepository;
+import com.example.pos.service.CheckoutService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// A 20-line checkout through the real CheckoutService (catalog snapshot, stock ledger,
+// order + lines + movements in one transaction) on an in-memory H2 database.
+// SampleTime prints p50/p99; H2 hides network round trips, so compare runs, not absolute numbers.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CheckoutBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private CheckoutService checkoutService;
+    private UUID storeId;
+    private UUID cashierId;
+    private CheckoutRequest basket;
+    private final AtomicLong keys = new AtomicLong();
+
+    @Setup
+    public void setup() {
+        // Passed as arguments so they win over application.properties (MySQL);
+        // the web server is started on a random port because the security config needs it
+        context = new SpringApplicationBuilder(PosApplication.class)
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:checkout-benchmark;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--pos.stores.export.fetch-size=500");
+        checkoutService = context.getBean(CheckoutService.class);
+
+        LocalDateTime now = LocalDateTime.now();
+        User cashier = context.getBean(UserRepository.class).save(
+                new User(null, "Cashier", "cashier@example.com", null, UserRole.ROLE_CASHIER, "hash", now, now, null, true));
+        Store store = context.getBean(StoreRepository.class).save(new Store("Game Osu", null, null, "Retail"));
+        cashierId = cashier.getId();
+        storeId = store.getId();
+
+        ProductRepository productRepository = context.getBean(ProductRepository.class);
+        basket = new CheckoutRequest();
+        basket.setLines(new ArrayList<>());
+        for (int i = 0; i < 20; i++) {
+            Product product = new Product();
+            product.setStore(store);
+            product.setSku(String.format("SKU-%02d", i));
+            product.setBarcode(String.valueOf(600000000000L + i));
+            product.setName("Product " + i);
+            product.setPriceMinor(100 + i);
+            product.setTaxClass(i % 2 == 0 ? TaxClass.STANDARD : TaxClass.REDUCED);
+            product = productRepository.save(product);
+
+            CheckoutRequest.Line line = new CheckoutRequest.Line();
+            line.setProductId(product.getId());
+            line.setQuantity(1);
+            basket.getLines().add(line);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public CheckoutResult twentyLineCheckout() throws UserException {
+        return checkoutService.checkout(storeId, cashierId, "till-" + keys.incrementAndGet(), basket);
+    }
+}
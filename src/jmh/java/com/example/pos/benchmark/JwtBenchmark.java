@@ -0,0 +1,101 @@
+package com.example.pos.benchmark;
+
+import com.example.pos.configuration.JwtAuthenticationCache;
+import com.example.pos.configuration.JwtConstant;
+import com.example.pos.configuration.JwtProvider;
+import com.example.pos.configuration.JwtValidator;
+import com.example.pos.configuration.TokenRevocationList;
+import com.example.pos.repo.RevokedTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.mockito.Mockito;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Token issue/parse and the JwtValidator filter, with and without the verified-token cache.
+// The "uncached" validator uses a zero-sized cache, i.e. the old verify-every-request path.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private final JwtProvider jwtProvider = new JwtProvider();
+    private final FilterChain noopChain = (request, response) -> { };
+
+    private Authentication authentication;
+    private String bearerToken;
+    private JwtValidator cachedValidator;
+    private JwtValidator uncachedValidator;
+    private JwtValidator cachedValidator100kRevoked;
+
+    @Setup
+    public void setup() {
+        authentication = new UsernamePasswordAuthenticationToken(
+                "cashier@example.com", null, AuthorityUtils.createAuthorityList("ROLE_CASHIER"));
+        bearerToken = "Bearer " + jwtProvider.generateToken(authentication);
+        TokenRevocationList emptyRevocations = revocationList();
+        cachedValidator = new JwtValidator(new JwtAuthenticationCache(new SimpleMeterRegistry(), 10_000), emptyRevocations);
+        uncachedValidator = new JwtValidator(new JwtAuthenticationCache(new SimpleMeterRegistry(), 0), emptyRevocations);
+
+        // Same filter, but with 100k other tokens on the deny-list
+        TokenRevocationList fullRevocations = revocationList();
+        Instant expiry = Instant.now().plus(Duration.ofHours(12));
+        for (int i = 0; i < 100_000; i++) {
+            fullRevocations.revoke(UUID.randomUUID().toString(), expiry);
+        }
+        cachedValidator100kRevoked = new JwtValidator(
+                new JwtAuthenticationCache(new SimpleMeterRegistry(), 10_000), fullRevocations);
+    }
+
+    private static TokenRevocationList revocationList() {
+        return new TokenRevocationList(Mockito.mock(RevokedTokenRepository.class), new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtProvider.generateToken(authentication);
+    }
+
+    @Benchmark
+    public String getEmailFromToken() {
+        return jwtProvider.getEmailFormToken(bearerToken);
+    }
+
+    @Benchmark
+    public void validatorCached(Blackhole blackhole) throws Exception {
+        blackhole.consume(filter(cachedValidator));
+    }
+
+    @Benchmark
+    public void validatorCached100kRevoked(Blackhole blackhole) throws Exception {
+        blackhole.consume(filter(cachedValidator100kRevoked));
+    }
+
+    @Benchmark
+    public void validatorUncached(Blackhole blackhole) throws Exception {
+        blackhole.consume(filter(uncachedValidator));
+    }
+
+    private Authentication filter(JwtValidator validator) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/stores");
+        request.addHeader(JwtConstant.JWT_HEADER, bearerToken);
+        validator.doFilter(request, new MockHttpServletResponse(), noopChain);
+        Authentication result = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return result;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.pos.benchmark;
+
+import com.example.pos.domain.StoreStatus;
+import com.example.pos.domain.UserRole;
+import com.example.pos.mapper.StoreMapper;
+import com.example.pos.mapper.UserMapper;
+import com.example.pos.model.Store;
+import com.example.pos.model.StoreContact;
+import com.example.pos.model.User;
+import com.example.pos.payload.dto.StoreDto;
+import com.example.pos.payload.dto.UserDto;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Entity <-> DTO conversions used on every auth and store response
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private User user;
+    private UserDto userDto;
+    private Store store;
+    private StoreDto storeDto;
+
+    @Setup
+    public void setup() {
+        LocalDateTime now = LocalDateTime.now();
+        user = new User(UUID.randomUUID(), "Ama Mensah", "ama@example.com", "+233 24 123 4567",
+                UserRole.ROLE_CASHIER, "$2a$10$hash", now, now, now, true);
+        userDto = UserMapper.toDto(user);
+
+        store = new Store("Shoprite Accra Mall", user, "Main branch", "Retail");
+        store.setId(UUID.randomUUID());
+        store.setStatus(StoreStatus.ACTIVE);
+        StoreContact contact = new StoreContact();
+        contact.setAddress("123 Oxford Street, Osu, Accra");
+        contact.setPhone("+233 24 123 4567");
+        contact.setEmail("osu@example.com");
+        store.setContact(contact);
+        store.setCreatedAt(now);
+        store.setUpdatedAt(now);
+        storeDto = StoreMapper.toDto(store);
+    }
+
+    @Benchmark
+    public UserDto userToDto() {
+        return UserMapper.toDto(user);
+    }
+
+    @Benchmark
+    public User userToEntity() {
+        return UserMapper.toEntity(userDto);
+    }
+
+    @Benchmark
+    public StoreDto storeToDto() {
+        return StoreMapper.toDto(store);
+    }
+
+    @Benchmark
+    public Store storeToEntity() {
+        return StoreMapper.toEntity(storeDto);
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.pos.benchmark;
+
+import com.example.pos.utils.StockCounter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Several tills selling the same product at once. The *Threads benchmarks run the same
+// operation with 1, 4 and 8 threads, so one run shows the scaling: StockCounter's total
+// throughput should grow with the thread count (each till on its own stripe), while the
+// single lock - like SELECT ... FOR UPDATE on one stock row - stays flat.
+// It needs that many cores to show anything; compare the ops/us column per group.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StockCounterBenchmark {
+
+    private static final long STOCK = Long.MAX_VALUE / 2;
+
+    private final StockCounter striped = new StockCounter(STOCK);
+    private final AtomicLong single = new AtomicLong(STOCK);
+    private long locked = STOCK;
+
+    @Benchmark
+    public boolean stockCounter() {
+        return striped.tryTake(1);
+    }
+
+    @Benchmark
+    public boolean singleAtomicLong() {
+        while (true) {
+            long current = single.get();
+            if (current < 1) {
+                return false;
+            }
+            if (single.compareAndSet(current, current - 1)) {
+                return true;
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean singleLock() {
+        synchronized (this) {
+            if (locked < 1) {
+                return false;
+            }
+            locked--;
+            return true;
+        }
+    }
+
+    // ============================================
+    // SCALING (fixed thread counts)
+    // ============================================
+    @Benchmark
+    @Threads(1)
+    public boolean stockCounter1Thread() {
+        return stockCounter();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean stockCounter4Threads() {
+        return stockCounter();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean stockCounter8Threads() {
+        return stockCounter();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean singleLock1Thread() {
+        return singleLock();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean singleLock4Threads() {
+        return singleLock();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean singleLock8Threads() {
+        return singleLock();
+    }
+}
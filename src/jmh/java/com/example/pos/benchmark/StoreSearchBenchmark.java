@@ -0,0 +1,71 @@
+package com.example.pos.benchmark;
+
+import com.example.pos.domain.StoreStatus;
+import com.example.pos.exceptions.UserException;
+import com.example.pos.payload.response.CursorPage;
+import com.example.pos.payload.response.StoreSearchHit;
+import com.example.pos.repo.StoreRepository;
+import com.example.pos.service.StoreSearchIndex;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Type-ahead queries against an index of 100k stores, from a one-letter prefix
+// (matches most stores) to a two-word query (matches a handful)
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StoreSearchBenchmark {
+
+    private static final String[] CHAINS = {"Shoprite", "Game", "Melcom", "Palace", "MaxMart", "Koala", "Marina", "Citydia"};
+    private static final String[] TOWNS = {"Accra", "Osu", "Kumasi", "Tema", "Takoradi", "Cape Coast", "Tamale", "Ho"};
+    private static final String[] STREETS = {"Oxford Street", "Spintex Road", "Ring Road", "Liberation Road", "Adum", "Airport"};
+    private static final String[] TYPES = {"Retail", "Wholesale", "Supermarket", "Restaurant"};
+
+    private StoreSearchIndex index;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        List<StoreSearchHit> hits = new ArrayList<>(100_000);
+        for (int i = 0; i < 100_000; i++) {
+            String town = TOWNS[random.nextInt(TOWNS.length)];
+            hits.add(new StoreSearchHit(UUID.randomUUID(),
+                    CHAINS[random.nextInt(CHAINS.length)] + " " + town + " " + i,
+                    TYPES[random.nextInt(TYPES.length)], StoreStatus.ACTIVE,
+                    (1 + random.nextInt(300)) + " " + STREETS[random.nextInt(STREETS.length)] + ", " + town));
+        }
+        StoreRepository repository = Mockito.mock(StoreRepository.class);
+        Mockito.when(repository.findAllSearchHits()).thenReturn(hits);
+        index = new StoreSearchIndex(repository);
+        index.rebuild();
+    }
+
+    @Benchmark
+    public CursorPage<StoreSearchHit> oneLetter() throws UserException {
+        return index.search("s", null, 20);
+    }
+
+    @Benchmark
+    public CursorPage<StoreSearchHit> oneWord() throws UserException {
+        return index.search("accr", null, 20);
+    }
+
+    @Benchmark
+    public CursorPage<StoreSearchHit> twoWords() throws UserException {
+        return index.search("shop kum", null, 20);
+    }
+
+    @Benchmark
+    public CursorPage<StoreSearchHit> exactBrand() throws UserException {
+        return index.search("melcom tema 4242", null, 20);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.pos.configuration;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.UUID;
+
+// The principal JwtValidator puts in the SecurityContext, built only from the token's claims.
+// Controllers can take it directly:  @AuthenticationPrincipal AuthenticatedUser user
+public class AuthenticatedUser implements AuthenticatedPrincipal, Serializable {
+
+    private final UUID id;
+    private final String email;
+    private final String tokenId;
+    private final Instant expiresAt;
+
+    public AuthenticatedUser(UUID id, String email, String tokenId, Instant expiresAt) {
+        this.id = id;
+        this.email = email;
+        this.tokenId = tokenId;
+        this.expiresAt = expiresAt;
+    }
+
+    // Null for tokens issued before the "uid" claim existed
+    public UUID getId() {
+        return id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    // The token's "jti" claim - what TokenRevocationList keys on (null for very old tokens)
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    @Override
+    public String toString() {
+        return email;
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.pos.configuration;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtBuilder;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -15,16 +16,29 @@ import java.util.*;
 public class JwtProvider {
     static SecretKey key = Keys.hmacShaKeyFor(JwtConstant.JWT_SECRET.getBytes());
 
+    public static final String USER_ID_CLAIM = "uid";
+
     public String generateToken(Authentication authentication) {
+        return generateToken(authentication, null);
+    }
+
+    // userId goes into the "uid" claim so requests can find the user by primary key
+    // (or not at all) instead of looking the email up again
+    public String generateToken(Authentication authentication, UUID userId) {
         Collection<?extends GrantedAuthority> authorities =
                 authentication.getAuthorities();
 
         String roles = populateAuthorities(authorities);
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
+                .id(UUID.randomUUID().toString())   // "jti" - lets us revoke this one token
                 .issuedAt(new Date())
                 .expiration(new Date(new Date().getTime()+86400000 ))
                 .claim("email",authentication.getName())
-                .claim("authorities",roles)
+                .claim("authorities",roles);
+        if (userId != null) {
+            builder.claim(USER_ID_CLAIM, userId.toString());
+        }
+        return builder
                 .signWith(key)
                 .compact();
 
@@ -34,7 +48,7 @@ public class JwtProvider {
         Claims claims = Jwts.parser()
                 .verifyWith(key)
                 .build()
-                .parseClaimsJws(jwt)
+                .parseSignedClaims(jwt)
                 .getPayload();
 
         String email = String.valueOf(claims.get("email"));
@@ -2,8 +2,8 @@ package com.example.pos.configuration;
 
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -16,11 +16,25 @@ import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import javax.crypto.SecretKey;
 import java.io.IOException;
 import java.util.List;
+import java.util.UUID;
 
 public class JwtValidator extends OncePerRequestFilter {
+
+    // The parser is immutable and thread-safe, so build it (and the key) once
+    private final JwtParser parser = Jwts.parser()
+            .verifyWith(JwtProvider.key)
+            .build();
+
+    private final JwtAuthenticationCache authenticationCache;
+    private final TokenRevocationList revocationList;
+
+    public JwtValidator(JwtAuthenticationCache authenticationCache, TokenRevocationList revocationList) {
+        this.authenticationCache = authenticationCache;
+        this.revocationList = revocationList;
+    }
+
     @Override
     protected void doFilterInternal(
             HttpServletRequest request,
@@ -30,28 +44,47 @@ public class JwtValidator extends OncePerRequestFilter {
         String jwt = request.getHeader(JwtConstant.JWT_HEADER);
         if (jwt !=null){
             jwt= jwt.substring(7);
-            try {
-                SecretKey key = Keys.hmacShaKeyFor(JwtConstant.JWT_SECRET.getBytes());
-                Claims claims = Jwts.parser()
-                        .verifyWith(key)
-                        .build()
-                        .parseClaimsJws(jwt)
-                        .getPayload();
-
-                String email = String.valueOf(claims.get("email"));
-                String authorities = String.valueOf(claims.get("authorities"));
-
-                List<GrantedAuthority> auths = AuthorityUtils.commaSeparatedStringToAuthorityList(authorities);
-                Authentication auth = new UsernamePasswordAuthenticationToken(email,null, auths);
-                SecurityContextHolder.getContext().setAuthentication(auth);
+
+            // Fast path: this exact token was verified before and has not expired yet
+            Authentication auth = authenticationCache.get(jwt);
+            if (auth == null) {
+                auth = verify(jwt);
             }
-            catch (Exception e) {
-                throw new BadCredentialsException("Invalid JWT token");
+
+            // Checked on cache hits too - a token can be revoked after it was cached
+            if (auth.getPrincipal() instanceof AuthenticatedUser user
+                    && revocationList.isRevoked(user.getTokenId())) {
+                throw new BadCredentialsException("Token has been revoked");
             }
+            SecurityContextHolder.getContext().setAuthentication(auth);
 
         }
         filterChain.doFilter(request, response);
 
 
     }
+
+    private Authentication verify(String jwt) {
+        try {
+            Claims claims = parser
+                    .parseSignedClaims(jwt)
+                    .getPayload();
+
+            String email = String.valueOf(claims.get("email"));
+            String authorities = String.valueOf(claims.get("authorities"));
+            String userId = claims.get(JwtProvider.USER_ID_CLAIM, String.class);
+
+            List<GrantedAuthority> auths = AuthorityUtils.commaSeparatedStringToAuthorityList(authorities);
+            AuthenticatedUser principal = new AuthenticatedUser(
+                    userId != null ? UUID.fromString(userId) : null, email,
+                    claims.getId(),
+                    claims.getExpiration() != null ? claims.getExpiration().toInstant() : null);
+            Authentication auth = new UsernamePasswordAuthenticationToken(principal,null, auths);
+            authenticationCache.put(jwt, auth, claims.getExpiration());
+            return auth;
+        }
+        catch (Exception e) {
+            throw new BadCredentialsException("Invalid JWT token");
+        }
+    }
 }
@@ -0,0 +1,169 @@
+package com.example.pos.configuration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+// Throttles POST /auth/login and /auth/signup before AuthController (and BCrypt) is reached.
+// The email comes from the JSON body, so the body is read here once and replayed downstream.
+public class LoginRateLimitFilter extends OncePerRequestFilter {
+
+    // Login/signup bodies are tiny; anything bigger is not inspected for an email
+    private static final int MAX_INSPECTED_BODY = 16 * 1024;
+
+    private final LoginRateLimiter limiter;
+    private final ObjectMapper objectMapper;
+
+    public LoginRateLimitFilter(LoginRateLimiter limiter, ObjectMapper objectMapper) {
+        this.limiter = limiter;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getServletPath();
+        return !"POST".equals(request.getMethod())
+                || !(path.equals("/auth/login") || path.equals("/auth/signup"));
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+
+        byte[] body = request.getInputStream().readNBytes(MAX_INSPECTED_BODY + 1);
+        String email = body.length <= MAX_INSPECTED_BODY ? emailFrom(body) : null;
+
+        long waitNanos = limiter.tryAcquire(request.getRemoteAddr(), email);
+        if (waitNanos > 0) {
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1);
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"message\":\"Too many attempts, please retry later\"}");
+            return;
+        }
+
+        filterChain.doFilter(new ReplayedBodyRequest(request, body), response);
+    }
+
+    private String emailFrom(byte[] body) {
+        try {
+            JsonNode email = objectMapper.readTree(body).get("email");
+            return email != null && email.isTextual() ? email.asText() : null;
+        } catch (IOException | RuntimeException e) {
+            // Not JSON - let the controller reject it; the IP bucket still applies
+            return null;
+        }
+    }
+
+    // Serves the body bytes we already consumed, followed by anything left unread.
+    // Behaves like the container's own stream: one stream per request, isReady() only when
+    // a read won't block, and async readers (setReadListener) get the replayed bytes too.
+    private static final class ReplayedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] head;
+        private ServletInputStream inputStream;
+
+        private ReplayedBodyRequest(HttpServletRequest request, byte[] head) {
+            super(request);
+            this.head = head;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (inputStream == null) {
+                inputStream = new ReplayedInputStream(head, super.getInputStream());
+            }
+            return inputStream;
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            // Decode with the request's charset; JSON without one is UTF-8
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+
+    private static final class ReplayedInputStream extends ServletInputStream {
+        private final ByteArrayInputStream buffered;
+        private final ServletInputStream rest;
+
+        private ReplayedInputStream(byte[] head, ServletInputStream rest) {
+            this.buffered = new ByteArrayInputStream(head);
+            this.rest = rest;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = buffered.read();
+            return b != -1 ? b : rest.read();
+        }
+
+        @Override
+        public int read(byte[] bytes, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (buffered.available() > 0) {
+                return buffered.read(bytes, off, len);
+            }
+            return rest.read(bytes, off, len);
+        }
+
+        @Override
+        public boolean isFinished() {
+            return buffered.available() == 0 && rest.isFinished();
+        }
+
+        @Override
+        public boolean isReady() {
+            return buffered.available() > 0 || rest.isReady();
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            // The container only knows about the bytes it still has. If those are already
+            // gone, it goes straight to onAllDataRead - so hand out our bytes first.
+            rest.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    readListener.onDataAvailable();
+                }
+
+                @Override
+                public void onAllDataRead() throws IOException {
+                    if (buffered.available() > 0) {
+                        readListener.onDataAvailable();
+                    }
+                    readListener.onAllDataRead();
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    readListener.onError(t);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.pos.configuration;
+
+import com.example.pos.utils.TokenBucket;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+
+// Token buckets for /auth/login and /auth/signup, one per client IP and one per email.
+// Buckets live in size-bounded caches (idle ones are evicted), so a flood of random
+// emails or addresses cannot grow memory without limit.
+@Component
+public class LoginRateLimiter {
+
+    private final Cache<String, TokenBucket> ipBuckets;
+    private final Cache<String, TokenBucket> emailBuckets;
+    private final int ipCapacity;
+    private final double ipRefillPerSecond;
+    private final int emailCapacity;
+    private final double emailRefillPerSecond;
+    private final Counter ipRejects;
+    private final Counter emailRejects;
+
+    public LoginRateLimiter(MeterRegistry meterRegistry,
+                            @Value("${pos.security.login-limit.max-keys:100000}") long maxKeys,
+                            // A whole store's tills may share one public IP, so the per-IP limit is generous
+                            @Value("${pos.security.login-limit.ip.capacity:60}") int ipCapacity,
+                            @Value("${pos.security.login-limit.ip.refill-per-second:5}") double ipRefillPerSecond,
+                            @Value("${pos.security.login-limit.email.capacity:5}") int emailCapacity,
+                            @Value("${pos.security.login-limit.email.refill-per-second:0.1}") double emailRefillPerSecond) {
+        this.ipBuckets = buckets(maxKeys);
+        this.emailBuckets = buckets(maxKeys);
+        this.ipCapacity = ipCapacity;
+        this.ipRefillPerSecond = ipRefillPerSecond;
+        this.emailCapacity = emailCapacity;
+        this.emailRefillPerSecond = emailRefillPerSecond;
+        this.ipRejects = meterRegistry.counter("auth.throttled", "key", "ip");
+        this.emailRejects = meterRegistry.counter("auth.throttled", "key", "email");
+    }
+
+    // Returns 0 when the attempt may go ahead, otherwise the nanos until the client should retry
+    public long tryAcquire(String clientIp, String email) {
+        long now = System.nanoTime();
+
+        TokenBucket ipBucket = ipBuckets.get(clientIp, key -> new TokenBucket(ipCapacity, ipRefillPerSecond, now));
+        long ipWait = ipBucket.tryAcquire(now);
+        if (ipWait > 0) {
+            ipRejects.increment();
+            return ipWait;
+        }
+
+        if (email != null && !email.isBlank()) {
+            String key = email.trim().toLowerCase(Locale.ROOT);
+            long emailWait = emailBuckets.get(key, k -> new TokenBucket(emailCapacity, emailRefillPerSecond, now))
+                    .tryAcquire(now);
+            if (emailWait > 0) {
+                // Only the locked-out account pays: the IP is shared by every till behind the store's NAT
+                ipBucket.refund();
+                emailRejects.increment();
+                return emailWait;
+            }
+        }
+        return 0;
+    }
+
+    private static Cache<String, TokenBucket> buckets(long maxKeys) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                // A bucket untouched for this long has refilled anyway
+                .expireAfterAccess(Duration.ofMinutes(15))
+                .build();
+    }
+}
@@ -1,7 +1,10 @@
 package com.example.pos.configuration;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
@@ -18,10 +21,15 @@ import java.util.Arrays;
 import java.util.Collections;
 
 @Configuration
+@EnableMethodSecurity  // makes the @PreAuthorize checks on the controllers take effect
 public class SecurityConfig {
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                                   JwtAuthenticationCache jwtAuthenticationCache,
+                                                   TokenRevocationList tokenRevocationList,
+                                                   LoginRateLimiter loginRateLimiter,
+                                                   ObjectMapper objectMapper) throws Exception {
 
         HttpSecurity httpSecurity = http
                 .sessionManagement(management ->
@@ -33,7 +41,9 @@ public class SecurityConfig {
                                 .requestMatchers("/api/**").authenticated()
                                 .anyRequest().permitAll()
                 )
-                .addFilterBefore(new JwtValidator(), BasicAuthenticationFilter.class)
+                // Login/signup throttling is added first so it runs first - rejected attempts never reach BCrypt
+                .addFilterBefore(new LoginRateLimitFilter(loginRateLimiter, objectMapper), BasicAuthenticationFilter.class)
+                .addFilterBefore(new JwtValidator(jwtAuthenticationCache, tokenRevocationList), BasicAuthenticationFilter.class)
                 .csrf(AbstractHttpConfigurer::disable)
                 .cors(cors -> cors.configurationSource(corsConfigurationSourcec()));
 
@@ -41,8 +51,9 @@ public class SecurityConfig {
 
     }
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${pos.security.bcrypt-strength:10}") int strength) {
+        // Raising the strength is picked up on each user's next login (see AuthServiceImpl)
+        return new BCryptPasswordEncoder(strength);
     }
 
     private CorsConfigurationSource corsConfigurationSourcec() {
@@ -0,0 +1,75 @@
+package com.example.pos.configuration;
+
+import com.example.pos.model.RevokedToken;
+import com.example.pos.repo.RevokedTokenRepository;
+import com.example.pos.utils.ExpiringKeySet;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+// Deny-list of revoked JWTs, checked by JwtValidator on every request.
+// The check is a single hash lookup on the token's jti; entries drop out of memory
+// (timing wheel, one-minute ticks) and out of the database once the token has expired.
+// Revocations are written to revoked_tokens first, so they survive a restart.
+@Component
+public class TokenRevocationList {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationList.class);
+    private static final long TICK_MILLIS = 60_000;
+    // Tokens live 24h (JwtProvider), so one lap of the wheel covers every live token
+    private static final int SLOTS = 24 * 60 + 1;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final ExpiringKeySet revoked = new ExpiringKeySet(TICK_MILLIS, SLOTS, System.currentTimeMillis());
+
+    public TokenRevocationList(RevokedTokenRepository revokedTokenRepository, MeterRegistry meterRegistry) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        meterRegistry.gauge("jwt.revoked.active", revoked, ExpiringKeySet::size);
+    }
+
+    // Load before the first request is served, so a restart never lets a revoked token back in
+    @PostConstruct
+    public void load() {
+        List<RevokedToken> active = revokedTokenRepository.findByExpiresAtAfter(LocalDateTime.now());
+        for (RevokedToken token : active) {
+            revoked.add(token.getTokenId(), toMillis(token.getExpiresAt()));
+        }
+        log.info("Loaded {} active token revocations", active.size());
+    }
+
+    public boolean isRevoked(String tokenId) {
+        return tokenId != null && revoked.contains(tokenId);
+    }
+
+    public void revoke(String tokenId, Instant expiresAt) {
+        if (tokenId == null || expiresAt == null || !expiresAt.isAfter(Instant.now())) {
+            // No id, or already expired - nothing to do
+            return;
+        }
+        revokedTokenRepository.save(new RevokedToken(tokenId,
+                LocalDateTime.ofInstant(expiresAt, ZoneId.systemDefault()), LocalDateTime.now()));
+        revoked.add(tokenId, expiresAt.toEpochMilli());
+    }
+
+    @Scheduled(fixedRate = TICK_MILLIS)
+    public void expire() {
+        revoked.advance(System.currentTimeMillis());
+    }
+
+    @Scheduled(fixedRateString = "${pos.security.revocation.purge-millis:3600000}")
+    public void purgeExpired() {
+        revokedTokenRepository.deleteExpired(LocalDateTime.now());
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
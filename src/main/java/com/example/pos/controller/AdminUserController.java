@@ -0,0 +1,43 @@
+package com.example.pos.controller;
+
+import com.example.pos.exceptions.UserException;
+import com.example.pos.payload.response.UserImportReport;
+import com.example.pos.service.UserImportService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+
+// Admin-only user management (everything under /api/super-admin requires ROLE_ADMIN, see SecurityConfig)
+@RestController
+@RequestMapping("/api/super-admin/users")
+public class AdminUserController {
+
+    private final UserImportService userImportService;
+
+    public AdminUserController(UserImportService userImportService) {
+        this.userImportService = userImportService;
+    }
+
+    // POST /api/super-admin/users/import
+    // Body: CSV (text/csv, header "fullname,email,phone,role,password")
+    //   or NDJSON (application/x-ndjson, one UserDto per line)
+    // The body is streamed, not buffered, so very large files are fine
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<UserImportReport> importUsers(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) {
+        UserImportService.Format format = MediaType.parseMediaType(contentType)
+                .isCompatibleWith(MediaType.APPLICATION_NDJSON)
+                ? UserImportService.Format.NDJSON
+                : UserImportService.Format.CSV;
+        try {
+            return ResponseEntity.ok(userImportService.importUsers(body, format));
+        } catch (UserException e) {
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+        }
+    }
+}
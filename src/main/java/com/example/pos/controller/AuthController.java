@@ -1,11 +1,14 @@
 package com.example.pos.controller;
 
+import com.example.pos.configuration.AuthenticatedUser;
 import com.example.pos.exceptions.UserException;
 import com.example.pos.payload.dto.UserDto;
 import com.example.pos.payload.response.AuthResponse;
 import com.example.pos.service.AuthService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -29,4 +32,14 @@ public class AuthController {
     public ResponseEntity<AuthResponse> LoginHandler(@RequestBody UserDto userDto) throws Exception, UserException {
         return ResponseEntity.ok(authService.login(userDto));
     }
+
+    // Revokes the bearer token sent with this request
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logoutHandler(@AuthenticationPrincipal AuthenticatedUser principal) throws UserException {
+        if (principal == null) {
+            return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+        }
+        authService.logout(principal);
+        return ResponseEntity.noContent().build();
+    }
 }
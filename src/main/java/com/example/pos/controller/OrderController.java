@@ -0,0 +1,68 @@
+package com.example.pos.controller;
+
+import com.example.pos.configuration.AuthenticatedUser;
+import com.example.pos.exceptions.UserException;
+import com.example.pos.payload.dto.OrderDto;
+import com.example.pos.payload.request.CheckoutRequest;
+import com.example.pos.payload.response.CheckoutResult;
+import com.example.pos.service.CheckoutService;
+import com.example.pos.service.UserService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+// Sales rung up at a store's tills. Any signed-in user can check out (cashiers included).
+@RestController
+@RequestMapping("/api/stores/{storeId}/orders")
+public class OrderController {
+
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    private final CheckoutService checkoutService;
+    private final UserService userService;
+
+    public OrderController(CheckoutService checkoutService, UserService userService) {
+        this.checkoutService = checkoutService;
+        this.userService = userService;
+    }
+
+    // POST /api/stores/{storeId}/orders
+    // Header: Idempotency-Key: <a new random value per basket, the SAME value when retrying>
+    // Body: { "lines": [ { "productId": "123...", "quantity": 2 }, ... ] }
+    // 201 with the new order, or 200 (and Idempotent-Replayed: true) with the order an
+    // earlier attempt with the same key already created
+    @PostMapping
+    public ResponseEntity<OrderDto> checkout(@PathVariable UUID storeId,
+                                             @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+                                             @AuthenticationPrincipal AuthenticatedUser principal,
+                                             @Valid @RequestBody CheckoutRequest request) {
+        try {
+            // Tokens from before the "uid" claim don't carry the id - look the user up once
+            UUID cashierId = principal != null && principal.getId() != null
+                    ? principal.getId()
+                    : userService.getUser(principal).getId();
+
+            CheckoutResult result = checkoutService.checkout(storeId, cashierId, idempotencyKey, request);
+            if (result.isReplayed()) {
+                return ResponseEntity.ok().header("Idempotent-Replayed", "true").body(result.getOrder());
+            }
+            return new ResponseEntity<>(result.getOrder(), HttpStatus.CREATED);
+        } catch (UserException e) {
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    // GET /api/stores/{storeId}/orders/{orderId}
+    @GetMapping("/{orderId}")
+    public ResponseEntity<OrderDto> getOrder(@PathVariable UUID storeId, @PathVariable UUID orderId) {
+        try {
+            return new ResponseEntity<>(checkoutService.getOrder(storeId, orderId).getOrder(), HttpStatus.OK);
+        } catch (UserException e) {
+            return new ResponseEntity<>(null, HttpStatus.NOT_FOUND);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.pos.controller;
+
+import com.example.pos.exceptions.UserException;
+import com.example.pos.payload.dto.ProductDto;
+import com.example.pos.payload.response.CursorPage;
+import com.example.pos.payload.response.ProductImportReport;
+import com.example.pos.service.ProductImportService;
+import com.example.pos.service.ProductService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+import java.util.UUID;
+
+// A store's product catalog
+// Reading is open to every signed-in user (cashiers need the catalog);
+// changing it needs ADMIN or STORE_MANAGER
+@RestController
+@RequestMapping("/api/stores/{storeId}/products")
+public class ProductController {
+
+    private final ProductService productService;
+    private final ProductImportService productImportService;
+
+    public ProductController(ProductService productService, ProductImportService productImportService) {
+        this.productService = productService;
+        this.productImportService = productImportService;
+    }
+
+    // POST /api/stores/{storeId}/products
+    // Body: { "sku": "COKE-500ML", "barcode": "5449000000996", "name": "Coca-Cola 500ml",
+    //         "priceMinor": 1250, "taxClass": "STANDARD" }
+    @PostMapping
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_STORE_MANAGER')")
+    public ResponseEntity<ProductDto> createProduct(@PathVariable UUID storeId,
+                                                    @Valid @RequestBody ProductDto productDto) {
+        try {
+            return new ResponseEntity<>(productService.createProduct(storeId, productDto), HttpStatus.CREATED);
+        } catch (UserException e) {
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    // GET /api/stores/{storeId}/products?size=100&cursor=<nextCursor>
+    // One page of the catalog, ordered by SKU (page size defaults to 20, max 100)
+    @GetMapping
+    public ResponseEntity<CursorPage<ProductDto>> getProducts(@PathVariable UUID storeId,
+                                                              @RequestParam(required = false) String cursor,
+                                                              @RequestParam(required = false) Integer size) {
+        try {
+            return new ResponseEntity<>(productService.getProducts(storeId, cursor, size), HttpStatus.OK);
+        } catch (UserException e) {
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    // GET /api/stores/{storeId}/products/{productId}
+    @GetMapping("/{productId}")
+    public ResponseEntity<ProductDto> getProduct(@PathVariable UUID storeId, @PathVariable UUID productId) {
+        try {
+            return new ResponseEntity<>(productService.getProduct(storeId, productId), HttpStatus.OK);
+        } catch (UserException e) {
+            return new ResponseEntity<>(null, HttpStatus.NOT_FOUND);
+        }
+    }
+
+    // PUT /api/stores/{storeId}/products/{productId}
+    @PutMapping("/{productId}")
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_STORE_MANAGER')")
+    public ResponseEntity<ProductDto> updateProduct(@PathVariable UUID storeId, @PathVariable UUID productId,
+                                                    @Valid @RequestBody ProductDto productDto) {
+        try {
+            return new ResponseEntity<>(productService.updateProduct(storeId, productId, productDto), HttpStatus.OK);
+        } catch (UserException e) {
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    // DELETE /api/stores/{storeId}/products/{productId}
+    @DeleteMapping("/{productId}")
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_STORE_MANAGER')")
+    public ResponseEntity<String> deleteProduct(@PathVariable UUID storeId, @PathVariable UUID productId) {
+        try {
+            productService.deleteProduct(storeId, productId);
+            return new ResponseEntity<>("Product deleted successfully", HttpStatus.OK);
+        } catch (UserException e) {
+            return new ResponseEntity<>("Product not found", HttpStatus.NOT_FOUND);
+        }
+    }
+
+    // POST /api/stores/{storeId}/products/import
+    // Body: CSV (text/csv), header "sku,barcode,name,priceMinor,taxClass"
+    // New SKUs are added, existing ones updated. The body is streamed, so 200k-line files are fine
+    @PostMapping(value = "/import", consumes = "text/csv")
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_STORE_MANAGER')")
+    public ResponseEntity<ProductImportReport> importProducts(@PathVariable UUID storeId, InputStream body) {
+        try {
+            return ResponseEntity.ok(productImportService.importProducts(storeId, body));
+        } catch (UserException e) {
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.pos.controller;
+
+import com.example.pos.exceptions.UserException;
+import com.example.pos.payload.response.CatalogStats;
+import com.example.pos.payload.response.ScanResult;
+import com.example.pos.service.CatalogSnapshots;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+// Barcode scans at the till, answered from the store's in-memory catalog snapshot (no database query)
+@RestController
+@RequestMapping("/api/stores/{storeId}")
+public class ScanController {
+
+    private final CatalogSnapshots catalogSnapshots;
+
+    public ScanController(CatalogSnapshots catalogSnapshots) {
+        this.catalogSnapshots = catalogSnapshots;
+    }
+
+    // GET /api/stores/{storeId}/scan/5449000000996
+    // Returns the product and its price, or 404 if the store or a product with that barcode isn't found
+    @GetMapping("/scan/{barcode}")
+    public ResponseEntity<ScanResult> scan(@PathVariable UUID storeId, @PathVariable String barcode) {
+        try {
+            ScanResult result = catalogSnapshots.scan(storeId, barcode);
+            if (result == null) {
+                return new ResponseEntity<>(null, HttpStatus.NOT_FOUND);
+            }
+            return new ResponseEntity<>(result, HttpStatus.OK);
+        } catch (UserException e) {
+            return new ResponseEntity<>(null, HttpStatus.NOT_FOUND);
+        }
+    }
+
+    // GET /api/stores/{storeId}/catalog/stats
+    // Size of the snapshot and its estimated memory use (also scaled to 100k products)
+    @GetMapping("/catalog/stats")
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_STORE_MANAGER')")
+    public ResponseEntity<CatalogStats> catalogStats(@PathVariable UUID storeId) {
+        try {
+            return new ResponseEntity<>(catalogSnapshots.stats(storeId), HttpStatus.OK);
+        } catch (UserException e) {
+            return new ResponseEntity<>(null, HttpStatus.NOT_FOUND);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.pos.controller;
+
+import com.example.pos.exceptions.UserException;
+import com.example.pos.payload.request.StockMovementRequest;
+import com.example.pos.payload.response.StockAvailability;
+import com.example.pos.service.StockLedger;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+// A store's stock. Sales take stock through checkout; deliveries and corrections come in here.
+@RestController
+@RequestMapping("/api/stores/{storeId}/stock")
+public class StockController {
+
+    private final StockLedger stockLedger;
+
+    public StockController(StockLedger stockLedger) {
+        this.stockLedger = stockLedger;
+    }
+
+    // GET /api/stores/{storeId}/stock/{productId}
+    @GetMapping("/{productId}")
+    public ResponseEntity<StockAvailability> getAvailability(@PathVariable UUID storeId, @PathVariable UUID productId) {
+        return new ResponseEntity<>(stockLedger.getAvailability(storeId, productId), HttpStatus.OK);
+    }
+
+    // POST /api/stores/{storeId}/stock/{productId}
+    // Body: { "type": "RECEIPT", "delta": 48 }  or  { "type": "ADJUSTMENT", "delta": -2 }
+    // The first receipt or adjustment of a product starts tracking its stock
+    @PostMapping("/{productId}")
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_STORE_MANAGER')")
+    public ResponseEntity<StockAvailability> recordMovement(@PathVariable UUID storeId, @PathVariable UUID productId,
+                                                            @Valid @RequestBody StockMovementRequest request) {
+        try {
+            return new ResponseEntity<>(stockLedger.record(storeId, productId, request.getType(), request.getDelta()),
+                    HttpStatus.OK);
+        } catch (UserException e) {
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+        }
+    }
+}
@@ -3,15 +3,31 @@ package com.example.pos.controller;
 import com.example.pos.domain.StoreStatus;
 import com.example.pos.exceptions.UserException;
 import com.example.pos.payload.dto.StoreDto;
+import com.example.pos.payload.request.BatchLookupRequest;
+import com.example.pos.payload.request.BulkStoreStatusRequest;
+import com.example.pos.payload.request.StorePatchRequest;
+import com.example.pos.payload.response.BulkStoreStatusResult;
+import com.example.pos.payload.response.BatchLookupResult;
+import com.example.pos.payload.response.CursorPage;
+import com.example.pos.payload.response.StoreSearchHit;
+import com.example.pos.payload.response.StoreStats;
+import com.example.pos.payload.response.StoreVersions;
+import com.example.pos.service.StoreExportService;
 import com.example.pos.service.StoreService;
+import com.example.pos.utils.ETags;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 // @RestController tells Spring: "This handles HTTP requests and returns JSON"
@@ -24,6 +40,10 @@ public class StoreController {
     @Autowired
     private StoreService storeService;
 
+    // Streams stores for exports
+    @Autowired
+    private StoreExportService storeExportService;
+
     // ============================================
     // CREATE STORE
     // ============================================
@@ -51,20 +71,117 @@ public class StoreController {
     }
 
     // ============================================
-    // GET ALL STORES
+    // GET ALL STORES (PAGINATED)
     // ============================================
-    // GET http://localhost:8080/api/stores
-    // Returns a list of all stores
-    // ADMIN and MANAGER can access this
+    // GET http://localhost:8080/api/stores?size=50&storeType=Retail
+    // GET http://localhost:8080/api/stores?cursor=<nextCursor from the previous page>
+    // Returns one page of stores (oldest first) plus a nextCursor for the following page
+    // Optional filters: status, storeType. Page size defaults to 20, max 100
+    // ADMIN, STORE_MANAGER and BRANCH_MANAGER can access this
     @GetMapping
-    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_MANAGER')")
-    public ResponseEntity<List<StoreDto>> getAllStores() {
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_STORE_MANAGER', 'ROLE_BRANCH_MANAGER')")
+    public ResponseEntity<CursorPage<StoreDto>> getAllStores(
+            @RequestParam(required = false) StoreStatus status,
+            @RequestParam(required = false) String storeType,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size
+    ) {
+        try {
+            CursorPage<StoreDto> page = storeService.getStores(status, storeType, cursor, size);
+
+            // Return 200 OK with the page
+            return new ResponseEntity<>(page, HttpStatus.OK);
+
+        } catch (UserException e) {
+            // Cursor could not be decoded
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    // ============================================
+    // EXPORT ALL STORES (STREAMING)
+    // ============================================
+    // GET http://localhost:8080/api/stores/export?format=ndjson   (default)
+    // GET http://localhost:8080/api/stores/export?format=csv
+    // Streams every store as it is read from the database - nothing is built up in memory,
+    // so this is what reporting jobs should use instead of paging through GET /api/stores
+    @GetMapping("/export")
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_STORE_MANAGER', 'ROLE_BRANCH_MANAGER')")
+    public ResponseEntity<StreamingResponseBody> exportStores(
+            @RequestParam(defaultValue = "ndjson") String format
+    ) {
+        StoreExportService.Format exportFormat = "csv".equalsIgnoreCase(format)
+                ? StoreExportService.Format.CSV
+                : StoreExportService.Format.NDJSON;
 
-        // Get all stores from service
-        List<StoreDto> stores = storeService.getAllStores();
+        // The body is written after this method returns, on Spring's async thread
+        StreamingResponseBody body = out -> storeExportService.export(exportFormat, out);
+
+        return ResponseEntity.ok()
+                .contentType(exportFormat == StoreExportService.Format.CSV
+                        ? MediaType.parseMediaType("text/csv")
+                        : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=stores." + (exportFormat == StoreExportService.Format.CSV ? "csv" : "ndjson"))
+                .body(body);
+    }
+
+    // ============================================
+    // GET MANY STORES BY ID
+    // ============================================
+    // POST http://localhost:8080/api/stores/batch
+    // Request Body: { "ids": ["123e4567-...", "987f6543-..."] }   (at most 500 ids)
+    // Returns { "found": { "<id>": { store }, ... }, "missing": ["<id>", ...] }
+    // ADMIN, STORE_MANAGER and BRANCH_MANAGER can access this
+    @PostMapping("/batch")
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_STORE_MANAGER', 'ROLE_BRANCH_MANAGER')")
+    public ResponseEntity<BatchLookupResult<StoreDto>> getStoresByIds(
+            @Valid @RequestBody BatchLookupRequest request
+    ) {
+        try {
+            BatchLookupResult<StoreDto> result = storeService.getStoresByIds(request.getIds());
+            return new ResponseEntity<>(result, HttpStatus.OK);
+
+        } catch (UserException e) {
+            // Too many ids
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    // ============================================
+    // STORE COUNTS
+    // ============================================
+    // GET http://localhost:8080/api/stores/stats
+    // Returns { "total": 120, "byStatus": { "ACTIVE": 100, ... }, "byStoreType": { "Retail": 80, ... } }
+    // ADMIN, STORE_MANAGER and BRANCH_MANAGER can access this
+    @GetMapping("/stats")
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_STORE_MANAGER', 'ROLE_BRANCH_MANAGER')")
+    public ResponseEntity<StoreStats> getStoreStats() {
+        return new ResponseEntity<>(storeService.getStoreStats(), HttpStatus.OK);
+    }
+
+    // ============================================
+    // SEARCH STORES (TYPE-AHEAD)
+    // ============================================
+    // GET http://localhost:8080/api/stores/search?q=shop%20acc&size=10
+    // GET http://localhost:8080/api/stores/search?q=shop%20acc&cursor=<nextCursor>
+    // Matches words in brand, store type and address by prefix, ordered by brand
+    // ADMIN, STORE_MANAGER and BRANCH_MANAGER can access this
+    @GetMapping("/search")
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_STORE_MANAGER', 'ROLE_BRANCH_MANAGER')")
+    public ResponseEntity<CursorPage<StoreSearchHit>> searchStores(
+            @RequestParam String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size
+    ) {
+        try {
+            CursorPage<StoreSearchHit> page = storeService.searchStores(q, cursor, size);
+            return new ResponseEntity<>(page, HttpStatus.OK);
 
-        // Return 200 OK with the list
-        return new ResponseEntity<>(stores, HttpStatus.OK);
+        } catch (UserException e) {
+            // The cursor couldn't be read
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+        }
     }
 
     // ============================================
@@ -72,15 +189,32 @@ public class StoreController {
     // ============================================
     // GET http://localhost:8080/api/stores/123e4567-e89b-12d3-a456-426614174000
     // Returns a specific store by ID
+    // Every response carries an ETag (the store's version and its admin's, e.g. "7.3").
+    // Terminals send it back as If-None-Match and get 304 Not Modified - no body - while
+    // neither the store nor the admin shown with it has changed
+    // Any staff role can access this (cashiers' terminals read their store's details)
     @GetMapping("/{id}")
-    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_MANAGER')")
-    public ResponseEntity<StoreDto> getStoreById(@PathVariable UUID id) {
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_STORE_MANAGER', 'ROLE_BRANCH_MANAGER', 'ROLE_CASHIER')")
+    public ResponseEntity<StoreDto> getStoreById(@PathVariable UUID id, WebRequest webRequest) {
         // @PathVariable extracts {id} from the URL
         // Example: /api/stores/123abc → id = "123abc"
 
         try {
+            // Conditional request: compare against the current version only (tiny query),
+            // and skip loading, mapping and serializing the store if it hasn't changed
+            if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+                Optional<StoreVersions> versions = storeService.getStoreVersions(id);
+                if (versions.isEmpty()) {
+                    return new ResponseEntity<>(null, HttpStatus.NOT_FOUND);
+                }
+                if (webRequest.checkNotModified(
+                        ETags.of(versions.get().getVersion(), versions.get().getStoreAdminVersion()))) {
+                    return null;  // Spring has already set 304 and the ETag header
+                }
+            }
+
             StoreDto store = storeService.getStoreById(id);
-            return new ResponseEntity<>(store, HttpStatus.OK);
+            return ResponseEntity.ok().eTag(ETags.of(store.getVersion(), store.getStoreAdminVersion())).body(store);
 
         } catch (UserException e) {
             // Store not found - return 404
@@ -89,16 +223,25 @@ public class StoreController {
     }
 
     // ============================================
-    // GET STORES BY STATUS
+    // GET STORES BY STATUS (PAGINATED)
     // ============================================
-    // GET http://localhost:8080/api/stores/status/ACTIVE
-    // Returns all stores with a specific status
+    // GET http://localhost:8080/api/stores/status/ACTIVE?cursor=...&size=...
+    // Same as GET /api/stores?status=ACTIVE - one page of stores with this status
     @GetMapping("/status/{status}")
-    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_MANAGER')")
-    public ResponseEntity<List<StoreDto>> getStoresByStatus(@PathVariable StoreStatus status) {
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_STORE_MANAGER', 'ROLE_BRANCH_MANAGER')")
+    public ResponseEntity<CursorPage<StoreDto>> getStoresByStatus(
+            @PathVariable StoreStatus status,
+            @RequestParam(required = false) String storeType,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size
+    ) {
+        try {
+            CursorPage<StoreDto> page = storeService.getStores(status, storeType, cursor, size);
+            return new ResponseEntity<>(page, HttpStatus.OK);
 
-        List<StoreDto> stores = storeService.getStoresByStatus(status);
-        return new ResponseEntity<>(stores, HttpStatus.OK);
+        } catch (UserException e) {
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+        }
     }
 
     // ============================================
@@ -122,6 +265,44 @@ public class StoreController {
         }
     }
 
+    // ============================================
+    // PATCH STORE (PARTIAL UPDATE)
+    // ============================================
+    // PATCH http://localhost:8080/api/stores/123e4567-e89b-12d3-a456-426614174000
+    // Header: If-Match: "7.3"   (the ETag from GET /api/stores/{id}) - or "version": 7 in the body
+    // Request Body: { "phone": "+233 24 765 4321" }   (only the fields to change)
+    // Returns the updated store and its new ETag
+    // 409 Conflict if the store changed since that version, 428 if no version was given,
+    // 400 if the new brand belongs to another store
+    // Only ADMIN can update stores
+    @PatchMapping("/{id}")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<StoreDto> patchStore(
+            @PathVariable UUID id,
+            @Valid @RequestBody StorePatchRequest patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        // Only the store's own version matters here - the patch doesn't touch the admin
+        Long expectedVersion = patch.getVersion() != null ? patch.getVersion() : ETags.leadingVersion(ifMatch);
+        if (expectedVersion == null) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_REQUIRED,
+                    "Send the store version (If-Match header or \"version\" field)");
+        }
+
+        try {
+            StoreDto updatedStore = storeService.patchStore(id, patch, expectedVersion);
+            return ResponseEntity.ok()
+                    .eTag(ETags.of(updatedStore.getVersion(), updatedStore.getStoreAdminVersion()))
+                    .body(updatedStore);
+
+        } catch (UserException e) {
+            // Either the store is gone (404) or the new brand is taken (400)
+            HttpStatus status = storeService.getStoreVersion(id).isPresent()
+                    ? HttpStatus.BAD_REQUEST : HttpStatus.NOT_FOUND;
+            return new ResponseEntity<>(null, status);
+        }
+    }
+
     // ============================================
     // DELETE STORE
     // ============================================
@@ -162,4 +343,27 @@ public class StoreController {
             return new ResponseEntity<>(null, HttpStatus.NOT_FOUND);
         }
     }
+
+    // ============================================
+    // CHANGE STATUS OF MANY STORES
+    // ============================================
+    // PATCH http://localhost:8080/api/stores/status
+    // Request Body: { "storeType": "Retail", "currentStatus": "ACTIVE", "targetStatus": "BLOCKED" }
+    //           or: { "ids": ["123...", "456..."], "targetStatus": "ACTIVE" }
+    // Returns counts (matched / updated / unchanged) and any ids that weren't found
+    // Only ADMIN can change status
+    @PatchMapping("/status")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<BulkStoreStatusResult> changeStoreStatuses(
+            @Valid @RequestBody BulkStoreStatusRequest request
+    ) {
+        try {
+            BulkStoreStatusResult result = storeService.changeStoreStatuses(request);
+            return new ResponseEntity<>(result, HttpStatus.OK);
+
+        } catch (UserException e) {
+            // No ids and no filters - refuse rather than change every store
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,42 @@
+package com.example.pos.controller;
+
+import com.example.pos.exceptions.UserException;
+import com.example.pos.payload.response.SyncPage;
+import com.example.pos.service.SyncService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+// Delta sync for terminals that work offline
+@RestController
+@RequestMapping("/api/sync")
+public class SyncController {
+
+    private final SyncService syncService;
+
+    public SyncController(SyncService syncService) {
+        this.syncService = syncService;
+    }
+
+    // GET /api/sync/changes?cursor=1234&storeId=...&limit=500
+    // Stores, users and products created, updated or deleted after the cursor, oldest first.
+    // First time: call without a cursor to get one, download everything with the normal
+    // endpoints, then sync from that cursor. A STORE tombstone also means its products are gone.
+    // 410 GONE: the cursor is older than the log kept - download everything again.
+    // ADMIN, STORE_MANAGER and BRANCH_MANAGER can access this (users aren't tied to a store,
+    // so cashiers can't be limited to their own store's changes)
+    @GetMapping("/changes")
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_STORE_MANAGER', 'ROLE_BRANCH_MANAGER')")
+    public ResponseEntity<SyncPage> getChanges(@RequestParam(required = false) Long cursor,
+                                               @RequestParam(required = false) UUID storeId,
+                                               @RequestParam(required = false) Integer limit) {
+        try {
+            return new ResponseEntity<>(syncService.getChanges(cursor, storeId, limit), HttpStatus.OK);
+        } catch (UserException e) {
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+        }
+    }
+}
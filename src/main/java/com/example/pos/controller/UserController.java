@@ -1,14 +1,26 @@
 package com.example.pos.controller;
 
+import com.example.pos.configuration.AuthenticatedUser;
 import com.example.pos.configuration.JwtProvider;
 import com.example.pos.exceptions.UserException;
 import com.example.pos.mapper.UserMapper;
 import com.example.pos.model.User;
 import com.example.pos.payload.dto.UserDto;
+import com.example.pos.payload.request.BatchLookupRequest;
+import com.example.pos.payload.response.BatchLookupResult;
 import com.example.pos.service.UserService;
+import com.example.pos.utils.ETags;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 @RestController
@@ -22,17 +34,49 @@ public class UserController {
         this.jwtProvider = jwtProvider;
     }
 
+    // The token was already verified by JwtValidator - use its claims instead of parsing it again.
+    // The response carries an ETag (the user's version); a matching If-None-Match gets 304
+    // after a single-column version lookup, without loading or serializing the user.
+    // The ETag is weak: lastLogin is in the body but not in the version (logins would
+    // otherwise change it all the time), so a 304 may come with an older lastLogin.
     @GetMapping("/profile")
     public ResponseEntity<UserDto> getUserProfile(
-            @RequestHeader("Authorization") String jwt) throws UserException {
-        User user = userService.getUserFromJwtToken(jwt);
-        return ResponseEntity.ok(UserMapper.toDto(user));
+            @AuthenticationPrincipal AuthenticatedUser principal, WebRequest webRequest) throws UserException {
+        if (principal != null && principal.getId() != null
+                && webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Optional<Long> version = userService.getUserVersion(principal.getId());
+            if (version.isPresent() && webRequest.checkNotModified(ETags.weak(version.get()))) {
+                return null;  // 304 Not Modified
+            }
+        }
+
+        User user = userService.getUser(principal);
+        return ResponseEntity.ok()
+                .eTag(ETags.weak(user.getVersion()))
+                .body(UserMapper.toDto(user));
+
+    }
 
+    // POST /api/users/batch   Body: { "ids": ["123...", "456..."] }   (at most 500 ids)
+    // Resolves many users in one call; ids that don't exist are listed under "missing"
+    // ADMIN, STORE_MANAGER and BRANCH_MANAGER can access this
+    @PostMapping("/batch")
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_STORE_MANAGER', 'ROLE_BRANCH_MANAGER')")
+    public ResponseEntity<BatchLookupResult<UserDto>> getUsersByIds(
+            @Valid @RequestBody BatchLookupRequest request) {
+        BatchLookupResult<User> users;
+        try {
+            users = userService.getUsersByIds(request.getIds());
+        } catch (UserException e) {
+            return ResponseEntity.badRequest().build();  // too many ids
+        }
+        Map<UUID, UserDto> found = new LinkedHashMap<>();
+        users.getFound().forEach((id, user) -> found.put(id, UserMapper.toDto(user)));
+        return ResponseEntity.ok(new BatchLookupResult<>(found, users.getMissing()));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<UserDto> getUserById(
-            @RequestHeader("Authorization") String jwt, @PathVariable UUID id) throws UserException {
+    public ResponseEntity<UserDto> getUserById(@PathVariable UUID id) throws UserException {
         User user = userService.getUserById(id);
         return ResponseEntity.ok(UserMapper.toDto(user));
 
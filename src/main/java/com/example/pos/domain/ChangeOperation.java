@@ -0,0 +1,8 @@
+package com.example.pos.domain;
+
+// What happened to a synced entity (one row per change in change_log)
+public enum ChangeOperation {
+    CREATED,
+    UPDATED,
+    DELETED    // a tombstone: the terminal should drop its copy
+}
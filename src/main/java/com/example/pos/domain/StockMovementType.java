@@ -0,0 +1,8 @@
+package com.example.pos.domain;
+
+// Why a product's stock changed (one row per change in stock_movements)
+public enum StockMovementType {
+    RECEIPT,     // Delivery received - stock goes up
+    SALE,        // Sold at a till (written by checkout) - stock goes down
+    ADJUSTMENT   // Stock count correction, damage, theft... - either way
+}
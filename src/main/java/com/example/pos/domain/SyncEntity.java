@@ -0,0 +1,8 @@
+package com.example.pos.domain;
+
+// Entity types that offline terminals keep a copy of (see GET /api/sync/changes)
+public enum SyncEntity {
+    STORE,
+    USER,
+    PRODUCT
+}
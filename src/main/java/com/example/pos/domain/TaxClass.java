@@ -0,0 +1,13 @@
+package com.example.pos.domain;
+
+// TaxClass - Which VAT rate applies to a product at checkout
+public enum TaxClass {
+
+    STANDARD,  // Normal rate - most goods
+
+    REDUCED,   // Lower rate - e.g. some food items
+
+    ZERO,      // Taxable, but at 0%
+
+    EXEMPT     // Not taxed at all (e.g. basic medicines)
+}
@@ -0,0 +1,32 @@
+package com.example.pos.mapper;
+
+import com.example.pos.model.Order;
+import com.example.pos.model.OrderLine;
+import com.example.pos.payload.dto.OrderDto;
+
+// Converts Order (database object) to OrderDto (API object). Orders are only created
+// by CheckoutService, so there is no toEntity.
+public class OrderMapper {
+
+    public static OrderDto toDto(Order order) {
+        if (order == null) {
+            return null;
+        }
+
+        OrderDto dto = new OrderDto();
+        dto.setId(order.getId());
+        // getId() on a lazy proxy doesn't load the store / cashier
+        dto.setStoreId(order.getStore() != null ? order.getStore().getId() : null);
+        dto.setCashierId(order.getCashier() != null ? order.getCashier().getId() : null);
+        dto.setIdempotencyKey(order.getIdempotencyKey());
+        dto.setTotalMinor(order.getTotalMinor());
+        dto.setCreatedAt(order.getCreatedAt());
+        dto.setLines(order.getLines().stream().map(OrderMapper::toDto).toList());
+        return dto;
+    }
+
+    private static OrderDto.Line toDto(OrderLine line) {
+        return new OrderDto.Line(line.getLineNo(), line.getProductId(), line.getSku(), line.getName(),
+                line.getQuantity(), line.getUnitPriceMinor(), line.getLineTotalMinor(), line.getTaxClass());
+    }
+}
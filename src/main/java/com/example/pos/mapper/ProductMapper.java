@@ -0,0 +1,44 @@
+package com.example.pos.mapper;
+
+import com.example.pos.model.Product;
+import com.example.pos.payload.dto.ProductDto;
+
+// Converts between Product (database object) and ProductDto (API object)
+public class ProductMapper {
+
+    // Product → ProductDto (sending to the frontend)
+    public static ProductDto toDto(Product product) {
+        if (product == null) {
+            return null;
+        }
+
+        ProductDto dto = new ProductDto();
+        dto.setId(product.getId());
+        // getId() on a lazy proxy doesn't load the store
+        dto.setStoreId(product.getStore() != null ? product.getStore().getId() : null);
+        dto.setSku(product.getSku());
+        dto.setBarcode(product.getBarcode());
+        dto.setName(product.getName());
+        dto.setPriceMinor(product.getPriceMinor());
+        dto.setTaxClass(product.getTaxClass());
+        dto.setCreatedAt(product.getCreatedAt());
+        dto.setUpdatedAt(product.getUpdatedAt());
+        dto.setVersion(product.getVersion());
+        return dto;
+    }
+
+    // ProductDto → Product (receiving from the frontend); the store is set by the service
+    public static Product toEntity(ProductDto dto) {
+        if (dto == null) {
+            return null;
+        }
+
+        Product product = new Product();
+        product.setSku(dto.getSku());
+        product.setBarcode(dto.getBarcode());
+        product.setName(dto.getName());
+        product.setPriceMinor(dto.getPriceMinor() != null ? dto.getPriceMinor() : 0);
+        product.setTaxClass(dto.getTaxClass());
+        return product;
+    }
+}
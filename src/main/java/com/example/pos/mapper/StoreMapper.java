@@ -1,6 +1,7 @@
 package com.example.pos.mapper;
 
 import com.example.pos.model.Store;
+import com.example.pos.model.StoreContact;
 import com.example.pos.payload.dto.StoreDto;
 
 // Mapper = Translator
@@ -29,20 +30,47 @@ public class StoreMapper {
         dto.setDescription(store.getDescription());
         dto.setStoreType(store.getStoreType());
         dto.setStatus(store.getStatus());
-        dto.setContact(store.getContact());
+        dto.setContact(copy(store.getContact()));  // not the entity's own (mutable) instance
         dto.setCreatedAt(store.getCreatedAt());
         dto.setUpdatedAt(store.getUpdatedAt());
+        dto.setVersion(store.getVersion());
 
         // If store has an admin, set the admin's ID and name
         // We don't send the entire User object (too much data!)
         if (store.getStoreAdmin() != null) {
             dto.setStoreAdminId(store.getStoreAdmin().getId());
             dto.setStoreAdminName(store.getStoreAdmin().getFullname());
+            dto.setStoreAdminVersion(store.getStoreAdmin().getVersion());
         }
 
         return dto;
     }
 
+    // ============================================
+    // COPY A STOREDTO
+    // ============================================
+    // StoreCache hands every caller its own copy, so one request changing
+    // the DTO it got can't change what the next request sees
+    public static StoreDto copy(StoreDto dto) {
+        if (dto == null) {
+            return null;
+        }
+        return new StoreDto(dto.getId(), dto.getBrand(), dto.getStoreAdminId(), dto.getStoreAdminName(),
+                dto.getDescription(), dto.getStoreType(), dto.getStatus(), copy(dto.getContact()),
+                dto.getCreatedAt(), dto.getUpdatedAt(), dto.getVersion(), dto.getStoreAdminVersion());
+    }
+
+    private static StoreContact copy(StoreContact contact) {
+        if (contact == null) {
+            return null;
+        }
+        StoreContact copy = new StoreContact();
+        copy.setAddress(contact.getAddress());
+        copy.setPhone(contact.getPhone());
+        copy.setEmail(contact.getEmail());
+        return copy;
+    }
+
     // ============================================
     // CONVERT STOREDTO → STORE
     // ============================================
@@ -2,6 +2,9 @@ package com.example.pos.mapper;
 
 import com.example.pos.model.User;
 import com.example.pos.payload.dto.UserDto;
+import com.example.pos.repo.UserCredentials;
+
+import java.time.LocalDateTime;
 
 public class UserMapper {
 
@@ -15,6 +18,23 @@ public class UserMapper {
         userDto.setUpdatedAt(savedUser.getUpdatedAt());
         userDto.setLastLogin(savedUser.getLastLogin());
         userDto.setPhone(savedUser.getPhone());
+        userDto.setVersion(savedUser.getVersion());
+
+        return userDto;
+    }
+
+    // The login response, straight from the cached credentials (no User loaded)
+    public static UserDto toDto(UserCredentials credentials, LocalDateTime lastLogin) {
+        UserDto userDto = new UserDto();
+        userDto.setId(credentials.getId());
+        userDto.setFullname(credentials.getFullname());
+        userDto.setEmail(credentials.getEmail());
+        userDto.setRole(credentials.getRole());
+        userDto.setCreatedAt(credentials.getCreatedAt());
+        userDto.setUpdatedAt(credentials.getUpdatedAt());
+        userDto.setLastLogin(lastLogin);
+        userDto.setPhone(credentials.getPhone());
+        userDto.setVersion(credentials.getVersion());
 
         return userDto;
     }
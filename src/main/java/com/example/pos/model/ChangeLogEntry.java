@@ -0,0 +1,104 @@
+package com.example.pos.model;
+
+import com.example.pos.domain.ChangeOperation;
+import com.example.pos.domain.SyncEntity;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// @Entity tells Spring: "This is a database table!"
+// One row per create/update/delete of a synced entity, written in the same transaction as the
+// change itself. The id only ever grows, so it doubles as the terminals' sync cursor:
+// "give me everything after 1234".
+@Entity
+@Table(name = "change_log",
+        indexes = {
+                @Index(name = "idx_change_log_store", columnList = "store_id, id"),
+                @Index(name = "idx_change_log_created", columnList = "created_at")  // retention purge
+        })
+public class ChangeLogEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false, length = 16)
+    private SyncEntity entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private UUID entityId;
+
+    // The store the entity belongs to (the store itself for STORE, empty for USER),
+    // so a terminal can sync just its own store
+    @Column(name = "store_id")
+    private UUID storeId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ChangeOperation operation;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // ============================================
+    // CONSTRUCTORS
+    // ============================================
+
+    // Empty constructor (required by JPA)
+    public ChangeLogEntry() {
+    }
+
+    // ============================================
+    // GETTERS AND SETTERS
+    // ============================================
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public SyncEntity getEntityType() {
+        return entityType;
+    }
+
+    public void setEntityType(SyncEntity entityType) {
+        this.entityType = entityType;
+    }
+
+    public UUID getEntityId() {
+        return entityId;
+    }
+
+    public void setEntityId(UUID entityId) {
+        this.entityId = entityId;
+    }
+
+    public UUID getStoreId() {
+        return storeId;
+    }
+
+    public void setStoreId(UUID storeId) {
+        this.storeId = storeId;
+    }
+
+    public ChangeOperation getOperation() {
+        return operation;
+    }
+
+    public void setOperation(ChangeOperation operation) {
+        this.operation = operation;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
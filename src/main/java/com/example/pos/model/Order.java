@@ -0,0 +1,146 @@
+package com.example.pos.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// @Entity tells Spring: "This is a database table!"
+// One row per sale rung up at a till. Never updated once written.
+@Entity
+@Table(name = "orders",
+        // A till retrying the same checkout sends the same key - the second insert fails
+        // here instead of charging the customer twice
+        uniqueConstraints = @UniqueConstraint(name = "uk_orders_store_idempotency_key",
+                columnNames = {"store_id", "idempotency_key"}))
+public class Order {
+
+    // Primary Key - assigned by CheckoutService before the insert
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private UUID id;
+
+    // The store where the sale happened
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "store_id", nullable = false)
+    // Sales are the store's financial record: a store with orders can't be deleted (block it instead)
+    @OnDelete(action = OnDeleteAction.RESTRICT)
+    private Store store;
+
+    // The cashier who rang it up (kept empty if that user is deleted later)
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "cashier_id")
+    @OnDelete(action = OnDeleteAction.SET_NULL)
+    private User cashier;
+
+    // Chosen by the till, sent in the Idempotency-Key header
+    @Column(name = "idempotency_key", nullable = false, length = 64)
+    private String idempotencyKey;
+
+    // SHA-256 of the basket (product ids and quantities) - a reused key with a different basket is refused
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    // Sum of the line totals, in minor units
+    @Column(name = "total_minor", nullable = false)
+    private long totalMinor;
+
+    @Column(name = "line_count", nullable = false)
+    private int lineCount;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // The items sold, in the order they were scanned
+    @OneToMany(mappedBy = "order")
+    @OrderBy("lineNo asc")
+    private List<OrderLine> lines = new ArrayList<>();
+
+    // ============================================
+    // CONSTRUCTORS
+    // ============================================
+
+    // Empty constructor (required by JPA)
+    public Order() {
+    }
+
+    // ============================================
+    // GETTERS AND SETTERS
+    // ============================================
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public Store getStore() {
+        return store;
+    }
+
+    public void setStore(Store store) {
+        this.store = store;
+    }
+
+    public User getCashier() {
+        return cashier;
+    }
+
+    public void setCashier(User cashier) {
+        this.cashier = cashier;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public String getRequestHash() {
+        return requestHash;
+    }
+
+    public void setRequestHash(String requestHash) {
+        this.requestHash = requestHash;
+    }
+
+    public long getTotalMinor() {
+        return totalMinor;
+    }
+
+    public void setTotalMinor(long totalMinor) {
+        this.totalMinor = totalMinor;
+    }
+
+    public int getLineCount() {
+        return lineCount;
+    }
+
+    public void setLineCount(int lineCount) {
+        this.lineCount = lineCount;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public List<OrderLine> getLines() {
+        return lines;
+    }
+
+    public void setLines(List<OrderLine> lines) {
+        this.lines = lines;
+    }
+}
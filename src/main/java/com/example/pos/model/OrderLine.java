@@ -0,0 +1,145 @@
+package com.example.pos.model;
+
+import com.example.pos.domain.TaxClass;
+import jakarta.persistence.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.util.UUID;
+
+// One item on an order. SKU, name and price are copied from the catalog at checkout,
+// so the receipt stays the same when the product is repriced or deleted later.
+@Entity
+@Table(name = "order_lines",
+        uniqueConstraints = @UniqueConstraint(name = "uk_order_lines_order_line_no", columnNames = {"order_id", "line_no"}))
+public class OrderLine {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "order_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Order order;
+
+    // Position on the receipt, starting at 1
+    @Column(name = "line_no", nullable = false)
+    private int lineNo;
+
+    // Plain column, no foreign key - the product may be deleted later
+    @Column(name = "product_id", nullable = false)
+    private UUID productId;
+
+    @Column(nullable = false, length = 64)
+    private String sku;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(nullable = false)
+    private int quantity;
+
+    @Column(name = "unit_price_minor", nullable = false)
+    private long unitPriceMinor;
+
+    // quantity * unitPriceMinor
+    @Column(name = "line_total_minor", nullable = false)
+    private long lineTotalMinor;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tax_class", nullable = false, length = 16)
+    private TaxClass taxClass;
+
+    // ============================================
+    // CONSTRUCTORS
+    // ============================================
+
+    // Empty constructor (required by JPA)
+    public OrderLine() {
+    }
+
+    // ============================================
+    // GETTERS AND SETTERS
+    // ============================================
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public Order getOrder() {
+        return order;
+    }
+
+    public void setOrder(Order order) {
+        this.order = order;
+    }
+
+    public int getLineNo() {
+        return lineNo;
+    }
+
+    public void setLineNo(int lineNo) {
+        this.lineNo = lineNo;
+    }
+
+    public UUID getProductId() {
+        return productId;
+    }
+
+    public void setProductId(UUID productId) {
+        this.productId = productId;
+    }
+
+    public String getSku() {
+        return sku;
+    }
+
+    public void setSku(String sku) {
+        this.sku = sku;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+    public long getUnitPriceMinor() {
+        return unitPriceMinor;
+    }
+
+    public void setUnitPriceMinor(long unitPriceMinor) {
+        this.unitPriceMinor = unitPriceMinor;
+    }
+
+    public long getLineTotalMinor() {
+        return lineTotalMinor;
+    }
+
+    public void setLineTotalMinor(long lineTotalMinor) {
+        this.lineTotalMinor = lineTotalMinor;
+    }
+
+    public TaxClass getTaxClass() {
+        return taxClass;
+    }
+
+    public void setTaxClass(TaxClass taxClass) {
+        this.taxClass = taxClass;
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.pos.model;
+
+import com.example.pos.domain.TaxClass;
+import com.example.pos.service.impl.ChangeLogListener;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// @Entity tells Spring: "This is a database table!"
+// One row per product in a store's catalog
+@Entity
+@EntityListeners(ChangeLogListener.class)  // every change is recorded for terminal sync
+@Table(name = "products",
+        // A SKU is unique within its store (two stores may use the same SKU)
+        uniqueConstraints = @UniqueConstraint(name = "uk_products_store_sku", columnNames = {"store_id", "sku"}),
+        // Checkout looks products up by barcode
+        indexes = @Index(name = "idx_products_store_barcode", columnList = "store_id, barcode"))
+public class Product {
+
+    // Primary Key - unique ID for each product
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private UUID id;
+
+    // The store that sells this product
+    // @ManyToOne: one store has MANY products, each product belongs to ONE store
+    // Deleting a store deletes its catalog (ON DELETE CASCADE in the database)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "store_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Store store;
+
+    // Stock keeping unit - the store's own product code
+    // Example: "COKE-500ML"
+    @Column(nullable = false, length = 64)
+    @NotBlank(message = "SKU is required")
+    private String sku;
+
+    // Barcode printed on the packaging (optional)
+    // Example: "5449000000996"
+    @Column(length = 64)
+    private String barcode;
+
+    // Product name shown on receipts
+    @Column(nullable = false)
+    @NotBlank(message = "Product name is required")
+    private String name;
+
+    // Price in minor units (pesewas, cents...) - never use double for money!
+    // Example: 1250 = GH₵ 12.50
+    @Column(name = "price_minor", nullable = false)
+    private long priceMinor;
+
+    // Which tax rate applies
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tax_class", nullable = false, length = 16)
+    private TaxClass taxClass = TaxClass.STANDARD;
+
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Bumped on every update (optimistic locking)
+    @Version
+    @Column(nullable = false)
+    private long version;
+
+    // Automatically set timestamps
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+        if (taxClass == null) {
+            taxClass = TaxClass.STANDARD;
+        }
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    // ============================================
+    // CONSTRUCTORS
+    // ============================================
+
+    // Empty constructor (required by JPA)
+    public Product() {
+    }
+
+    // ============================================
+    // GETTERS AND SETTERS
+    // ============================================
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public Store getStore() {
+        return store;
+    }
+
+    public void setStore(Store store) {
+        this.store = store;
+    }
+
+    public String getSku() {
+        return sku;
+    }
+
+    public void setSku(String sku) {
+        this.sku = sku;
+    }
+
+    public String getBarcode() {
+        return barcode;
+    }
+
+    public void setBarcode(String barcode) {
+        this.barcode = barcode;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public long getPriceMinor() {
+        return priceMinor;
+    }
+
+    public void setPriceMinor(long priceMinor) {
+        this.priceMinor = priceMinor;
+    }
+
+    public TaxClass getTaxClass() {
+        return taxClass;
+    }
+
+    public void setTaxClass(TaxClass taxClass) {
+        this.taxClass = taxClass;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+}
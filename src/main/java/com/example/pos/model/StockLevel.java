@@ -0,0 +1,102 @@
+package com.example.pos.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// @Entity tells Spring: "This is a database table!"
+// On-hand quantity of one product, as of the last compaction of the stock ledger.
+// The live quantity is onHand + every stock_movements row after lastMovementId.
+// A product only has its stock tracked once it has a row here (its first receipt or adjustment).
+@Entity
+@Table(name = "stock_levels")
+public class StockLevel {
+
+    // One row per product, so the product id is the key
+    @Id
+    @Column(name = "product_id")
+    private UUID productId;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @MapsId
+    @JoinColumn(name = "product_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Product product;
+
+    // Copied from the product so a store's levels can be read without a join
+    @Column(name = "store_id", nullable = false)
+    private UUID storeId;
+
+    @Column(name = "on_hand", nullable = false)
+    private long onHand;
+
+    // The last stock_movements.id already added into onHand
+    @Column(name = "last_movement_id", nullable = false)
+    private long lastMovementId;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // ============================================
+    // CONSTRUCTORS
+    // ============================================
+
+    // Empty constructor (required by JPA)
+    public StockLevel() {
+    }
+
+    // ============================================
+    // GETTERS AND SETTERS
+    // ============================================
+
+    public UUID getProductId() {
+        return productId;
+    }
+
+    public void setProductId(UUID productId) {
+        this.productId = productId;
+    }
+
+    public Product getProduct() {
+        return product;
+    }
+
+    public void setProduct(Product product) {
+        this.product = product;
+    }
+
+    public UUID getStoreId() {
+        return storeId;
+    }
+
+    public void setStoreId(UUID storeId) {
+        this.storeId = storeId;
+    }
+
+    public long getOnHand() {
+        return onHand;
+    }
+
+    public void setOnHand(long onHand) {
+        this.onHand = onHand;
+    }
+
+    public long getLastMovementId() {
+        return lastMovementId;
+    }
+
+    public void setLastMovementId(long lastMovementId) {
+        this.lastMovementId = lastMovementId;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.pos.model;
+
+import com.example.pos.domain.StockMovementType;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// @Entity tells Spring: "This is a database table!"
+// The stock ledger: one row per change, only ever appended (never updated or deleted).
+// Concurrent sales of the same product are just concurrent inserts - no row is locked.
+// StockLedger periodically adds settled rows into stock_levels.on_hand.
+@Entity
+@Table(name = "stock_movements",
+        indexes = {
+                @Index(name = "idx_stock_movements_product", columnList = "product_id, id"),
+                @Index(name = "idx_stock_movements_store", columnList = "store_id, id")
+        })
+public class StockMovement {
+
+    // Increasing number - also the order in which compaction reads the ledger
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Plain columns, no foreign keys - the ledger outlives deleted products
+    @Column(name = "store_id", nullable = false)
+    private UUID storeId;
+
+    @Column(name = "product_id", nullable = false)
+    private UUID productId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private StockMovementType type;
+
+    // + stock in, - stock out
+    @Column(nullable = false)
+    private long delta;
+
+    // The order behind a SALE
+    @Column(name = "order_id")
+    private UUID orderId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // ============================================
+    // CONSTRUCTORS
+    // ============================================
+
+    // Empty constructor (required by JPA)
+    public StockMovement() {
+    }
+
+    public StockMovement(UUID storeId, UUID productId, StockMovementType type, long delta, UUID orderId) {
+        this.storeId = storeId;
+        this.productId = productId;
+        this.type = type;
+        this.delta = delta;
+        this.orderId = orderId;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // ============================================
+    // GETTERS AND SETTERS
+    // ============================================
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public UUID getStoreId() {
+        return storeId;
+    }
+
+    public void setStoreId(UUID storeId) {
+        this.storeId = storeId;
+    }
+
+    public UUID getProductId() {
+        return productId;
+    }
+
+    public void setProductId(UUID productId) {
+        this.productId = productId;
+    }
+
+    public StockMovementType getType() {
+        return type;
+    }
+
+    public void setType(StockMovementType type) {
+        this.type = type;
+    }
+
+    public long getDelta() {
+        return delta;
+    }
+
+    public void setDelta(long delta) {
+        this.delta = delta;
+    }
+
+    public UUID getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(UUID orderId) {
+        this.orderId = orderId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
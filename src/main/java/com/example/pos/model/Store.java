@@ -1,15 +1,26 @@
 package com.example.pos.model;
 
 import com.example.pos.domain.StoreStatus;
+import com.example.pos.service.impl.ChangeLogListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 // @Entity tells Spring: "This is a database table!"
 @Entity
-@Table(name = "stores")  // Table name in MySQL
+// @DynamicUpdate: UPDATE statements list only the columns that actually changed
+// (plus updated_at and version), not every column of the table
+@DynamicUpdate
+@EntityListeners(ChangeLogListener.class)  // every change is recorded for terminal sync
+@Table(name = "stores", indexes = {  // Table name in MySQL
+        // Keyset pagination: "next page after (createdAt, id)", optionally filtered by status or type
+        @Index(name = "idx_stores_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_stores_status_created_at_id", columnList = "status, created_at, id"),
+        @Index(name = "idx_stores_type_created_at_id", columnList = "store_type, created_at, id")
+})
 public class Store {
 
     // Primary Key - unique ID for each store
@@ -17,9 +28,9 @@ public class Store {
     @GeneratedValue(strategy = GenerationType.AUTO)
     private UUID id;
 
-    // Store brand/name (required)
+    // Store brand/name (required, and unique across all stores)
     // Example: "Shoprite Accra Mall", "Game Osu", etc.
-    @Column(nullable = false)
+    @Column(nullable = false, unique = true)
     @NotBlank(message = "Store brand/name is required")
     private String brand;
 
@@ -59,6 +70,12 @@ public class Store {
     @Embedded
     private StoreContact contact = new StoreContact();
 
+    // Bumped by Hibernate on every update - used for ETags and optimistic locking:
+    // an UPDATE whose version no longer matches the row fails instead of overwriting it
+    @Version
+    @Column(nullable = false)
+    private long version;
+
     // Automatically set timestamps
     @PrePersist
     protected void onCreate() {
@@ -164,6 +181,14 @@ public class Store {
         return contact;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     public void setContact(StoreContact contact) {
         this.contact = contact;
     }
@@ -1,8 +1,11 @@
 package com.example.pos.model;
 
 import com.example.pos.domain.UserRole;
+import com.example.pos.service.impl.ChangeLogListener;
+import com.example.pos.service.impl.UserCacheInvalidationListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
+import org.hibernate.annotations.OptimisticLock;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -10,6 +13,7 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "users")
+@EntityListeners({UserCacheInvalidationListener.class, ChangeLogListener.class})
 
 public class User {
 
@@ -37,10 +41,18 @@ public class User {
 
     private LocalDateTime updatedAt;
 
+    // Not versioned: logins happen all the time and would otherwise invalidate every ETag
+    // for this user (which is why the profile's ETag is a weak one)
+    @OptimisticLock(excluded = true)
     private LocalDateTime lastLogin;
 
     private Boolean isActive = true;
 
+    // Bumped on every change to the row except lastLogin - used for ETags on /api/users/profile
+    @Version
+    @Column(nullable = false)
+    private long version;
+
     public User() {
     }
     public User(UUID id, String fullname, String email, String phone, UserRole role, String password, LocalDateTime createdAt, LocalDateTime updatedAt, LocalDateTime lastLogin, Boolean isActive) {
@@ -131,4 +143,12 @@ public class User {
     public Boolean getActive() {
         return isActive;
     }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,39 @@
+package com.example.pos.payload.dto;
+
+import com.example.pos.domain.TaxClass;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+// What the API sends back for an order (the receipt)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderDto {
+
+    private UUID id;
+    private UUID storeId;
+    private UUID cashierId;
+    private String idempotencyKey;
+    private long totalMinor;
+    private LocalDateTime createdAt;
+    private List<Line> lines;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Line {
+        private int lineNo;
+        private UUID productId;
+        private String sku;
+        private String name;
+        private int quantity;
+        private long unitPriceMinor;
+        private long lineTotalMinor;
+        private TaxClass taxClass;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.pos.payload.dto;
+
+import com.example.pos.domain.TaxClass;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// What the API sends and receives for a product
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductDto {
+
+    // Only set when returning data
+    private UUID id;
+    private UUID storeId;
+
+    @NotBlank(message = "SKU is required")
+    @Size(max = 64, message = "SKU is at most 64 characters")
+    private String sku;
+
+    @Size(max = 64, message = "Barcode is at most 64 characters")
+    private String barcode;
+
+    @NotBlank(message = "Product name is required")
+    @Size(max = 255, message = "Product name is at most 255 characters")
+    private String name;
+
+    // Price in minor units: 1250 = 12.50
+    @NotNull(message = "Price is required")
+    @PositiveOrZero(message = "Price cannot be negative")
+    private Long priceMinor;
+
+    @NotNull(message = "Tax class is required")
+    private TaxClass taxClass;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private Long version;
+}
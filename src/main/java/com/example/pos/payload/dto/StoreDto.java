@@ -2,6 +2,7 @@ package com.example.pos.payload.dto;
 
 import com.example.pos.domain.StoreStatus;
 import com.example.pos.model.StoreContact;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -56,4 +57,11 @@ public class StoreDto {
     // Timestamps - when the store was created and last updated
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+
+    // Row version - changes whenever the store changes (also sent as the ETag)
+    private Long version;
+
+    // The admin's row version - only goes into the ETag, so renaming the admin changes it too
+    @JsonIgnore
+    private Long storeAdminVersion;
 }
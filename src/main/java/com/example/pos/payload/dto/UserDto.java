@@ -1,6 +1,9 @@
 package com.example.pos.payload.dto;
 
 import com.example.pos.domain.UserRole;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
@@ -9,14 +12,19 @@ public class UserDto {
 
     private UUID id;
 
+    @NotBlank(message = "Full name is required")
     private String fullname;
 
+    @NotBlank(message = "Email is required")
+    @Email(message = "Email should be valid")
     private String email;
 
     private String phone;
 
+    @NotNull(message = "Role is required")
     private UserRole role;
 
+    @NotBlank(message = "Password is required")
     private String password;
 
     private LocalDateTime createdAt;
@@ -25,6 +33,8 @@ public class UserDto {
 
     private LocalDateTime lastLogin;
 
+    private Long version;
+
     public UserDto() {
     }
     public UserDto(UUID id, String fullname, String email, String phone, UserRole role, String password, LocalDateTime createdAt, LocalDateTime updatedAt, LocalDateTime lastLogin) {
@@ -110,4 +120,12 @@ public class UserDto {
     public void setLastLogin(LocalDateTime lastLogin) {
         this.lastLogin = lastLogin;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,15 @@
+package com.example.pos.payload.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+// Body of POST /api/stores/batch and /api/users/batch - the ids to look up
+@Data
+public class BatchLookupRequest {
+
+    @NotEmpty(message = "ids is required")
+    private List<UUID> ids;
+}
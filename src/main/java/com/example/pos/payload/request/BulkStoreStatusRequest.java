@@ -0,0 +1,22 @@
+package com.example.pos.payload.request;
+
+import com.example.pos.domain.StoreStatus;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+// Body of PATCH /api/stores/status - which stores to change, and to what.
+// Stores are selected by ids and/or the storeType / currentStatus filters;
+// when several are given, a store has to match all of them.
+@Data
+public class BulkStoreStatusRequest {
+
+    private List<UUID> ids;
+    private String storeType;
+    private StoreStatus currentStatus;
+
+    @NotNull(message = "Target status is required")
+    private StoreStatus targetStatus;
+}
@@ -0,0 +1,31 @@
+package com.example.pos.payload.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+// Body of POST /api/stores/{storeId}/orders - the basket at the till.
+// Only ids and quantities: prices always come from the store's catalog.
+@Data
+public class CheckoutRequest {
+
+    @NotEmpty(message = "lines is required")
+    private List<@Valid Line> lines;
+
+    @Data
+    public static class Line {
+
+        @NotNull(message = "productId is required")
+        private UUID productId;
+
+        @Min(value = 1, message = "quantity must be at least 1")
+        @Max(value = 10000, message = "quantity is at most 10000")
+        private int quantity;
+    }
+}
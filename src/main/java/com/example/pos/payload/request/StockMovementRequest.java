@@ -0,0 +1,18 @@
+package com.example.pos.payload.request;
+
+import com.example.pos.domain.StockMovementType;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+// Body of POST /api/stores/{storeId}/stock/{productId}
+// Example: { "type": "RECEIPT", "delta": 48 }  or  { "type": "ADJUSTMENT", "delta": -2 }
+@Data
+public class StockMovementRequest {
+
+    @NotNull(message = "type is required")
+    private StockMovementType type;
+
+    // + stock in, - stock out
+    @NotNull(message = "delta is required")
+    private Long delta;
+}
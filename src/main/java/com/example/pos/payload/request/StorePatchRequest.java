@@ -0,0 +1,27 @@
+package com.example.pos.payload.request;
+
+import com.example.pos.domain.StoreStatus;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Pattern;
+import lombok.Data;
+
+// Body of PATCH /api/stores/{id} - only the fields that are present (not null) are changed.
+// version is the store version the client last saw (or send it as If-Match instead);
+// if the store has changed since, the patch is rejected with 409 Conflict.
+@Data
+public class StorePatchRequest {
+
+    // Like @NotBlank, but only when a brand is sent (null means "leave it as it is")
+    @Pattern(regexp = "(?s).*\\S.*", message = "Store brand/name cannot be empty")
+    private String brand;
+    private String description;
+    private String storeType;
+    private StoreStatus status;
+
+    private String address;
+    private String phone;
+    @Email(message = "Email should be valid")
+    private String email;
+
+    private Long version;
+}
@@ -0,0 +1,20 @@
+package com.example.pos.payload.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Result of a batch lookup by id: everything that was found, keyed by id (in request order),
+// plus the ids that don't exist
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchLookupResult<T> {
+
+    private Map<UUID, T> found;
+    private List<UUID> missing;
+}
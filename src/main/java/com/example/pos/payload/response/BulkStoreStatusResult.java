@@ -0,0 +1,18 @@
+package com.example.pos.payload.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+// Result of PATCH /api/stores/status
+@Data
+@AllArgsConstructor
+public class BulkStoreStatusResult {
+
+    private int matched;         // stores selected by the request
+    private int updated;         // stores whose status actually changed
+    private int unchanged;       // already in the target status
+    private List<UUID> notFound; // requested ids that don't exist (or don't match the filters)
+}
@@ -0,0 +1,21 @@
+package com.example.pos.payload.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// Result of GET /api/stores/{storeId}/catalog/stats - size and memory of the in-memory catalog snapshot
+@Data
+@AllArgsConstructor
+public class CatalogStats {
+
+    private UUID storeId;
+    private int products;
+    private int barcodes;            // products findable by barcode
+    private int duplicateBarcodes;   // barcodes used by more than one product (the lowest SKU wins)
+    private long estimatedBytes;
+    private long bytesPer100kProducts;
+    private Instant builtAt;
+}
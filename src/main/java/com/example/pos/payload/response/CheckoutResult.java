@@ -0,0 +1,15 @@
+package com.example.pos.payload.response;
+
+import com.example.pos.payload.dto.OrderDto;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// What CheckoutService hands the controller: the order, and whether it was
+// created just now or already existed for this Idempotency-Key (a retry)
+@Data
+@AllArgsConstructor
+public class CheckoutResult {
+
+    private OrderDto order;
+    private boolean replayed;
+}
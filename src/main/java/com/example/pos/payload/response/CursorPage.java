@@ -0,0 +1,19 @@
+package com.example.pos.payload.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// One page of a keyset-paginated list.
+// To get the next page, send nextCursor back as ?cursor=... - it is null on the last page.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    private List<T> items;
+    private String nextCursor;
+    private int size;
+}
@@ -0,0 +1,46 @@
+package com.example.pos.payload.response;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Result of POST /api/stores/{storeId}/products/import.
+// Catalogs can have hundreds of thousands of lines, so only failed rows are listed
+// (the first MAX_ERRORS of them); the counts cover every row.
+@Data
+public class ProductImportReport {
+
+    public static final int MAX_ERRORS = 1000;
+
+    private int total;
+    private int inserted;
+    private int updated;
+    private int failed;
+    private List<Row> errors = new ArrayList<>();
+
+    public void inserted() {
+        total++;
+        inserted++;
+    }
+
+    public void updated() {
+        total++;
+        updated++;
+    }
+
+    public void failed(int line, String sku, String message) {
+        total++;
+        failed++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(new Row(line, sku, message));
+        }
+    }
+
+    @Data
+    public static class Row {
+        private final int line;
+        private final String sku;
+        private final String message;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.pos.payload.response;
+
+import com.example.pos.domain.TaxClass;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.UUID;
+
+// What the till needs after scanning a barcode: which product it is and what it costs
+@Data
+@AllArgsConstructor
+public class ScanResult {
+
+    private UUID productId;
+    private String sku;
+    private String barcode;
+    private String name;
+    private long priceMinor;
+    private TaxClass taxClass;
+}
@@ -0,0 +1,17 @@
+package com.example.pos.payload.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.UUID;
+
+// How many of a product can still be sold. Products that never had stock received or
+// adjusted are not tracked (tracked = false, available = null) and sell without a limit.
+@Data
+@AllArgsConstructor
+public class StockAvailability {
+
+    private UUID productId;
+    private boolean tracked;
+    private Long available;
+}
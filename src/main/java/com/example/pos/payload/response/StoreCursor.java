@@ -0,0 +1,45 @@
+package com.example.pos.payload.response;
+
+import com.example.pos.exceptions.UserException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+// Position in the stores list: the (createdAt, id) of the last store on a page.
+// Sent to clients as an opaque URL-safe string.
+public class StoreCursor {
+
+    private final LocalDateTime createdAt;
+    private final UUID id;
+
+    public StoreCursor(LocalDateTime createdAt, UUID id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static StoreCursor decode(String token) throws UserException {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new StoreCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    UUID.fromString(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new UserException("Invalid cursor");
+        }
+    }
+}
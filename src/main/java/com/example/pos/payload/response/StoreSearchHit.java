@@ -0,0 +1,19 @@
+package com.example.pos.payload.response;
+
+import com.example.pos.domain.StoreStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.UUID;
+
+// One store in the results of GET /api/stores/search - just what a type-ahead list shows
+@Data
+@AllArgsConstructor
+public class StoreSearchHit {
+
+    private UUID id;
+    private String brand;
+    private String storeType;
+    private StoreStatus status;
+    private String address;
+}
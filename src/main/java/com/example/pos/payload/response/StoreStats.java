@@ -0,0 +1,17 @@
+package com.example.pos.payload.response;
+
+import com.example.pos.domain.StoreStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Map;
+
+// Result of GET /api/stores/stats - how many stores there are, by status and by type
+@Data
+@AllArgsConstructor
+public class StoreStats {
+
+    private long total;
+    private Map<StoreStatus, Long> byStatus;
+    private Map<String, Long> byStoreType;  // stores without a type are only in the total
+}
@@ -0,0 +1,14 @@
+package com.example.pos.payload.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// The row versions behind a store's ETag: the store itself and its admin (whose name the
+// store response shows). storeAdminVersion is null for a store without an admin.
+@Data
+@AllArgsConstructor
+public class StoreVersions {
+
+    private long version;
+    private Long storeAdminVersion;
+}
@@ -0,0 +1,21 @@
+package com.example.pos.payload.response;
+
+import com.example.pos.domain.ChangeOperation;
+import com.example.pos.domain.SyncEntity;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.UUID;
+
+// One entry of GET /api/sync/changes: which entity changed and, unless it was deleted,
+// its current data (a StoreDto, UserDto or ProductDto, depending on entity)
+@Data
+@AllArgsConstructor
+public class SyncChange {
+
+    private long cursor;              // position in the change log
+    private SyncEntity entity;
+    private UUID id;
+    private ChangeOperation operation;
+    private Object data;              // null for DELETED (a tombstone)
+}
@@ -0,0 +1,17 @@
+package com.example.pos.payload.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+// Result of GET /api/sync/changes. Save nextCursor and send it back as ?cursor=... next time;
+// if hasMore is true, ask again straight away.
+@Data
+@AllArgsConstructor
+public class SyncPage {
+
+    private List<SyncChange> changes;
+    private long nextCursor;
+    private boolean hasMore;
+}
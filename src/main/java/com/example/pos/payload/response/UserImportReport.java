@@ -0,0 +1,34 @@
+package com.example.pos.payload.response;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Result of POST /api/super-admin/users/import - one entry per data row
+@Data
+public class UserImportReport {
+
+    private int total;
+    private int imported;
+    private int failed;
+    private List<Row> rows = new ArrayList<>();
+
+    public void add(Row row) {
+        rows.add(row);
+        total++;
+        if (row.isImported()) {
+            imported++;
+        } else {
+            failed++;
+        }
+    }
+
+    @Data
+    public static class Row {
+        private final int line;
+        private final String email;
+        private final boolean imported;
+        private final String message;
+    }
+}
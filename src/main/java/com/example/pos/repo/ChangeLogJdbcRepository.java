@@ -0,0 +1,82 @@
+package com.example.pos.repo;
+
+import com.example.pos.domain.ChangeOperation;
+import com.example.pos.domain.SyncEntity;
+import com.example.pos.utils.InFlightWrites;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.UUID;
+
+// Appends to change_log with plain JDBC. Used from the entity listener (where the
+// EntityManager must not be touched) and from the bulk write paths that bypass it.
+// Joins the caller's transaction, so an entry commits or rolls back with its change.
+// Every insert is tracked in writes until that transaction ends, so SyncService never serves
+// past an id that may still commit (see InFlightWrites).
+@Repository
+public class ChangeLogJdbcRepository {
+
+    // Rows per DELETE when old entries are purged (keeps each statement's locks short)
+    private static final int PURGE_CHUNK = 10_000;
+
+    private static final String INSERT_ENTRY =
+            "insert into change_log (entity_type, entity_id, store_id, operation, created_at) values (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final InFlightWrites writes = new InFlightWrites();
+
+    public ChangeLogJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public InFlightWrites writes() {
+        return writes;
+    }
+
+    public void insert(SyncEntity entityType, UUID entityId, UUID storeId, ChangeOperation operation) {
+        long write = writes.start();
+        try {
+            jdbcTemplate.update(INSERT_ENTRY, entityType.name(), JdbcUuids.toBytes(entityId),
+                    storeId != null ? JdbcUuids.toBytes(storeId) : null, operation.name(),
+                    Timestamp.valueOf(LocalDateTime.now()));
+        } finally {
+            writes.finishWithTransaction(write);
+        }
+    }
+
+    // The same change for many entities (one JDBC batch).
+    // storeId is the products' store; for STORE entries each store is its own storeId.
+    public void insertAll(SyncEntity entityType, Collection<UUID> entityIds, UUID storeId, ChangeOperation operation) {
+        if (entityIds.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        byte[] store = storeId != null ? JdbcUuids.toBytes(storeId) : null;
+        long write = writes.start();
+        try {
+            jdbcTemplate.batchUpdate(INSERT_ENTRY, entityIds.stream()
+                    .map(id -> {
+                        byte[] entityId = JdbcUuids.toBytes(id);
+                        return new Object[]{entityType.name(), entityId,
+                                entityType == SyncEntity.STORE ? entityId : store, operation.name(), now};
+                    })
+                    .toList());
+        } finally {
+            writes.finishWithTransaction(write);
+        }
+    }
+
+    // Deletes the entries with from < id <= upTo, a chunk at a time (each DELETE commits on its own)
+    public int deleteBetween(long from, long upTo) {
+        int deleted = 0;
+        while (from < upTo) {
+            long to = Math.min(from + PURGE_CHUNK, upTo);
+            deleted += jdbcTemplate.update("delete from change_log where id > ? and id <= ?", from, to);
+            from = to;
+        }
+        return deleted;
+    }
+}
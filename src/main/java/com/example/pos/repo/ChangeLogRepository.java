@@ -0,0 +1,43 @@
+package com.example.pos.repo;
+
+import com.example.pos.model.ChangeLogEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+// Reading the change log for GET /api/sync/changes (entries are written by ChangeLogJdbcRepository)
+@Repository
+public interface ChangeLogRepository extends JpaRepository<ChangeLogEntry, Long> {
+
+    // Entries in (cursor, upTo], oldest first - a range scan on the primary key
+    @Query("select e from ChangeLogEntry e where e.id > :cursor and e.id <= :upTo order by e.id asc")
+    List<ChangeLogEntry> findBetween(@Param("cursor") long cursor,
+                                     @Param("upTo") long upTo,
+                                     Pageable pageable);
+
+    // Same, for one store: its own entries plus the ones that belong to no store (users)
+    @Query("select e from ChangeLogEntry e where e.id > :cursor and e.id <= :upTo " +
+            "and (e.storeId = :storeId or e.storeId is null) order by e.id asc")
+    List<ChangeLogEntry> findBetweenForStore(@Param("cursor") long cursor,
+                                             @Param("upTo") long upTo,
+                                             @Param("storeId") UUID storeId,
+                                             Pageable pageable);
+
+    // The newest entry, committed or not (0 if the log is empty)
+    @Query("select coalesce(max(e.id), 0) from ChangeLogEntry e")
+    long findLastId();
+
+    // The oldest entry still kept (null if the log is empty)
+    @Query("select min(e.id) from ChangeLogEntry e")
+    Long findFirstId();
+
+    // The newest entry written before the cutoff (0 if none) - everything up to it can be purged
+    @Query("select coalesce(max(e.id), 0) from ChangeLogEntry e where e.createdAt < :cutoff")
+    long findLastIdBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,24 @@
+package com.example.pos.repo;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+// Hibernate stores our UUID ids as BINARY(16) on MySQL (most significant bits first).
+// Plain JDBC statements have to bind them the same way.
+public final class JdbcUuids {
+
+    private JdbcUuids() {
+    }
+
+    public static byte[] toBytes(UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+
+    public static UUID fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.pos.repo;
+
+import com.example.pos.model.Order;
+import com.example.pos.model.OrderLine;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+
+// Plain JDBC writes for checkout: the order row, then all of its lines in one batch
+// (one multi-row INSERT on MySQL with rewriteBatchedStatements=true), instead of
+// a persist and a flush per line.
+@Repository
+public class OrderJdbcRepository {
+
+    private static final String INSERT_ORDER =
+            "insert into orders (id, store_id, cashier_id, idempotency_key, request_hash, total_minor, line_count, created_at) " +
+            "values (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_LINE =
+            "insert into order_lines (id, order_id, line_no, product_id, sku, name, quantity, unit_price_minor, line_total_minor, tax_class) " +
+            "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OrderJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Ids must already be assigned by the caller; store and cashier only need their ids
+    public void insert(Order order) {
+        jdbcTemplate.update(INSERT_ORDER,
+                JdbcUuids.toBytes(order.getId()),
+                JdbcUuids.toBytes(order.getStore().getId()),
+                order.getCashier() != null ? JdbcUuids.toBytes(order.getCashier().getId()) : null,
+                order.getIdempotencyKey(),
+                order.getRequestHash(),
+                order.getTotalMinor(),
+                order.getLineCount(),
+                Timestamp.valueOf(order.getCreatedAt()));
+    }
+
+    public int[] insertLines(Order order) {
+        return jdbcTemplate.batchUpdate(INSERT_LINE, order.getLines().stream().map(line -> lineArgs(order, line)).toList());
+    }
+
+    private static Object[] lineArgs(Order order, OrderLine line) {
+        return new Object[]{
+                JdbcUuids.toBytes(line.getId()),
+                JdbcUuids.toBytes(order.getId()),
+                line.getLineNo(),
+                JdbcUuids.toBytes(line.getProductId()),
+                line.getSku(),
+                line.getName(),
+                line.getQuantity(),
+                line.getUnitPriceMinor(),
+                line.getLineTotalMinor(),
+                line.getTaxClass().name()
+        };
+    }
+}
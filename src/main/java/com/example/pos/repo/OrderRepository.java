@@ -0,0 +1,25 @@
+package com.example.pos.repo;
+
+import com.example.pos.model.Order;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+// Reading orders back (they are written by OrderJdbcRepository)
+@Repository
+public interface OrderRepository extends JpaRepository<Order, UUID> {
+
+    // The order a till already placed with this key - lines fetched in the same query
+    @EntityGraph(attributePaths = "lines")
+    Optional<Order> findByStoreIdAndIdempotencyKey(UUID storeId, String idempotencyKey);
+
+    // One order with its lines, but only if it belongs to this store
+    @EntityGraph(attributePaths = "lines")
+    Optional<Order> findByIdAndStoreId(UUID id, UUID storeId);
+
+    // Has this store sold anything? (such a store can't be deleted)
+    boolean existsByStoreId(UUID storeId);
+}
@@ -0,0 +1,75 @@
+package com.example.pos.repo;
+
+import com.example.pos.model.Product;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+// Plain JDBC writes to the products table for catalog imports: one batched statement per
+// chunk instead of a persist/merge per product. On MySQL, rewriteBatchedStatements=true on
+// the JDBC URL turns each insert batch into multi-row INSERTs.
+@Repository
+public class ProductJdbcRepository {
+
+    private static final String INSERT_PRODUCT =
+            "insert into products (id, store_id, sku, barcode, name, price_minor, tax_class, created_at, updated_at, version) " +
+            "values (?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+    private static final String UPDATE_PRODUCT =
+            "update products set barcode = ?, name = ?, price_minor = ?, tax_class = ?, updated_at = ?, version = version + 1 " +
+            "where id = ? and store_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProductJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Ids must already be assigned by the caller
+    public int[] insertAll(UUID storeId, List<Product> products) {
+        return jdbcTemplate.batchUpdate(INSERT_PRODUCT, products.stream().map(p -> insertArgs(storeId, p)).toList());
+    }
+
+    public void insert(UUID storeId, Product product) {
+        jdbcTemplate.update(INSERT_PRODUCT, insertArgs(storeId, product));
+    }
+
+    // Overwrites everything but the SKU of existing products (matched by id)
+    public int[] updateAll(UUID storeId, List<Product> products) {
+        return jdbcTemplate.batchUpdate(UPDATE_PRODUCT, products.stream().map(p -> updateArgs(storeId, p)).toList());
+    }
+
+    private static Object[] insertArgs(UUID storeId, Product product) {
+        return new Object[]{
+                JdbcUuids.toBytes(product.getId()),
+                JdbcUuids.toBytes(storeId),
+                product.getSku(),
+                product.getBarcode(),
+                product.getName(),
+                product.getPriceMinor(),
+                product.getTaxClass().name(),
+                toTimestamp(product.getCreatedAt()),
+                toTimestamp(product.getUpdatedAt())
+        };
+    }
+
+    private static Object[] updateArgs(UUID storeId, Product product) {
+        return new Object[]{
+                product.getBarcode(),
+                product.getName(),
+                product.getPriceMinor(),
+                product.getTaxClass().name(),
+                toTimestamp(product.getUpdatedAt()),
+                JdbcUuids.toBytes(product.getId()),
+                JdbcUuids.toBytes(storeId)
+        };
+    }
+
+    private static Timestamp toTimestamp(LocalDateTime time) {
+        return time != null ? Timestamp.valueOf(time) : null;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.pos.repo;
+
+import com.example.pos.model.Product;
+import com.example.pos.payload.response.ScanResult;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+// Database access for the products table
+@Repository
+public interface ProductRepository extends JpaRepository<Product, UUID> {
+
+    // One product, but only if it belongs to this store
+    Optional<Product> findByIdAndStoreId(UUID id, UUID storeId);
+
+    // Is this SKU already used in this store?
+    boolean existsByStoreIdAndSku(UUID storeId, String sku);
+
+    // ============================================
+    // KEYSET PAGINATION (ordered by SKU)
+    // ============================================
+    // Uses the (store_id, sku) unique index - each page starts right after the last SKU sent
+    @Query("select p from Product p where p.store.id = :storeId order by p.sku asc")
+    List<Product> findFirstPage(@Param("storeId") UUID storeId, Pageable pageable);
+
+    @Query("select p from Product p where p.store.id = :storeId and p.sku > :sku order by p.sku asc")
+    List<Product> findPageAfter(@Param("storeId") UUID storeId, @Param("sku") String sku, Pageable pageable);
+
+    // Everything a till needs for every product of a store, for building its CatalogSnapshot
+    @Query("select new com.example.pos.payload.response.ScanResult(" +
+            "p.id, p.sku, p.barcode, p.name, p.priceMinor, p.taxClass) " +
+            "from Product p where p.store.id = :storeId order by p.sku asc")
+    List<ScanResult> findScanResultsByStoreId(@Param("storeId") UUID storeId);
+
+    // For imports: which of these SKUs already exist in the store, and their ids.
+    // Each row is { sku, id }; callers pass at most a chunk of SKUs.
+    @Query("select p.sku, p.id from Product p where p.store.id = :storeId and p.sku in :skus")
+    List<Object[]> findIdsBySkus(@Param("storeId") UUID storeId, @Param("skus") Collection<String> skus);
+}
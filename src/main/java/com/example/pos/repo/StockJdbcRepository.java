@@ -0,0 +1,109 @@
+package com.example.pos.repo;
+
+import com.example.pos.model.StockMovement;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Plain JDBC for the stock ledger: appending movements in batches, reading a store's live
+// quantities in one query, and compacting settled movements into stock_levels.
+@Repository
+public class StockJdbcRepository {
+
+    private static final String INSERT_MOVEMENT =
+            "insert into stock_movements (store_id, product_id, type, delta, order_id, created_at) values (?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_LEVEL =
+            "insert into stock_levels (product_id, store_id, on_hand, last_movement_id, updated_at) values (?, ?, 0, 0, ?)";
+
+    // One statement, so it reads one consistent snapshot even while a compaction commits
+    private static final String SELECT_AVAILABLE =
+            "select l.product_id, l.on_hand + coalesce((select sum(m.delta) from stock_movements m " +
+            "where m.product_id = l.product_id and m.id > l.last_movement_id), 0) " +
+            "from stock_levels l where l.store_id = ?";
+
+    private static final String SELECT_SETTLED_SUMS =
+            "select product_id, sum(delta) from stock_movements where id > ? and id <= ? group by product_id";
+
+    // last_movement_id <= ? : a row can never have the same movements added twice
+    private static final String COMPACT_LEVEL =
+            "update stock_levels set on_hand = on_hand + ?, last_movement_id = ?, updated_at = ? " +
+            "where product_id = ? and last_movement_id <= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public StockJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public int[] insertMovements(List<StockMovement> movements) {
+        return jdbcTemplate.batchUpdate(INSERT_MOVEMENT, movements.stream().map(StockJdbcRepository::movementArgs).toList());
+    }
+
+    // Starts tracking a product's stock (at 0 - its first movement follows)
+    public void insertLevel(UUID storeId, UUID productId) {
+        jdbcTemplate.update(INSERT_LEVEL, JdbcUuids.toBytes(productId), JdbcUuids.toBytes(storeId),
+                Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    // productId -> live quantity, for every tracked product of the store
+    public Map<UUID, Long> findAvailable(UUID storeId) {
+        Map<UUID, Long> available = new HashMap<>();
+        jdbcTemplate.query(SELECT_AVAILABLE,
+                rs -> {
+                    available.put(JdbcUuids.fromBytes(rs.getBytes(1)), rs.getLong(2));
+                },
+                JdbcUuids.toBytes(storeId));
+        return available;
+    }
+
+    // ============================================
+    // COMPACTION
+    // ============================================
+
+    // How far the ledger has been compacted (the highest movement id already in on_hand).
+    // Rows without movements in a compacted range keep an older last_movement_id - harmless,
+    // since there is nothing of theirs between that and the maximum.
+    public long findCompactedUpTo() {
+        Long id = jdbcTemplate.queryForObject("select max(last_movement_id) from stock_levels", Long.class);
+        return id != null ? id : 0;
+    }
+
+    // The newest movement committed so far (0 if none)
+    public long findLastMovementId() {
+        Long id = jdbcTemplate.queryForObject("select max(id) from stock_movements", Long.class);
+        return id != null ? id : 0;
+    }
+
+    // Adds movements (from, to] into stock_levels; returns how many levels changed
+    public int compact(long from, long to) {
+        Map<UUID, Long> sums = new HashMap<>();
+        jdbcTemplate.query(SELECT_SETTLED_SUMS,
+                rs -> {
+                    sums.put(JdbcUuids.fromBytes(rs.getBytes(1)), rs.getLong(2));
+                },
+                from, to);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(COMPACT_LEVEL, sums.entrySet().stream()
+                .map(e -> new Object[]{e.getValue(), to, now, JdbcUuids.toBytes(e.getKey()), from})
+                .toList());
+        return sums.size();
+    }
+
+    private static Object[] movementArgs(StockMovement movement) {
+        return new Object[]{
+                JdbcUuids.toBytes(movement.getStoreId()),
+                JdbcUuids.toBytes(movement.getProductId()),
+                movement.getType().name(),
+                movement.getDelta(),
+                movement.getOrderId() != null ? JdbcUuids.toBytes(movement.getOrderId()) : null,
+                Timestamp.valueOf(movement.getCreatedAt())
+        };
+    }
+}
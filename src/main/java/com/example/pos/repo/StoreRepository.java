@@ -3,9 +3,24 @@ package com.example.pos.repo;
 import com.example.pos.domain.StoreStatus;
 import com.example.pos.model.Store;
 import com.example.pos.model.User;
+import com.example.pos.payload.response.StoreSearchHit;
+import com.example.pos.payload.response.StoreVersions;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -15,6 +30,23 @@ import java.util.UUID;
 @Repository
 public interface StoreRepository extends JpaRepository<Store, UUID> {
 
+    // Find one store together with its admin (one query instead of two)
+    @EntityGraph(attributePaths = "storeAdmin")
+    Optional<Store> findWithAdminById(UUID id);
+
+    // Several stores by id, with their admins, in one query (callers pass at most a chunk of ids)
+    @EntityGraph(attributePaths = "storeAdmin")
+    List<Store> findWithAdminByIdIn(Collection<UUID> ids);
+
+    // Just the version of one store - enough to answer If-None-Match without loading the row
+    @Query("select s.version from Store s where s.id = :id")
+    Optional<Long> findVersionById(@Param("id") UUID id);
+
+    // The store's version and its admin's, for the store ETag (the response shows the admin's name)
+    @Query("select new com.example.pos.payload.response.StoreVersions(s.version, a.version) " +
+            "from Store s left join s.storeAdmin a where s.id = :id")
+    Optional<StoreVersions> findVersionsById(@Param("id") UUID id);
+
     // Find store by brand name
     // Example: findByBrand("Shoprite Accra Mall")
     // Returns Optional<Store> - a "box" that might contain a store or be empty
@@ -23,8 +55,28 @@ public interface StoreRepository extends JpaRepository<Store, UUID> {
     // Check if a store brand name already exists
     // Example: existsByBrand("Game Osu") → true if exists, false if not
     // Useful when creating new stores to avoid duplicates
+    // Never flushes first: after a failed rename the store is still dirty in the session,
+    // and flushing it again would just repeat the same unique-key error
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "COMMIT"))
     Boolean existsByBrand(String brand);
 
+    // Every brand name, for seeding UniqueKeyFilter at startup
+    @Query("select s.brand from Store s")
+    List<String> findAllBrands();
+
+    // The searchable fields of every store, for building StoreSearchIndex at startup
+    @Query("select new com.example.pos.payload.response.StoreSearchHit(" +
+            "s.id, s.brand, s.storeType, s.status, s.contact.address) from Store s")
+    List<StoreSearchHit> findAllSearchHits();
+
+    // Store counts per status and per type, for seeding/reconciling StoreStatistics
+    // Each row is { value, count }
+    @Query("select s.status, count(s) from Store s group by s.status")
+    List<Object[]> countByStatus();
+
+    @Query("select s.storeType, count(s) from Store s group by s.storeType")
+    List<Object[]> countByStoreType();
+
     // Find store by admin (the user who manages it)
     // Example: Find which store John manages
     Optional<Store> findByStoreAdmin(User storeAdmin);
@@ -32,9 +84,78 @@ public interface StoreRepository extends JpaRepository<Store, UUID> {
     // Find all stores by status
     // Example: Get all ACTIVE stores, or all BLOCKED stores
     // Returns a List because multiple stores can have the same status
+    // The admin is fetched in the same query (StoreMapper needs the admin's name)
+    @EntityGraph(attributePaths = "storeAdmin")
     List<Store> findByStatus(StoreStatus status);
 
     // Find stores by type
     // Example: Get all "Retail" stores, or all "Wholesale" stores
+    @EntityGraph(attributePaths = "storeAdmin")
     List<Store> findByStoreType(String storeType);
+
+    // ============================================
+    // KEYSET PAGINATION (ordered by createdAt, then id)
+    // ============================================
+    // Instead of OFFSET (which gets slower the deeper you page), each page starts
+    // right after the last (createdAt, id) of the previous one, using the
+    // (created_at, id) indexes on the stores table. Null filters mean "any".
+    // The storeAdmin is joined in the same query - otherwise StoreMapper would fire
+    // one extra "select from users" per store on the page (the N+1 problem).
+    @EntityGraph(attributePaths = "storeAdmin")
+    @Query("select s from Store s " +
+            "where (:status is null or s.status = :status) " +
+            "and (:storeType is null or s.storeType = :storeType) " +
+            "order by s.createdAt asc, s.id asc")
+    List<Store> findFirstPage(@Param("status") StoreStatus status,
+                              @Param("storeType") String storeType,
+                              Pageable pageable);
+
+    @EntityGraph(attributePaths = "storeAdmin")
+    @Query("select s from Store s " +
+            "where (:status is null or s.status = :status) " +
+            "and (:storeType is null or s.storeType = :storeType) " +
+            "and (s.createdAt > :createdAt or (s.createdAt = :createdAt and s.id > :id)) " +
+            "order by s.createdAt asc, s.id asc")
+    List<Store> findPageAfter(@Param("status") StoreStatus status,
+                              @Param("storeType") String storeType,
+                              @Param("createdAt") LocalDateTime createdAt,
+                              @Param("id") UUID id,
+                              Pageable pageable);
+
+    // ============================================
+    // BULK STATUS CHANGE
+    // ============================================
+    // Ids of the stores matching the filters (null means "any") - only the id column is read
+    @Query("select s.id from Store s " +
+            "where (:status is null or s.status = :status) " +
+            "and (:storeType is null or s.storeType = :storeType)")
+    List<UUID> findIds(@Param("status") StoreStatus status,
+                       @Param("storeType") String storeType);
+
+    // Same, restricted to the given ids (callers pass at most a chunk at a time)
+    @Query("select s.id from Store s where s.id in :ids " +
+            "and (:status is null or s.status = :status) " +
+            "and (:storeType is null or s.storeType = :storeType)")
+    List<UUID> findIdsIn(@Param("ids") Collection<UUID> ids,
+                         @Param("status") StoreStatus status,
+                         @Param("storeType") String storeType);
+
+    // The stores of a chunk that are not yet in the target status, locked (SELECT ... FOR UPDATE)
+    // until the caller's transaction ends - so the UPDATE changes exactly these rows, and the
+    // change log and the store counters get exactly them
+    // Each row is { id, status, storeType }
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s.id, s.status, s.storeType from Store s where s.id in :ids and s.status <> :status")
+    List<Object[]> lockNotInStatus(@Param("ids") Collection<UUID> ids,
+                                   @Param("status") StoreStatus status);
+
+    // One UPDATE statement for a whole chunk of stores, in its own transaction.
+    // Stores already in the target status are left alone; returns how many rows changed.
+    @Modifying
+    @Transactional
+    @Query("update Store s set s.status = :status, s.updatedAt = :updatedAt, s.version = s.version + 1 " +
+            "where s.id in :ids and s.status <> :status")
+    int updateStatus(@Param("ids") Collection<UUID> ids,
+                     @Param("status") StoreStatus status,
+                     @Param("updatedAt") LocalDateTime updatedAt);
 }
\ No newline at end of file
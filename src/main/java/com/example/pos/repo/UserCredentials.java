@@ -0,0 +1,79 @@
+package com.example.pos.repo;
+
+import com.example.pos.domain.UserRole;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// The slice of a User that a login needs: what Spring Security checks, plus the profile
+// fields the login response shows - so a cached login never has to load the whole User.
+// Loaded with a narrow query and kept in UserCredentialsCache - the hash is never sent to clients.
+public class UserCredentials {
+
+    private final UUID id;
+    private final String email;
+    private final String password;
+    private final UserRole role;
+    private final boolean active;
+    private final String fullname;
+    private final String phone;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+    private final long version;
+
+    public UserCredentials(UUID id, String email, String password, UserRole role, Boolean active,
+                           String fullname, String phone, LocalDateTime createdAt, LocalDateTime updatedAt,
+                           long version) {
+        this.id = id;
+        this.email = email;
+        this.password = password;
+        this.role = role;
+        // Rows created before isActive existed have NULL there - treat them as active
+        this.active = active == null || active;
+        this.fullname = fullname;
+        this.phone = phone;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.version = version;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public UserRole getRole() {
+        return role;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public String getFullname() {
+        return fullname;
+    }
+
+    public String getPhone() {
+        return phone;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+}
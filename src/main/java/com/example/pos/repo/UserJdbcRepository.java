@@ -0,0 +1,67 @@
+package com.example.pos.repo;
+
+import com.example.pos.model.User;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Plain JDBC access to the users table for hot paths where loading and merging
+// whole User entities through JPA would cost more than the change itself.
+@Repository
+public class UserJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // One JDBC batch: "update users set last_login = ? where id = ?" for every entry
+    // The version is left alone (see User.lastLogin): a login must not turn every cached
+    // profile and store ETag stale, or fail someone's concurrent profile edit with a conflict
+    public int[] updateLastLogins(Map<UUID, LocalDateTime> lastLogins) {
+        List<Object[]> args = new ArrayList<>(lastLogins.size());
+        for (Map.Entry<UUID, LocalDateTime> entry : lastLogins.entrySet()) {
+            args.add(new Object[]{Timestamp.valueOf(entry.getValue()), JdbcUuids.toBytes(entry.getKey())});
+        }
+        return jdbcTemplate.batchUpdate("update users set last_login = ? where id = ?", args);
+    }
+
+    // Multi-row insert for bulk imports. Ids must already be assigned by the caller.
+    public int[] insertAll(List<User> users) {
+        return jdbcTemplate.batchUpdate(INSERT_USER, users.stream().map(UserJdbcRepository::insertArgs).toList());
+    }
+
+    public void insert(User user) {
+        jdbcTemplate.update(INSERT_USER, insertArgs(user));
+    }
+
+    private static final String INSERT_USER =
+            "insert into users (id, fullname, email, phone, role, password, created_at, updated_at, last_login, is_active, version) " +
+            "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+    private static Object[] insertArgs(User user) {
+        return new Object[]{
+                JdbcUuids.toBytes(user.getId()),
+                user.getFullname(),
+                user.getEmail(),
+                user.getPhone(),
+                user.getRole().name(),
+                user.getPassword(),
+                toTimestamp(user.getCreatedAt()),
+                toTimestamp(user.getUpdatedAt()),
+                toTimestamp(user.getLastLogin()),
+                user.getActive()
+        };
+    }
+
+    private static Timestamp toTimestamp(LocalDateTime time) {
+        return time != null ? Timestamp.valueOf(time) : null;
+    }
+}
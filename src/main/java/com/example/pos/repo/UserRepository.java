@@ -3,8 +3,15 @@ package com.example.pos.repo;
 
 import com.example.pos.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -15,6 +22,32 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     // This says: "Find me a user with this email"
     // If found, return the User
 
+    // Only the columns needed to authenticate and answer the login (see UserCredentialsCache)
+    @Query("select new com.example.pos.repo.UserCredentials(u.id, u.email, u.password, u.role, u.isActive, " +
+            "u.fullname, u.phone, u.createdAt, u.updatedAt, u.version) " +
+            "from User u where u.email = :email")
+    Optional<UserCredentials> findCredentialsByEmail(@Param("email") String email);
+
+    // Every email, for seeding UniqueKeyFilter at startup
+    @Query("select u.email from User u")
+    List<String> findAllEmails();
+
+    // Which of these emails are already registered? (one IN query per import chunk)
+    @Query("select u.email from User u where u.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    // Just the version of one user - enough to answer If-None-Match without loading the row
+    @Query("select u.version from User u where u.id = :id")
+    Optional<Long> findVersionById(@Param("id") UUID id);
+
     //check if email already exists
     Boolean existsByEmail(String email);
+
+    // Replace just the password hash (used to re-hash with a new BCrypt cost on login)
+    @Modifying
+    @Transactional
+    @Query("update User u set u.password = :password, u.updatedAt = :updatedAt, u.version = u.version + 1 " +
+            "where u.id = :id")
+    int updatePassword(@Param("id") UUID id, @Param("password") String password,
+                       @Param("updatedAt") LocalDateTime updatedAt);
 }
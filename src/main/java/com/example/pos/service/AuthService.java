@@ -1,5 +1,6 @@
 package com.example.pos.service;
 
+import com.example.pos.configuration.AuthenticatedUser;
 import com.example.pos.exceptions.UserException;
 import com.example.pos.payload.dto.UserDto;
 import com.example.pos.payload.response.AuthResponse;
@@ -8,4 +9,5 @@ public interface AuthService {
 
     AuthResponse signup(UserDto userDto) throws UserException;
     AuthResponse login(UserDto userDto) throws UserException;
+    void logout(AuthenticatedUser principal) throws UserException;
 }
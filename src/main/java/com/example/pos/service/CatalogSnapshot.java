@@ -0,0 +1,277 @@
+package com.example.pos.service;
+
+import com.example.pos.domain.TaxClass;
+import com.example.pos.payload.response.ScanResult;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Immutable, read-only view of one store's catalog, built for barcode scans at the till.
+//
+// Products are stored column by column in parallel arrays (ids as two longs, prices as longs,
+// tax classes as bytes), so 100k products are a handful of arrays instead of 100k objects.
+// Two open-addressing tables of int slots point into those arrays: one keyed by barcode, one by
+// product id. A numeric barcode (EAN/UPC, up to 17 digits) is packed into a long together with
+// its length - so "0123" and "123" stay different - and a lookup is a hash, a few array reads
+// and no allocation until the result is built. The rare non-numeric barcode goes to a HashMap.
+//
+// Never modified after construction: a change produces a new snapshot (with / without) that
+// CatalogSnapshots swaps in atomically, so readers need no locks.
+public final class CatalogSnapshot {
+
+    private static final TaxClass[] TAX_CLASSES = TaxClass.values();
+    private static final long NOT_NUMERIC = -1;
+    private static final int MAX_NUMERIC_DIGITS = 17;
+
+    private final int size;
+    private final long[] idHigh;
+    private final long[] idLow;
+    private final String[] skus;
+    private final String[] barcodes;
+    private final String[] names;
+    private final long[] prices;
+    private final byte[] taxClasses;
+    private final long[] barcodeKeys;     // packed numeric barcode, or NOT_NUMERIC
+
+    private final int[] byBarcode;        // slot = product index + 1, 0 = empty
+    private final int[] byId;
+    private final int mask;
+    private final Map<String, Integer> otherBarcodes;
+
+    private final int barcodeCount;
+    private final int duplicateBarcodes;
+    private final Instant builtAt = Instant.now();
+
+    // products in the order that decides duplicate barcodes (first one wins) - by SKU from the repository
+    public CatalogSnapshot(List<ScanResult> products) {
+        size = products.size();
+        idHigh = new long[size];
+        idLow = new long[size];
+        skus = new String[size];
+        barcodes = new String[size];
+        names = new String[size];
+        prices = new long[size];
+        taxClasses = new byte[size];
+        barcodeKeys = new long[size];
+
+        // Power-of-two table, at most half full: short probe sequences
+        int capacity = Integer.highestOneBit(Math.max(size, 1) * 2 - 1) << 1;
+        mask = capacity - 1;
+        byBarcode = new int[capacity];
+        byId = new int[capacity];
+        otherBarcodes = new HashMap<>();
+
+        int indexed = 0;
+        int duplicates = 0;
+        for (int i = 0; i < size; i++) {
+            ScanResult product = products.get(i);
+            idHigh[i] = product.getProductId().getMostSignificantBits();
+            idLow[i] = product.getProductId().getLeastSignificantBits();
+            skus[i] = product.getSku();
+            barcodes[i] = product.getBarcode();
+            names[i] = product.getName();
+            prices[i] = product.getPriceMinor();
+            taxClasses[i] = (byte) product.getTaxClass().ordinal();
+            barcodeKeys[i] = packBarcode(product.getBarcode());
+
+            insertId(i);
+            if (product.getBarcode() != null) {
+                if (insertBarcode(i)) {
+                    indexed++;
+                } else {
+                    duplicates++;
+                }
+            }
+        }
+        barcodeCount = indexed;
+        duplicateBarcodes = duplicates;
+    }
+
+    // ============================================
+    // LOOKUPS
+    // ============================================
+
+    public ScanResult findByBarcode(String barcode) {
+        if (barcode == null) {
+            return null;
+        }
+        long key = packBarcode(barcode);
+        if (key == NOT_NUMERIC) {
+            Integer index = otherBarcodes.get(barcode);
+            return index == null ? null : result(index);
+        }
+        for (int slot = mix(key) & mask; ; slot = (slot + 1) & mask) {
+            int entry = byBarcode[slot];
+            if (entry == 0) {
+                return null;
+            }
+            if (barcodeKeys[entry - 1] == key) {
+                return result(entry - 1);
+            }
+        }
+    }
+
+    public ScanResult findById(UUID productId) {
+        long high = productId.getMostSignificantBits();
+        long low = productId.getLeastSignificantBits();
+        for (int slot = mix(high ^ low) & mask; ; slot = (slot + 1) & mask) {
+            int entry = byId[slot];
+            if (entry == 0) {
+                return null;
+            }
+            if (idHigh[entry - 1] == high && idLow[entry - 1] == low) {
+                return result(entry - 1);
+            }
+        }
+    }
+
+    // ============================================
+    // COPY-ON-WRITE CHANGES
+    // ============================================
+
+    // A new snapshot with this product added or replaced (matched by id)
+    public CatalogSnapshot with(ScanResult product) {
+        List<ScanResult> products = new ArrayList<>(size + 1);
+        boolean added = false;
+        for (int i = 0; i < size; i++) {
+            ScanResult current = result(i);
+            if (!added && product.getSku().compareTo(current.getSku()) < 0) {
+                products.add(product);
+                added = true;
+            }
+            if (!current.getProductId().equals(product.getProductId())) {
+                products.add(current);
+            }
+        }
+        if (!added) {
+            products.add(product);
+        }
+        return new CatalogSnapshot(products);
+    }
+
+    // A new snapshot without this product
+    public CatalogSnapshot without(UUID productId) {
+        List<ScanResult> products = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ScanResult current = result(i);
+            if (!current.getProductId().equals(productId)) {
+                products.add(current);
+            }
+        }
+        return new CatalogSnapshot(products);
+    }
+
+    // ============================================
+    // SIZE
+    // ============================================
+
+    public int size() {
+        return size;
+    }
+
+    public int barcodeCount() {
+        return barcodeCount;
+    }
+
+    public int duplicateBarcodes() {
+        return duplicateBarcodes;
+    }
+
+    public Instant builtAt() {
+        return builtAt;
+    }
+
+    // Shallow size of the arrays plus the strings they hold (compact, Latin-1 strings assumed),
+    // with 64-bit JVM object headers and compressed references
+    public long estimatedBytes() {
+        long bytes = 0;
+        bytes += 2 * array(size, 8) + array(size, 8) + array(size, 8) + array(size, 1);  // ids, prices, tax, barcode keys
+        bytes += 3 * array(size, 4);                                                      // string references
+        bytes += 2 * array(mask + 1, 4);                                                  // the two tables
+        for (int i = 0; i < size; i++) {
+            bytes += string(skus[i]) + string(barcodes[i]) + string(names[i]);
+        }
+        bytes += otherBarcodes.size() * 64L;  // HashMap node + boxed index, roughly
+        return bytes;
+    }
+
+    private static long array(int length, int elementBytes) {
+        return align(16 + (long) length * elementBytes);
+    }
+
+    private static long string(String value) {
+        return value == null ? 0 : align(24) + array(value.length(), 1);
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    // ============================================
+    // INTERNALS
+    // ============================================
+
+    private ScanResult result(int index) {
+        return new ScanResult(new UUID(idHigh[index], idLow[index]), skus[index], barcodes[index], names[index],
+                prices[index], TAX_CLASSES[taxClasses[index]]);
+    }
+
+    private void insertId(int index) {
+        int slot = mix(idHigh[index] ^ idLow[index]) & mask;
+        while (byId[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        byId[slot] = index + 1;
+    }
+
+    // false if another product already has this barcode
+    private boolean insertBarcode(int index) {
+        long key = barcodeKeys[index];
+        if (key == NOT_NUMERIC) {
+            return otherBarcodes.putIfAbsent(barcodes[index], index) == null;
+        }
+        int slot = mix(key) & mask;
+        while (byBarcode[slot] != 0) {
+            if (barcodeKeys[byBarcode[slot] - 1] == key) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        byBarcode[slot] = index + 1;
+        return true;
+    }
+
+    // Digits only, at most 17 of them: value * 32 + length (fits in a long), else NOT_NUMERIC
+    static long packBarcode(String barcode) {
+        if (barcode == null) {
+            return NOT_NUMERIC;
+        }
+        int length = barcode.length();
+        if (length == 0 || length > MAX_NUMERIC_DIGITS) {
+            return NOT_NUMERIC;
+        }
+        long value = 0;
+        for (int i = 0; i < length; i++) {
+            char c = barcode.charAt(i);
+            if (c < '0' || c > '9') {
+                return NOT_NUMERIC;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return (value << 5) | length;
+    }
+
+    // Murmur3 finalizer - spreads similar keys (consecutive barcodes) over the table
+    private static int mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+}
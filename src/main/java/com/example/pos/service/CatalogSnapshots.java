@@ -0,0 +1,85 @@
+package com.example.pos.service;
+
+import com.example.pos.exceptions.UserException;
+import com.example.pos.payload.response.CatalogStats;
+import com.example.pos.payload.response.ScanResult;
+import com.example.pos.repo.ProductRepository;
+import com.example.pos.repo.StoreRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+// One CatalogSnapshot per store, loaded from the database on the first scan for that store.
+// Changes are copy-on-write: the current snapshot is never modified; a new one is built
+// and swapped in with a single map update, so a scan always sees a whole, consistent catalog.
+//   - single product create/update/delete -> new snapshot with that one product changed
+//   - bulk import or store deleted          -> snapshot dropped, rebuilt by the next scan
+// Loads and changes for the same store are serialized by the cache (get with a loader,
+// computeIfPresent), so a change can't be lost to a load that started before it.
+// Only stores that exist get a snapshot, and at most max-stores are kept (least recently
+// used go first). Hits, misses and evictions are published under the cache name "catalogs".
+@Component
+public class CatalogSnapshots {
+
+    private final ProductRepository productRepository;
+    private final StoreRepository storeRepository;
+    private final Cache<UUID, CatalogSnapshot> snapshots;
+
+    public CatalogSnapshots(ProductRepository productRepository,
+                            StoreRepository storeRepository,
+                            MeterRegistry meterRegistry,
+                            @Value("${pos.catalog.snapshots.max-stores:500}") long maxStores) {
+        this.productRepository = productRepository;
+        this.storeRepository = storeRepository;
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(maxStores)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, snapshots, "catalogs");
+    }
+
+    public CatalogSnapshot get(UUID storeId) throws UserException {
+        CatalogSnapshot snapshot = snapshots.getIfPresent(storeId);
+        if (snapshot != null) {
+            return snapshot;
+        }
+        // Unknown ids would otherwise each cache an empty snapshot
+        if (!storeRepository.existsById(storeId)) {
+            throw new UserException("Store not found!");
+        }
+        return snapshots.get(storeId, id -> new CatalogSnapshot(productRepository.findScanResultsByStoreId(id)));
+    }
+
+    public ScanResult scan(UUID storeId, String barcode) throws UserException {
+        return get(storeId).findByBarcode(barcode);
+    }
+
+    public CatalogStats stats(UUID storeId) throws UserException {
+        CatalogSnapshot snapshot = get(storeId);
+        long bytes = snapshot.estimatedBytes();
+        long per100k = snapshot.size() == 0 ? 0 : bytes * 100_000 / snapshot.size();
+        return new CatalogStats(storeId, snapshot.size(), snapshot.barcodeCount(), snapshot.duplicateBarcodes(),
+                bytes, per100k, snapshot.builtAt());
+    }
+
+    // ============================================
+    // CHANGES (only matter if the store's snapshot is loaded)
+    // ============================================
+
+    public void productChanged(UUID storeId, ScanResult product) {
+        snapshots.asMap().computeIfPresent(storeId, (id, snapshot) -> snapshot.with(product));
+    }
+
+    public void productRemoved(UUID storeId, UUID productId) {
+        snapshots.asMap().computeIfPresent(storeId, (id, snapshot) -> snapshot.without(productId));
+    }
+
+    public void invalidate(UUID storeId) {
+        snapshots.invalidate(storeId);
+    }
+}
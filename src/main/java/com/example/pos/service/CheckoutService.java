@@ -0,0 +1,217 @@
+package com.example.pos.service;
+
+import com.example.pos.exceptions.UserException;
+import com.example.pos.mapper.OrderMapper;
+import com.example.pos.model.Order;
+import com.example.pos.model.OrderLine;
+import com.example.pos.payload.request.CheckoutRequest;
+import com.example.pos.payload.response.CheckoutResult;
+import com.example.pos.payload.response.ScanResult;
+import com.example.pos.repo.OrderJdbcRepository;
+import com.example.pos.repo.OrderRepository;
+import com.example.pos.repo.StoreRepository;
+import com.example.pos.repo.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+// Turns a basket into an Order. The happy path is three statements in one transaction:
+//   insert the order row -> insert all lines in one JDBC batch -> one batch of stock movements
+// Prices come from the store's in-memory CatalogSnapshot, so there is no product query either,
+// and stock is taken in memory by StockLedger before anything is written.
+//
+// Retries: the till sends an Idempotency-Key with every checkout and the same key when it
+// retries. (store_id, idempotency_key) is unique, so a retry's insert fails and we answer with
+// the order the first attempt created - the customer is never charged twice.
+@Service
+public class CheckoutService {
+
+    private final OrderRepository orderRepository;
+    private final OrderJdbcRepository orderJdbcRepository;
+    private final StoreRepository storeRepository;
+    private final UserRepository userRepository;
+    private final CatalogSnapshots catalogSnapshots;
+    private final StockLedger stockLedger;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxLines;
+
+    public CheckoutService(OrderRepository orderRepository,
+                           OrderJdbcRepository orderJdbcRepository,
+                           StoreRepository storeRepository,
+                           UserRepository userRepository,
+                           CatalogSnapshots catalogSnapshots,
+                           StockLedger stockLedger,
+                           TransactionTemplate transactionTemplate,
+                           @Value("${pos.orders.max-lines:500}") int maxLines) {
+        this.orderRepository = orderRepository;
+        this.orderJdbcRepository = orderJdbcRepository;
+        this.storeRepository = storeRepository;
+        this.userRepository = userRepository;
+        this.catalogSnapshots = catalogSnapshots;
+        this.stockLedger = stockLedger;
+        this.transactionTemplate = transactionTemplate;
+        this.maxLines = maxLines;
+    }
+
+    // ============================================
+    // CHECKOUT
+    // ============================================
+    public CheckoutResult checkout(UUID storeId, UUID cashierId, String idempotencyKey,
+                                   CheckoutRequest request) throws UserException {
+
+        // Step 1: Check the key and the basket size
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            throw new UserException("Idempotency-Key header is required!");
+        }
+        if (idempotencyKey.length() > 64) {
+            throw new UserException("Idempotency-Key is at most 64 characters!");
+        }
+        if (request.getLines().size() > maxLines) {
+            throw new UserException("At most " + maxLines + " lines per order!");
+        }
+        String requestHash = requestHash(request);
+
+        // Step 2: Price every line from the catalog snapshot
+        CatalogSnapshot catalog = catalogSnapshots.get(storeId);
+        Order order = new Order();
+        order.setId(UUID.randomUUID());
+        order.setIdempotencyKey(idempotencyKey);
+        order.setRequestHash(requestHash);
+        order.setCreatedAt(LocalDateTime.now());
+
+        List<OrderLine> lines = new ArrayList<>(request.getLines().size());
+        long total = 0;
+        for (CheckoutRequest.Line item : request.getLines()) {
+            ScanResult product = catalog.findById(item.getProductId());
+            if (product == null) {
+                // A retry may come after the product was deleted - the order it placed still stands
+                Optional<CheckoutResult> earlier = replay(storeId, idempotencyKey, requestHash);
+                if (earlier.isPresent()) {
+                    return earlier.get();
+                }
+                throw new UserException("Product not found: " + item.getProductId());
+            }
+
+            OrderLine line = new OrderLine();
+            line.setId(UUID.randomUUID());
+            line.setOrder(order);
+            line.setLineNo(lines.size() + 1);
+            line.setProductId(product.getProductId());
+            line.setSku(product.getSku());
+            line.setName(product.getName());
+            line.setQuantity(item.getQuantity());
+            line.setUnitPriceMinor(product.getPriceMinor());
+            try {
+                line.setLineTotalMinor(Math.multiplyExact(product.getPriceMinor(), item.getQuantity()));
+                total = Math.addExact(total, line.getLineTotalMinor());
+            } catch (ArithmeticException e) {
+                throw new UserException("Order total is too large!");
+            }
+            line.setTaxClass(product.getTaxClass());
+            lines.add(line);
+        }
+        order.setLines(lines);
+        order.setLineCount(lines.size());
+        order.setTotalMinor(total);
+        // References only - nothing is loaded, the insert just needs their ids
+        order.setStore(storeRepository.getReferenceById(storeId));
+        order.setCashier(cashierId != null ? userRepository.getReferenceById(cashierId) : null);
+
+        // Step 3: Take the stock of tracked products - all lines or none
+        List<OrderLine> held;
+        try {
+            held = stockLedger.reserve(storeId, lines);
+        } catch (UserException e) {
+            // A retry of a sale that took the last units - the order it placed still stands
+            Optional<CheckoutResult> earlier = replay(storeId, idempotencyKey, requestHash);
+            if (earlier.isPresent()) {
+                return earlier.get();
+            }
+            throw e;
+        }
+
+        // Step 4: Write the order, its lines and the stock movements together
+        boolean written = false;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                orderJdbcRepository.insert(order);
+                orderJdbcRepository.insertLines(order);
+                stockLedger.recordSales(storeId, order.getId(), held);
+            });
+            written = true;
+        } catch (DuplicateKeyException e) {
+            // This key was already used: a retry (or two racing retries) of the same checkout
+            return replay(storeId, idempotencyKey, requestHash)
+                    .orElseThrow(() -> e);
+        } catch (DataIntegrityViolationException e) {
+            // Name the reference that is really missing (deleted meanwhile); anything else is a bug
+            if (!storeRepository.existsById(storeId)) {
+                throw new UserException("Store not found!");
+            }
+            if (cashierId != null && !userRepository.existsById(cashierId)) {
+                throw new UserException("Cashier not found!");
+            }
+            throw e;
+        } finally {
+            if (!written) {
+                stockLedger.release(storeId, held);
+            }
+        }
+        return new CheckoutResult(OrderMapper.toDto(order), false);
+    }
+
+    // ============================================
+    // GET ORDER
+    // ============================================
+    public CheckoutResult getOrder(UUID storeId, UUID orderId) throws UserException {
+        Optional<Order> order = orderRepository.findByIdAndStoreId(orderId, storeId);
+        if (!order.isPresent()) {
+            throw new UserException("Order not found!");
+        }
+        return new CheckoutResult(OrderMapper.toDto(order.get()), false);
+    }
+
+    // ============================================
+    // HELPERS
+    // ============================================
+
+    // The order an earlier attempt with this key created, if any.
+    // The same key with a different basket is a client bug - 409 instead of the wrong receipt.
+    private Optional<CheckoutResult> replay(UUID storeId, String idempotencyKey, String requestHash) {
+        return orderRepository.findByStoreIdAndIdempotencyKey(storeId, idempotencyKey).map(order -> {
+            if (!order.getRequestHash().equals(requestHash)) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        "Idempotency-Key was already used for a different basket");
+            }
+            return new CheckoutResult(OrderMapper.toDto(order), true);
+        });
+    }
+
+    // SHA-256 over "productId:quantity" of every line, in basket order
+    private static String requestHash(CheckoutRequest request) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            for (CheckoutRequest.Line line : request.getLines()) {
+                sha256.update((line.getProductId() + ":" + line.getQuantity() + "\n").getBytes(StandardCharsets.US_ASCII));
+            }
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(sha256.digest());
+        } catch (NoSuchAlgorithmException e) {
+            // Every JVM is required to ship SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
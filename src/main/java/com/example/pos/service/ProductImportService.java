@@ -0,0 +1,272 @@
+package com.example.pos.service;
+
+import com.example.pos.domain.ChangeOperation;
+import com.example.pos.domain.SyncEntity;
+import com.example.pos.domain.TaxClass;
+import com.example.pos.exceptions.UserException;
+import com.example.pos.model.Product;
+import com.example.pos.payload.dto.ProductDto;
+import com.example.pos.payload.response.ProductImportReport;
+import com.example.pos.repo.ChangeLogJdbcRepository;
+import com.example.pos.repo.ProductJdbcRepository;
+import com.example.pos.repo.ProductRepository;
+import com.example.pos.repo.StoreRepository;
+import com.example.pos.utils.CsvLines;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.*;
+
+// Loads a store's catalog from CSV (header "sku,barcode,name,priceMinor,taxClass"), inserting
+// new SKUs and updating existing ones. The body is streamed and handled in chunks:
+//   parse + validate -> find which SKUs already exist (one IN query) -> one JDBC insert batch
+//   and one JDBC update batch, in one transaction per chunk.
+// A 200k-line catalog is a few hundred statements instead of 200k single-row saves.
+@Service
+public class ProductImportService {
+
+    private static final List<String> CSV_COLUMNS = List.of("sku", "barcode", "name", "priceminor", "taxclass");
+
+    private final StoreRepository storeRepository;
+    private final ProductRepository productRepository;
+    private final ProductJdbcRepository productJdbcRepository;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final CatalogSnapshots catalogSnapshots;
+    private final ChangeLogJdbcRepository changeLog;
+    private final int chunkSize;
+
+    public ProductImportService(StoreRepository storeRepository,
+                                ProductRepository productRepository,
+                                ProductJdbcRepository productJdbcRepository,
+                                Validator validator,
+                                TransactionTemplate transactionTemplate,
+                                CatalogSnapshots catalogSnapshots,
+                                ChangeLogJdbcRepository changeLog,
+                                @Value("${pos.products.import.chunk-size:1000}") int chunkSize) {
+        this.storeRepository = storeRepository;
+        this.productRepository = productRepository;
+        this.productJdbcRepository = productJdbcRepository;
+        this.validator = validator;
+        this.transactionTemplate = transactionTemplate;
+        this.catalogSnapshots = catalogSnapshots;
+        this.changeLog = changeLog;
+        this.chunkSize = chunkSize;
+    }
+
+    public ProductImportReport importProducts(UUID storeId, InputStream input) throws UserException {
+        if (!storeRepository.existsById(storeId)) {
+            throw new UserException("Store not found!");
+        }
+
+        ProductImportReport report = new ProductImportReport();
+        // SKUs compare case-insensitively, like MySQL's default collation on the unique key.
+        // Only the current chunk is remembered: a SKU repeated in a later chunk finds the
+        // row the earlier one inserted and updates it, like importing it again would.
+        Set<String> seenSkus = new HashSet<>();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            int[] columns = readHeader(reader);
+            int lineNumber = 1;
+
+            List<PendingRow> chunk = new ArrayList<>(chunkSize);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                PendingRow row = parse(line, lineNumber, columns, report);
+                if (row == null) {
+                    continue;
+                }
+                if (!seenSkus.add(key(row.dto.getSku()))) {
+                    report.failed(row.line, row.dto.getSku(), "Duplicate SKU in this file");
+                    continue;
+                }
+
+                chunk.add(row);
+                if (chunk.size() >= chunkSize) {
+                    importChunk(storeId, chunk, report);
+                    chunk.clear();
+                    seenSkus.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(storeId, chunk, report);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            // Too many changes to patch one by one - the next scan reloads the whole catalog
+            catalogSnapshots.invalidate(storeId);
+        }
+        return report;
+    }
+
+    private int[] readHeader(BufferedReader reader) throws IOException, UserException {
+        String header = reader.readLine();
+        if (header == null) {
+            throw new UserException("CSV header is missing");
+        }
+        List<String> names = CsvLines.split(header.toLowerCase(Locale.ROOT));
+        int[] columns = new int[CSV_COLUMNS.size()];
+        for (int i = 0; i < CSV_COLUMNS.size(); i++) {
+            columns[i] = names.indexOf(CSV_COLUMNS.get(i));
+        }
+        // sku, name and priceMinor are required; barcode and taxClass may be left out
+        if (columns[0] < 0 || columns[2] < 0 || columns[3] < 0) {
+            throw new UserException("CSV header must contain: sku,barcode,name,priceMinor,taxClass");
+        }
+        return columns;
+    }
+
+    private PendingRow parse(String line, int lineNumber, int[] columns, ProductImportReport report) {
+        List<String> fields = CsvLines.split(line);
+        ProductDto dto = new ProductDto();
+        try {
+            dto.setSku(field(fields, columns[0]));
+            dto.setBarcode(field(fields, columns[1]));
+            dto.setName(field(fields, columns[2]));
+            String price = field(fields, columns[3]);
+            dto.setPriceMinor(price != null ? Long.valueOf(price) : null);
+            String taxClass = field(fields, columns[4]);
+            dto.setTaxClass(taxClass != null ? TaxClass.valueOf(taxClass.toUpperCase(Locale.ROOT)) : TaxClass.STANDARD);
+        } catch (IllegalArgumentException e) {
+            report.failed(lineNumber, dto.getSku(), "Unreadable row");
+            return null;
+        }
+
+        Set<ConstraintViolation<ProductDto>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            report.failed(lineNumber, dto.getSku(), violations.iterator().next().getMessage());
+            return null;
+        }
+        return new PendingRow(lineNumber, dto);
+    }
+
+    private static List<UUID> ids(List<Product> products) {
+        return products.stream().map(Product::getId).toList();
+    }
+
+    private static String field(List<String> fields, int column) {
+        if (column < 0 || column >= fields.size() || fields.get(column).isEmpty()) {
+            return null;
+        }
+        return fields.get(column);
+    }
+
+    private void importChunk(UUID storeId, List<PendingRow> chunk, ProductImportReport report) {
+        // Step 1: which SKUs are already in the catalog - one IN query for the whole chunk
+        List<String> skus = chunk.stream().map(row -> row.dto.getSku()).toList();
+        Map<String, UUID> existing = new HashMap<>();
+        for (Object[] row : productRepository.findIdsBySkus(storeId, skus)) {
+            existing.put(key((String) row[0]), (UUID) row[1]);
+        }
+
+        // Step 2: split into inserts and updates
+        LocalDateTime now = LocalDateTime.now();
+        List<PendingRow> newRows = new ArrayList<>();
+        List<Product> inserts = new ArrayList<>();
+        List<PendingRow> changedRows = new ArrayList<>();
+        List<Product> updates = new ArrayList<>();
+        for (PendingRow row : chunk) {
+            UUID id = existing.get(key(row.dto.getSku()));
+            Product product = toProduct(row.dto, id != null ? id : UUID.randomUUID(), now);
+            if (id == null) {
+                newRows.add(row);
+                inserts.add(product);
+            } else {
+                changedRows.add(row);
+                updates.add(product);
+            }
+        }
+
+        // Step 3: both batches in one transaction; if it hits a constraint (e.g. a SKU
+        // inserted concurrently), redo the chunk row by row to report which ones failed.
+        // JDBC skips the JPA listeners, so the change-log entries for terminal sync go in here too.
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!inserts.isEmpty()) {
+                    productJdbcRepository.insertAll(storeId, inserts);
+                    changeLog.insertAll(SyncEntity.PRODUCT, ids(inserts), storeId, ChangeOperation.CREATED);
+                }
+                if (!updates.isEmpty()) {
+                    productJdbcRepository.updateAll(storeId, updates);
+                    changeLog.insertAll(SyncEntity.PRODUCT, ids(updates), storeId, ChangeOperation.UPDATED);
+                }
+            });
+            newRows.forEach(row -> report.inserted());
+            changedRows.forEach(row -> report.updated());
+        } catch (DataAccessException batchFailure) {
+            for (int i = 0; i < inserts.size(); i++) {
+                try {
+                    Product product = inserts.get(i);
+                    transactionTemplate.executeWithoutResult(status -> {
+                        productJdbcRepository.insert(storeId, product);
+                        changeLog.insert(SyncEntity.PRODUCT, product.getId(), storeId, ChangeOperation.CREATED);
+                    });
+                    report.inserted();
+                } catch (DataAccessException e) {
+                    // Only blame the SKU if it really is taken (e.g. inserted concurrently)
+                    PendingRow row = newRows.get(i);
+                    String message = productRepository.existsByStoreIdAndSku(storeId, row.dto.getSku())
+                            ? "SKU already exists in this store!"
+                            : "Could not insert product";
+                    report.failed(row.line, row.dto.getSku(), message);
+                }
+            }
+            for (int i = 0; i < updates.size(); i++) {
+                try {
+                    Product product = updates.get(i);
+                    transactionTemplate.executeWithoutResult(status -> {
+                        productJdbcRepository.updateAll(storeId, List.of(product));
+                        changeLog.insert(SyncEntity.PRODUCT, product.getId(), storeId, ChangeOperation.UPDATED);
+                    });
+                    report.updated();
+                } catch (DataAccessException e) {
+                    report.failed(changedRows.get(i).line, changedRows.get(i).dto.getSku(), "Could not update product");
+                }
+            }
+        }
+    }
+
+    private static Product toProduct(ProductDto dto, UUID id, LocalDateTime now) {
+        Product product = new Product();
+        product.setId(id);
+        product.setSku(dto.getSku());
+        product.setBarcode(dto.getBarcode());
+        product.setName(dto.getName());
+        product.setPriceMinor(dto.getPriceMinor());
+        product.setTaxClass(dto.getTaxClass());
+        product.setCreatedAt(now);
+        product.setUpdatedAt(now);
+        return product;
+    }
+
+    private static String key(String sku) {
+        return sku.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class PendingRow {
+        private final int line;
+        private final ProductDto dto;
+
+        private PendingRow(int line, ProductDto dto) {
+            this.line = line;
+            this.dto = dto;
+        }
+    }
+}
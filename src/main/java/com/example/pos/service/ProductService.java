@@ -0,0 +1,160 @@
+package com.example.pos.service;
+
+import com.example.pos.exceptions.UserException;
+import com.example.pos.mapper.ProductMapper;
+import com.example.pos.model.Product;
+import com.example.pos.model.Store;
+import com.example.pos.payload.dto.ProductDto;
+import com.example.pos.payload.response.CursorPage;
+import com.example.pos.payload.response.ScanResult;
+import com.example.pos.repo.ProductRepository;
+import com.example.pos.repo.StoreRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+// Business logic for a store's product catalog (bulk loading lives in ProductImportService)
+@Service
+public class ProductService {
+
+    private final ProductRepository productRepository;
+    private final StoreRepository storeRepository;
+    private final CatalogSnapshots catalogSnapshots;  // In-memory catalogs for barcode scans
+
+    public ProductService(ProductRepository productRepository, StoreRepository storeRepository,
+                          CatalogSnapshots catalogSnapshots) {
+        this.productRepository = productRepository;
+        this.storeRepository = storeRepository;
+        this.catalogSnapshots = catalogSnapshots;
+    }
+
+    // ============================================
+    // CREATE PRODUCT
+    // ============================================
+    public ProductDto createProduct(UUID storeId, ProductDto productDto) throws UserException {
+
+        // Step 1: The store must exist
+        Optional<Store> storeOptional = storeRepository.findById(storeId);
+        if (!storeOptional.isPresent()) {
+            throw new UserException("Store not found!");
+        }
+
+        // Step 2: SKUs are unique within a store
+        if (productRepository.existsByStoreIdAndSku(storeId, productDto.getSku())) {
+            throw new UserException("SKU already exists in this store!");
+        }
+
+        // Step 3: Save (the unique constraint catches a SKU added a moment ago)
+        Product product = ProductMapper.toEntity(productDto);
+        product.setStore(storeOptional.get());
+        Product savedProduct;
+        try {
+            savedProduct = productRepository.save(product);
+        } catch (DataIntegrityViolationException e) {
+            throw new UserException("SKU already exists in this store!");
+        }
+        catalogSnapshots.productChanged(storeId, toScanResult(savedProduct));
+        return ProductMapper.toDto(savedProduct);
+    }
+
+    // ============================================
+    // GET PRODUCTS (ONE PAGE AT A TIME)
+    // ============================================
+    // Ordered by SKU; the cursor is the last SKU of the previous page
+    public CursorPage<ProductDto> getProducts(UUID storeId, String cursor, Integer size) throws UserException {
+
+        int pageSize = size == null ? StoreService.DEFAULT_PAGE_SIZE
+                : Math.max(1, Math.min(size, StoreService.MAX_PAGE_SIZE));
+        PageRequest limit = PageRequest.ofSize(pageSize + 1);
+
+        List<Product> products = cursor == null || cursor.isBlank()
+                ? productRepository.findFirstPage(storeId, limit)
+                : productRepository.findPageAfter(storeId, decodeCursor(cursor), limit);
+
+        boolean hasMore = products.size() > pageSize;
+        if (hasMore) {
+            products = products.subList(0, pageSize);
+        }
+        List<ProductDto> items = products.stream()
+                .map(ProductMapper::toDto)
+                .collect(Collectors.toList());
+        String nextCursor = hasMore ? encodeCursor(products.get(products.size() - 1).getSku()) : null;
+        return new CursorPage<>(items, nextCursor, items.size());
+    }
+
+    // ============================================
+    // GET PRODUCT BY ID
+    // ============================================
+    public ProductDto getProduct(UUID storeId, UUID productId) throws UserException {
+        return ProductMapper.toDto(find(storeId, productId));
+    }
+
+    // ============================================
+    // UPDATE PRODUCT
+    // ============================================
+    public ProductDto updateProduct(UUID storeId, UUID productId, ProductDto productDto) throws UserException {
+
+        Product product = find(storeId, productId);
+
+        // Changing the SKU must not collide with another product of the store
+        if (!product.getSku().equals(productDto.getSku())
+                && productRepository.existsByStoreIdAndSku(storeId, productDto.getSku())) {
+            throw new UserException("SKU already exists in this store!");
+        }
+
+        product.setSku(productDto.getSku());
+        product.setBarcode(productDto.getBarcode());
+        product.setName(productDto.getName());
+        product.setPriceMinor(productDto.getPriceMinor());
+        product.setTaxClass(productDto.getTaxClass());
+
+        Product savedProduct;
+        try {
+            savedProduct = productRepository.save(product);
+        } catch (DataIntegrityViolationException e) {
+            throw new UserException("SKU already exists in this store!");
+        }
+        catalogSnapshots.productChanged(storeId, toScanResult(savedProduct));
+        return ProductMapper.toDto(savedProduct);
+    }
+
+    // ============================================
+    // DELETE PRODUCT
+    // ============================================
+    public void deleteProduct(UUID storeId, UUID productId) throws UserException {
+        productRepository.delete(find(storeId, productId));
+        catalogSnapshots.productRemoved(storeId, productId);
+    }
+
+    private static ScanResult toScanResult(Product product) {
+        return new ScanResult(product.getId(), product.getSku(), product.getBarcode(), product.getName(),
+                product.getPriceMinor(), product.getTaxClass());
+    }
+
+    private Product find(UUID storeId, UUID productId) throws UserException {
+        Optional<Product> productOptional = productRepository.findByIdAndStoreId(productId, storeId);
+        if (!productOptional.isPresent()) {
+            throw new UserException("Product not found!");
+        }
+        return productOptional.get();
+    }
+
+    private static String encodeCursor(String sku) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(sku.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeCursor(String cursor) throws UserException {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new UserException("Invalid cursor");
+        }
+    }
+}
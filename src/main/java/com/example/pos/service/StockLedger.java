@@ -0,0 +1,212 @@
+package com.example.pos.service;
+
+import com.example.pos.domain.StockMovementType;
+import com.example.pos.exceptions.UserException;
+import com.example.pos.model.OrderLine;
+import com.example.pos.model.StockMovement;
+import com.example.pos.payload.response.StockAvailability;
+import com.example.pos.repo.ProductRepository;
+import com.example.pos.repo.StockJdbcRepository;
+import com.example.pos.utils.InFlightWrites;
+import com.example.pos.utils.StockCounter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Per-store inventory without row locks.
+//   - Every change is a new row in stock_movements (append-only), so tills selling the same
+//     product at the same moment never wait on each other in the database.
+//   - Whether there is enough to sell is decided in memory by a StockCounter per product:
+//     the quantity is taken there first (atomically, never below zero), then the movement is
+//     written; if the write fails the quantity is put back. Oversell is refused before any SQL.
+//   - A scheduled compaction adds committed movements into stock_levels.on_hand, so loading a
+//     store's quantities never has to sum its whole history. InFlightWrites tells it how far
+//     that is: it never passes an id whose transaction may still commit.
+// A store's counters are loaded (one query) the first time the store sells or changes stock.
+// Like the other in-memory caches here, this assumes one application instance per database.
+@Service
+public class StockLedger {
+
+    private static final Logger log = LoggerFactory.getLogger(StockLedger.class);
+
+    private final StockJdbcRepository stockJdbcRepository;
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // Writers of stock_movements; compaction only goes up to ids they have all finished with
+    private final InFlightWrites movementWrites = new InFlightWrites();
+    private final InFlightWrites.Watermark compactable = movementWrites.watermark();
+
+    // storeId -> (productId -> counter); only tracked products have a counter
+    private final Map<UUID, Map<UUID, StockCounter>> stores = new ConcurrentHashMap<>();
+
+    public StockLedger(StockJdbcRepository stockJdbcRepository,
+                       ProductRepository productRepository,
+                       TransactionTemplate transactionTemplate) {
+        this.stockJdbcRepository = stockJdbcRepository;
+        this.productRepository = productRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    // ============================================
+    // SALES (called by CheckoutService)
+    // ============================================
+
+    // Takes the quantity of every tracked line, or none of them if one is short.
+    // Returns the lines that were taken - pass them to recordSales, or to release if the order isn't written.
+    public List<OrderLine> reserve(UUID storeId, List<OrderLine> lines) throws UserException {
+        Map<UUID, StockCounter> counters = counters(storeId);
+        List<OrderLine> held = new ArrayList<>();
+        for (OrderLine line : lines) {
+            StockCounter counter = counters.get(line.getProductId());
+            if (counter == null) {
+                continue;  // stock not tracked for this product
+            }
+            if (!counter.tryTake(line.getQuantity())) {
+                release(storeId, held);
+                throw new UserException("Not enough stock for " + line.getSku() + "!");
+            }
+            held.add(line);
+        }
+        return held;
+    }
+
+    // Puts back what reserve took (the order was not written)
+    public void release(UUID storeId, List<OrderLine> held) {
+        Map<UUID, StockCounter> counters = counters(storeId);
+        for (OrderLine line : held) {
+            counters.get(line.getProductId()).add(line.getQuantity());
+        }
+    }
+
+    // One SALE movement per held line, in one batch - call inside the order's transaction
+    public void recordSales(UUID storeId, UUID orderId, List<OrderLine> held) {
+        if (held.isEmpty()) {
+            return;
+        }
+        // Compaction waits for the order's transaction to end, not just for this insert
+        long write = movementWrites.start();
+        try {
+            stockJdbcRepository.insertMovements(held.stream()
+                    .map(line -> new StockMovement(storeId, line.getProductId(), StockMovementType.SALE,
+                            -line.getQuantity(), orderId))
+                    .toList());
+        } finally {
+            movementWrites.finishWithTransaction(write);
+        }
+    }
+
+    // ============================================
+    // RECEIPTS AND ADJUSTMENTS
+    // ============================================
+    public StockAvailability record(UUID storeId, UUID productId, StockMovementType type, long delta) throws UserException {
+
+        // Step 1: Check the request
+        if (type == StockMovementType.SALE) {
+            throw new UserException("Sales are recorded by checkout!");
+        }
+        if (delta == 0 || (type == StockMovementType.RECEIPT && delta < 0)) {
+            throw new UserException("A receipt adds stock; an adjustment cannot be 0!");
+        }
+        if (productRepository.findByIdAndStoreId(productId, storeId).isEmpty()) {
+            throw new UserException("Product not found!");
+        }
+
+        // Step 2: The first movement of a product starts tracking it
+        Map<UUID, StockCounter> counters = counters(storeId);
+        StockCounter created = new StockCounter(0);
+        StockCounter existing = counters.putIfAbsent(productId, created);
+        StockCounter counter = existing != null ? existing : created;
+        boolean newlyTracked = existing == null;
+
+        // Step 3: Stock going out is taken first, like a sale - it can't go below zero
+        if (delta < 0 && !counter.tryTake(-delta)) {
+            // Not tracked after all: it has no stock_levels row yet
+            if (newlyTracked) {
+                counters.remove(productId, created);
+            }
+            throw new UserException("Not enough stock to remove " + (-delta) + "!");
+        }
+
+        // Step 4: Append to the ledger
+        StockMovement movement = new StockMovement(storeId, productId, type, delta, null);
+        long write = movementWrites.start();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (newlyTracked) {
+                    stockJdbcRepository.insertLevel(storeId, productId);
+                }
+                stockJdbcRepository.insertMovements(List.of(movement));
+            });
+        } catch (RuntimeException e) {
+            if (delta < 0) {
+                counter.add(-delta);
+            }
+            if (newlyTracked) {
+                counters.remove(productId, created);
+            }
+            throw e;
+        } finally {
+            movementWrites.finish(write);
+        }
+
+        // Step 5: Stock coming in can be sold once it is in the ledger
+        if (delta > 0) {
+            counter.add(delta);
+        }
+        return new StockAvailability(productId, true, counter.available());
+    }
+
+    // ============================================
+    // READ
+    // ============================================
+    public StockAvailability getAvailability(UUID storeId, UUID productId) {
+        StockCounter counter = counters(storeId).get(productId);
+        if (counter == null) {
+            return new StockAvailability(productId, false, null);
+        }
+        return new StockAvailability(productId, true, counter.available());
+    }
+
+    // ============================================
+    // COMPACTION
+    // ============================================
+    // Adds movements into stock_levels up to an id no running transaction can still write
+    // below (see InFlightWrites.Watermark), so a slow commit is never skipped.
+    // The counters don't change: they already include every movement.
+    @Scheduled(fixedDelayString = "${pos.stock.compaction.interval-millis:60000}")
+    public synchronized int compact() {
+        // Step 1: how far every movement has committed (or rolled back)
+        long upTo = compactable.advance(stockJdbcRepository::findLastMovementId);
+
+        // Step 2: add (from, upTo] into stock_levels
+        long from = stockJdbcRepository.findCompactedUpTo();
+        if (upTo <= from) {
+            return 0;
+        }
+        Integer levels = transactionTemplate.execute(status -> stockJdbcRepository.compact(from, upTo));
+        log.debug("Stock ledger compacted up to movement {} ({} products)", upTo, levels);
+        return levels != null ? levels : 0;
+    }
+
+    private Map<UUID, StockCounter> counters(UUID storeId) {
+        Map<UUID, StockCounter> counters = stores.get(storeId);
+        if (counters != null) {
+            return counters;
+        }
+        return stores.computeIfAbsent(storeId, id -> {
+            Map<UUID, StockCounter> loaded = new ConcurrentHashMap<>();
+            stockJdbcRepository.findAvailable(id)
+                    .forEach((productId, available) -> loaded.put(productId, new StockCounter(Math.max(available, 0))));
+            return loaded;
+        });
+    }
+}
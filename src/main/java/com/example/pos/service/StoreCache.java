@@ -0,0 +1,87 @@
+package com.example.pos.service;
+
+import com.example.pos.mapper.StoreMapper;
+import com.example.pos.payload.dto.StoreDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+// Read-through cache of StoreDto by id, for terminals that poll GET /api/stores/{id}.
+// StoreService fills it on read and evicts on every write to a store;
+// the TTL only bounds staleness for changes made outside this application.
+// Hits, misses and evictions are published under the cache name "stores".
+//
+// A read that loaded a store just before a write must not put it back after the write's
+// eviction: get(id, loader) loads inside the cache (an eviction waits for it, then removes
+// it), and batch reads use putIfNotInvalidatedSince. Callers always get their own copy.
+@Component
+public class StoreCache {
+
+    private final Cache<UUID, StoreDto> cache;
+    // Bumped by every eviction, before it happens
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public StoreCache(MeterRegistry meterRegistry,
+                      @Value("${pos.cache.stores.max-size:10000}") long maxSize,
+                      @Value("${pos.cache.stores.ttl:5m}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "stores");
+    }
+
+    // The cached store, or loader's answer (cached unless null)
+    public StoreDto get(UUID id, Function<UUID, StoreDto> loader) {
+        return StoreMapper.copy(cache.get(id, loader));
+    }
+
+    public StoreDto getIfPresent(UUID id) {
+        return StoreMapper.copy(cache.getIfPresent(id));
+    }
+
+    // Take this before loading stores outside the cache, and pass it to putIfNotInvalidatedSince
+    public long generation() {
+        return invalidations.get();
+    }
+
+    // Caches a store loaded outside the cache, unless something was evicted since the load
+    // began - it may have been read before that write committed
+    public void putIfNotInvalidatedSince(StoreDto store, long generation) {
+        if (store == null || store.getId() == null) {
+            return;
+        }
+        StoreDto copy = StoreMapper.copy(store);
+        cache.asMap().compute(store.getId(),
+                (id, current) -> invalidations.get() == generation ? copy : current);
+    }
+
+    public void invalidate(UUID id) {
+        invalidations.incrementAndGet();
+        cache.invalidate(id);
+    }
+
+    public void invalidateAll(Collection<UUID> ids) {
+        invalidations.incrementAndGet();
+        cache.invalidateAll(ids);
+    }
+
+    // Cached stores show their admin's name, so a changed admin drops the stores they run.
+    // Users change rarely (logins don't count), so a scan of the cached entries is fine here.
+    public void invalidateAdmin(UUID adminId) {
+        if (adminId != null) {
+            invalidations.incrementAndGet();
+            cache.asMap().values().removeIf(store -> adminId.equals(store.getStoreAdminId()));
+        }
+    }
+}
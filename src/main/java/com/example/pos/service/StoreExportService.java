@@ -0,0 +1,142 @@
+package com.example.pos.service;
+
+import com.example.pos.mapper.StoreMapper;
+import com.example.pos.model.Store;
+import com.example.pos.model.StoreContact;
+import com.example.pos.payload.dto.StoreDto;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.persistence.EntityManager;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+// Writes every store to an output stream, one at a time.
+// Rows come from a streaming query and each entity is detached as soon as it is written,
+// so memory use stays the same whether there are 100 stores or 1,000,000.
+// The fetch size is set on this query only (pos.stores.export.fetch-size), so the rest of
+// the application keeps MySQL's normal buffered result sets.
+@Service
+public class StoreExportService {
+
+    public enum Format { NDJSON, CSV }
+
+    private static final int FLUSH_EVERY = 1000;
+    private static final String CSV_HEADER =
+            "id,brand,storeType,status,description,address,phone,email,storeAdminId,storeAdminName,createdAt,updatedAt";
+
+    private static final String ALL_STORES =
+            "select s from Store s left join fetch s.storeAdmin order by s.createdAt asc, s.id asc";
+
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+
+    public StoreExportService(EntityManager entityManager, ObjectMapper objectMapper,
+                              @Value("${pos.stores.export.fetch-size:500}") int fetchSize) {
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+    }
+
+    // Runs on the response-writing thread; the transaction keeps the JDBC cursor open while we stream
+    @Transactional(readOnly = true)
+    public void export(Format format, OutputStream out) throws IOException {
+        try (Stream<Store> stores = streamAll()) {
+            if (format == Format.CSV) {
+                writeCsv(stores.iterator(), out);
+            } else {
+                writeNdjson(stores.iterator(), out);
+            }
+        }
+    }
+
+    // Must be consumed inside the transaction and closed afterwards (try-with-resources)
+    private Stream<Store> streamAll() {
+        return entityManager.createQuery(ALL_STORES, Store.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    private void writeNdjson(Iterator<Store> stores, OutputStream out) throws IOException {
+        // One JSON object per line; the writer must not close the servlet stream
+        SequenceWriter writer = objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n")
+                .writeValues(out);
+        int count = 0;
+        while (stores.hasNext()) {
+            writer.write(toDtoAndDetach(stores.next()));
+            if (++count % FLUSH_EVERY == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+        // End the last line too - but no stores means an empty body, not a lone newline
+        if (count > 0) {
+            out.write('\n');
+        }
+        out.flush();
+    }
+
+    private void writeCsv(Iterator<Store> stores, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        int count = 0;
+        while (stores.hasNext()) {
+            StoreDto dto = toDtoAndDetach(stores.next());
+            StoreContact contact = dto.getContact() != null ? dto.getContact() : new StoreContact();
+            writeRow(writer, dto.getId(), dto.getBrand(), dto.getStoreType(), dto.getStatus(), dto.getDescription(),
+                    contact.getAddress(), contact.getPhone(), contact.getEmail(),
+                    dto.getStoreAdminId(), dto.getStoreAdminName(), dto.getCreatedAt(), dto.getUpdatedAt());
+            if (++count % FLUSH_EVERY == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+    }
+
+    private StoreDto toDtoAndDetach(Store store) {
+        StoreDto dto = StoreMapper.toDto(store);
+        // Drop it from the persistence context so it can be garbage collected
+        if (store.getStoreAdmin() != null) {
+            entityManager.detach(store.getStoreAdmin());
+        }
+        entityManager.detach(store);
+        return dto;
+    }
+
+    private static void writeRow(Writer writer, Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(csvField(values[i]));
+        }
+        writer.write('\n');
+    }
+
+    private static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+}
@@ -0,0 +1,411 @@
+package com.example.pos.service;
+
+import com.example.pos.domain.StoreStatus;
+import com.example.pos.exceptions.UserException;
+import com.example.pos.model.Store;
+import com.example.pos.payload.response.CursorPage;
+import com.example.pos.payload.response.StoreSearchHit;
+import com.example.pos.repo.StoreRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.UnaryOperator;
+import java.util.regex.Pattern;
+
+// In-memory inverted index for type-ahead store search over brand, storeType and address.
+// A query matches a store when each of its words is the start of some word of the store
+// ("shop acc" finds "Shoprite Accra Mall"). Results are ordered by brand, then id, and paged
+// with an opaque cursor.
+//
+// The bulk of the stores live in an immutable snapshot: stores sorted by brand, every word
+// sorted, and for each word the (ascending) positions of the stores that contain it. A query
+// turns each of its words into a bitset over those positions (the union of every word it is a
+// prefix of), ANDs them, and reads the first set bits after the cursor - already in brand order.
+// Stores written since the snapshot was built sit in a small sorted "delta" that is scanned
+// directly; once it grows past COMPACT_AT the snapshot is rebuilt from memory.
+//
+// Built at startup from a single projection query and kept in sync by StoreService on every
+// write (writes that land while it is being built are replayed onto it). Readers never lock;
+// writers are serialized (store writes are rare).
+@Component
+public class StoreSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(StoreSearchIndex.class);
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // Writes (new/changed stores plus deleted ones) held outside the snapshot before it is rebuilt
+    static final int COMPACT_AT = 1024;
+
+    private static final Comparator<Entry> ORDER = (a, b) -> {
+        int byKey = a.sortKey.compareTo(b.sortKey);
+        return byKey != 0 ? byKey : a.id.compareTo(b.id);
+    };
+
+    private final StoreRepository storeRepository;
+
+    private volatile State state = new State(Snapshot.build(List.of()), new ConcurrentHashMap<>());
+
+    // Writes made while rebuild() is reading the stores (null otherwise). The rows it reads may
+    // predate them, so they are replayed onto the new state before it replaces the current one.
+    private List<UnaryOperator<State>> writesDuringRebuild;
+
+    public StoreSearchIndex(StoreRepository storeRepository) {
+        this.storeRepository = storeRepository;
+    }
+
+    // Runs after the web server is up, so StoreService may already be writing meanwhile
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (this) {
+            writesDuringRebuild = new ArrayList<>();
+        }
+        List<StoreSearchHit> hits = storeRepository.findAllSearchHits();
+        Map<UUID, Entry> entries = new ConcurrentHashMap<>(hits.size() * 2);
+        for (StoreSearchHit hit : hits) {
+            entries.put(hit.getId(), new Entry(hit));
+        }
+        State fresh = new State(Snapshot.build(entries.values()), entries);
+        synchronized (this) {
+            for (UnaryOperator<State> write : writesDuringRebuild) {
+                fresh = write.apply(fresh);
+            }
+            writesDuringRebuild = null;
+            state = fresh;
+        }
+        log.info("Store search index built for {} stores", hits.size());
+    }
+
+    // ============================================
+    // KEEPING IN SYNC
+    // ============================================
+    // Each write is a function of the state, so a rebuild can apply it again to its new state.
+
+    public synchronized void put(Store store) {
+        StoreSearchHit hit = new StoreSearchHit(store.getId(), store.getBrand(), store.getStoreType(),
+                store.getStatus(), store.getContact() == null ? null : store.getContact().getAddress());
+        write(current -> {
+            Entry old = current.entries.get(hit.getId());
+            if (old != null) {
+                discard(current, old);
+            }
+            Entry entry = new Entry(hit);
+            current.entries.put(entry.id, entry);
+            current.delta.add(entry);
+            return compactIfNeeded(current);
+        });
+    }
+
+    public synchronized void remove(UUID id) {
+        write(current -> {
+            Entry old = current.entries.remove(id);
+            if (old == null) {
+                return current;
+            }
+            discard(current, old);
+            return compactIfNeeded(current);
+        });
+    }
+
+    // Status isn't searchable, so only the hits change - no re-indexing
+    public synchronized void updateStatus(Collection<UUID> ids, StoreStatus status) {
+        List<UUID> changed = List.copyOf(ids);
+        write(current -> {
+            for (UUID id : changed) {
+                Entry entry = current.entries.get(id);
+                if (entry != null) {
+                    StoreSearchHit old = entry.hit;
+                    entry.hit = new StoreSearchHit(old.getId(), old.getBrand(), old.getStoreType(), status, old.getAddress());
+                }
+            }
+            return current;
+        });
+    }
+
+    // Called with the lock held
+    private void write(UnaryOperator<State> change) {
+        state = change.apply(state);
+        if (writesDuringRebuild != null) {
+            writesDuringRebuild.add(change);
+        }
+    }
+
+    public int size() {
+        return state.entries.size();
+    }
+
+    // Snapshot entries are only flagged (the snapshot is immutable); delta entries are dropped
+    private static void discard(State current, Entry old) {
+        old.removed = true;
+        if (!current.delta.remove(old)) {
+            current.removedFromSnapshot++;
+        }
+    }
+
+    private static State compactIfNeeded(State current) {
+        if (current.delta.size() + current.removedFromSnapshot >= COMPACT_AT) {
+            return new State(Snapshot.build(current.entries.values()), current.entries);
+        }
+        return current;
+    }
+
+    // ============================================
+    // SEARCH
+    // ============================================
+    public CursorPage<StoreSearchHit> search(String query, String cursor, int limit) throws UserException {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return new CursorPage<>(List.of(), null, 0);
+        }
+        Entry after = cursor == null || cursor.isBlank() ? null : decodeCursor(cursor);
+
+        State current = state;
+        List<Entry> fromSnapshot = current.snapshot.search(terms, after, limit + 1);
+        List<Entry> fromDelta = new ArrayList<>();
+        for (Entry entry : after == null ? current.delta : current.delta.tailSet(after, false)) {
+            if (!entry.removed && entry.matchesAll(terms)) {
+                fromDelta.add(entry);
+                if (fromDelta.size() > limit) {
+                    break;
+                }
+            }
+        }
+
+        // Merge the two sorted lists, keeping limit + 1 to know whether there is a next page
+        List<Entry> page = new ArrayList<>(limit + 1);
+        int i = 0;
+        int j = 0;
+        while (page.size() <= limit && (i < fromSnapshot.size() || j < fromDelta.size())) {
+            if (j == fromDelta.size()
+                    || (i < fromSnapshot.size() && ORDER.compare(fromSnapshot.get(i), fromDelta.get(j)) < 0)) {
+                page.add(fromSnapshot.get(i++));
+            } else {
+                page.add(fromDelta.get(j++));
+            }
+        }
+        boolean hasMore = page.size() > limit;
+        if (hasMore) {
+            page = page.subList(0, limit);
+        }
+
+        List<StoreSearchHit> items = new ArrayList<>(page.size());
+        for (Entry entry : page) {
+            items.add(entry.hit);
+        }
+        String nextCursor = hasMore ? encodeCursor(page.get(page.size() - 1)) : null;
+        return new CursorPage<>(items, nextCursor, items.size());
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String token : NON_WORD.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return new ArrayList<>(tokens);
+    }
+
+    // Cursor = sort key and id of the last hit on the page, as an opaque URL-safe string
+    private static String encodeCursor(Entry last) {
+        String raw = last.sortKey + "\u0000" + last.id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Entry decodeCursor(String token) throws UserException {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('\u0000');
+            return new Entry(raw.substring(0, separator), UUID.fromString(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new UserException("Invalid cursor");
+        }
+    }
+
+    // The snapshot, the stores written since, and the current entry of every store by id
+    private static final class State {
+        final Snapshot snapshot;
+        final ConcurrentSkipListSet<Entry> delta = new ConcurrentSkipListSet<>(ORDER);
+        final Map<UUID, Entry> entries;
+        int removedFromSnapshot;  // only touched under the index lock
+
+        State(Snapshot snapshot, Map<UUID, Entry> entries) {
+            this.snapshot = snapshot;
+            this.entries = entries;
+        }
+    }
+
+    private static final class Snapshot {
+        final Entry[] stores;     // sorted by brand, then id
+        final String[] words;     // sorted
+        final int[][] positions;  // positions[w] = ascending indexes into stores of the stores containing words[w]
+
+        private Snapshot(Entry[] stores, String[] words, int[][] positions) {
+            this.stores = stores;
+            this.words = words;
+            this.positions = positions;
+        }
+
+        static Snapshot build(Collection<Entry> entries) {
+            Entry[] stores = entries.toArray(new Entry[0]);
+            Arrays.sort(stores, ORDER);
+
+            Map<String, IntList> postings = new HashMap<>();
+            for (int position = 0; position < stores.length; position++) {
+                for (String token : stores[position].tokens) {
+                    postings.computeIfAbsent(token, t -> new IntList()).add(position);
+                }
+            }
+            String[] words = postings.keySet().toArray(new String[0]);
+            Arrays.sort(words);
+            int[][] positions = new int[words.length][];
+            for (int w = 0; w < words.length; w++) {
+                positions[w] = postings.get(words[w]).toArray();
+            }
+            return new Snapshot(stores, words, positions);
+        }
+
+        // First `wanted` live stores after the cursor matching every term, in order
+        List<Entry> search(List<String> terms, Entry after, int wanted) {
+            List<Entry> found = new ArrayList<>(wanted);
+            if (stores.length == 0) {
+                return found;
+            }
+            long[] matching = null;
+            for (String term : terms) {
+                long[] bits = storesWithPrefix(term);
+                if (matching == null) {
+                    matching = bits;
+                } else {
+                    for (int i = 0; i < matching.length; i++) {
+                        matching[i] &= bits[i];
+                    }
+                }
+            }
+
+            int start = after == null ? 0 : firstAfter(after);
+            for (int word = start >>> 6; word < matching.length; word++) {
+                long bits = word == start >>> 6 ? matching[word] & (-1L << start) : matching[word];
+                while (bits != 0) {
+                    Entry entry = stores[(word << 6) + Long.numberOfTrailingZeros(bits)];
+                    bits &= bits - 1;
+                    if (!entry.removed) {
+                        found.add(entry);
+                        if (found.size() == wanted) {
+                            return found;
+                        }
+                    }
+                }
+            }
+            return found;
+        }
+
+        // Bitset of the stores having a word that starts with prefix
+        private long[] storesWithPrefix(String prefix) {
+            long[] bits = new long[(stores.length + 63) >>> 6];
+            int w = Arrays.binarySearch(words, prefix);
+            for (w = w < 0 ? -w - 1 : w; w < words.length && words[w].startsWith(prefix); w++) {
+                for (int position : positions[w]) {
+                    bits[position >>> 6] |= 1L << position;
+                }
+            }
+            return bits;
+        }
+
+        // Position of the first store ordered after the cursor
+        private int firstAfter(Entry after) {
+            int low = 0;
+            int high = stores.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (ORDER.compare(stores[mid], after) <= 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    private static final class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+    private static final class Entry {
+        final UUID id;
+        final String sortKey;
+        final String[] tokens;
+        volatile StoreSearchHit hit;
+        volatile boolean removed;
+
+        Entry(StoreSearchHit hit) {
+            this.id = hit.getId();
+            this.hit = hit;
+            this.sortKey = hit.getBrand() == null ? "" : hit.getBrand().toLowerCase(Locale.ROOT);
+            Set<String> words = new LinkedHashSet<>();
+            words.addAll(tokenize(hit.getBrand()));
+            words.addAll(tokenize(hit.getStoreType()));
+            words.addAll(tokenize(hit.getAddress()));
+            this.tokens = words.toArray(new String[0]);
+        }
+
+        // Cursor position only - compared with ORDER, never returned
+        Entry(String sortKey, UUID id) {
+            this.id = id;
+            this.sortKey = sortKey;
+            this.tokens = new String[0];
+        }
+
+        boolean matchesAll(List<String> terms) {
+            for (String term : terms) {
+                if (!matches(term)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean matches(String term) {
+            for (String token : tokens) {
+                if (token.startsWith(term)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -1,18 +1,46 @@
 package com.example.pos.service;
 
+import com.example.pos.domain.ChangeOperation;
 import com.example.pos.domain.StoreStatus;
+import com.example.pos.domain.SyncEntity;
 import com.example.pos.exceptions.UserException;
 import com.example.pos.model.Store;
+import com.example.pos.model.StoreContact;
 import com.example.pos.model.User;
 import com.example.pos.payload.dto.StoreDto;
+import com.example.pos.payload.request.BulkStoreStatusRequest;
+import com.example.pos.payload.request.StorePatchRequest;
+import com.example.pos.payload.response.BatchLookupResult;
+import com.example.pos.payload.response.BulkStoreStatusResult;
+import com.example.pos.payload.response.CursorPage;
+import com.example.pos.payload.response.StoreCursor;
+import com.example.pos.payload.response.StoreSearchHit;
+import com.example.pos.payload.response.StoreStats;
+import com.example.pos.payload.response.StoreVersions;
+import com.example.pos.repo.ChangeLogJdbcRepository;
+import com.example.pos.repo.OrderRepository;
 import com.example.pos.repo.StoreRepository;
 import com.example.pos.repo.UserRepository;
 import com.example.pos.mapper.StoreMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -24,11 +52,41 @@ public class StoreService {
     // Tools we need (Spring gives us these automatically)
     private StoreRepository storeRepository;  // Talks to database
     private UserRepository userRepository;// To find the admin user
+    private OrderRepository orderRepository;  // A store with sales can't be deleted
+    private UniqueKeyFilter uniqueKeyFilter;  // Fast "is this brand taken?" pre-check
+    private StoreCache storeCache;            // Recently read stores, by id
+    private StoreSearchIndex searchIndex;     // Type-ahead search over brand, type and address
+    private StoreStatistics statistics;       // Live store counts by status and type
+    private CatalogSnapshots catalogSnapshots; // In-memory product catalogs for barcode scans
+    private ChangeLogJdbcRepository changeLog;  // Change entries for terminal sync (bulk updates only)
+    private TransactionTemplate transactionTemplate;
+
+    // Page size limits for the store list endpoints
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    // Ids per UPDATE ... WHERE id IN (...) statement in bulk status changes
+    static final int BULK_CHUNK_SIZE = 1000;
+
+    // Most ids one batch lookup may ask for
+    public static final int MAX_BATCH_IDS = 500;
 
     @Autowired
-    public StoreService(StoreRepository storeRepository, UserRepository userRepository) {
+    public StoreService(StoreRepository storeRepository, UserRepository userRepository,
+                        OrderRepository orderRepository, UniqueKeyFilter uniqueKeyFilter, StoreCache storeCache,
+                        StoreSearchIndex searchIndex, StoreStatistics statistics,
+                        CatalogSnapshots catalogSnapshots, ChangeLogJdbcRepository changeLog,
+                        TransactionTemplate transactionTemplate) {
         this.storeRepository = storeRepository;
         this.userRepository = userRepository;
+        this.orderRepository = orderRepository;
+        this.uniqueKeyFilter = uniqueKeyFilter;
+        this.storeCache = storeCache;
+        this.searchIndex = searchIndex;
+        this.statistics = statistics;
+        this.catalogSnapshots = catalogSnapshots;
+        this.changeLog = changeLog;
+        this.transactionTemplate = transactionTemplate;
     }
     // ============================================
     // CREATE STORE
@@ -38,7 +96,9 @@ public class StoreService {
 
         // Step 1: Check if store brand already exists
         // We don't want duplicate store names!
-        if (storeRepository.existsByBrand(storeDto.getBrand())) {
+        // The in-memory filter skips the query for brands it has never seen
+        if (uniqueKeyFilter.mightContainBrand(storeDto.getBrand())
+                && storeRepository.existsByBrand(storeDto.getBrand())) {
             throw new UserException("Store brand already exists!");
         }
 
@@ -62,7 +122,24 @@ public class StoreService {
 
         // Step 4: Save to database
         // This inserts a new row in the stores table
-        Store savedStore = storeRepository.save(store);
+        // The unique constraint on brand catches a store created with the same name a moment ago
+        Store savedStore;
+        statistics.writeStarted();
+        try {
+            try {
+                savedStore = storeRepository.save(store);
+            } catch (DataIntegrityViolationException e) {
+                if (storeRepository.existsByBrand(storeDto.getBrand())) {
+                    throw new UserException("Store brand already exists!");
+                }
+                throw e;
+            }
+            statistics.created(savedStore.getStatus(), savedStore.getStoreType());
+        } finally {
+            statistics.writeFinished();
+        }
+        uniqueKeyFilter.addBrand(savedStore.getBrand());
+        searchIndex.put(savedStore);
 
         // Step 5: Convert back to DTO and return
         // We send back the DTO (not the entity) to the controller
@@ -70,21 +147,62 @@ public class StoreService {
     }
 
     // ============================================
-    // GET ALL STORES
+    // GET STORES (ONE PAGE AT A TIME)
     // ============================================
-    // Returns a list of all stores in the system
-    public List<StoreDto> getAllStores() {
+    // Returns one page of stores, oldest first, optionally filtered by status and/or type.
+    // Pages are keyset-based: the cursor remembers the (createdAt, id) of the last store
+    // we sent, and the next query starts right after it. The filters go into the SQL,
+    // so response time stays flat no matter how many stores there are.
+    public CursorPage<StoreDto> getStores(StoreStatus status, String storeType,
+                                          String cursor, Integer size) throws UserException {
+
+        // Clamp the page size: default 20, never more than MAX_PAGE_SIZE
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        // Ask for one extra row - if it comes back, there is a next page
+        PageRequest limit = PageRequest.ofSize(pageSize + 1);
+        List<Store> stores;
+        if (cursor == null || cursor.isBlank()) {
+            stores = storeRepository.findFirstPage(status, storeType, limit);
+        } else {
+            StoreCursor after = StoreCursor.decode(cursor);
+            stores = storeRepository.findPageAfter(status, storeType, after.getCreatedAt(), after.getId(), limit);
+        }
 
-        // Get all stores from database
-        List<Store> stores = storeRepository.findAll();
+        boolean hasMore = stores.size() > pageSize;
+        if (hasMore) {
+            stores = stores.subList(0, pageSize);
+        }
 
-        // Convert each Store to StoreDto
-        // .stream() lets us process the list
-        // .map() transforms each Store to StoreDto using the mapper
-        // .collect() gathers them back into a list
-        return stores.stream()
+        List<StoreDto> items = stores.stream()
                 .map(StoreMapper::toDto)
                 .collect(Collectors.toList());
+
+        String nextCursor = null;
+        if (hasMore) {
+            Store last = stores.get(stores.size() - 1);
+            nextCursor = new StoreCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPage<>(items, nextCursor, items.size());
+    }
+
+    // ============================================
+    // SEARCH STORES (TYPE-AHEAD)
+    // ============================================
+    // Every word in the query must be the start of a word in the store's brand, type
+    // or address - "shop acc" finds "Shoprite Accra Mall". Answered from memory
+    // (StoreSearchIndex), never from the database. Results are ordered by brand.
+    public CursorPage<StoreSearchHit> searchStores(String query, String cursor, Integer size) throws UserException {
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        return searchIndex.search(query, cursor, pageSize);
+    }
+
+    // ============================================
+    // STORE COUNTS
+    // ============================================
+    // Totals by status and by type, straight from the in-memory counters (no query)
+    public StoreStats getStoreStats() {
+        return statistics.snapshot();
     }
 
     // ============================================
@@ -93,35 +211,82 @@ public class StoreService {
     // Find a specific store by its unique ID
     public StoreDto getStoreById(UUID id) throws UserException {
 
-        // Find store by ID
-        // Returns Optional<Store> - a "box" that might be empty
-        Optional<Store> storeOptional = storeRepository.findById(id);
+        // Terminals ask for the same store over and over - answer from the cache if we can.
+        // Otherwise find the store by ID (with its admin, in one query) and convert it to a DTO;
+        // the cache loads it itself, so a write's eviction can't be undone by this read
+        StoreDto dto = storeCache.get(id, key -> storeRepository.findWithAdminById(key)
+                .map(StoreMapper::toDto)
+                .orElse(null));
 
         // Check if store exists
-        if (!storeOptional.isPresent()) {
+        if (dto == null) {
             throw new UserException("Store not found!");
         }
+        return dto;
+    }
 
-        // Get the store from the Optional box
-        Store store = storeOptional.get();
+    // ============================================
+    // GET MANY STORES BY ID
+    // ============================================
+    // Back-office screens need dozens of stores at once. Cached stores are answered from
+    // memory; the rest come from one "WHERE id IN (...)" query per chunk (admins included).
+    // Ids that don't exist are reported in "missing" instead of failing the whole request.
+    public BatchLookupResult<StoreDto> getStoresByIds(List<UUID> ids) throws UserException {
+
+        List<UUID> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        if (distinctIds.size() > MAX_BATCH_IDS) {
+            throw new UserException("At most " + MAX_BATCH_IDS + " ids per request");
+        }
+
+        // Step 1: Whatever the cache already has
+        Map<UUID, StoreDto> loaded = new HashMap<>();
+        List<UUID> toLoad = new ArrayList<>();
+        long generation = storeCache.generation();
+        for (UUID id : distinctIds) {
+            StoreDto cached = storeCache.getIfPresent(id);
+            if (cached != null) {
+                loaded.put(id, cached);
+            } else {
+                toLoad.add(id);
+            }
+        }
+
+        // Step 2: The rest from the database, one IN query per chunk
+        // (cached only if no store was evicted meanwhile - see StoreCache)
+        for (List<UUID> chunk : chunks(toLoad)) {
+            for (Store store : storeRepository.findWithAdminByIdIn(chunk)) {
+                StoreDto dto = StoreMapper.toDto(store);
+                storeCache.putIfNotInvalidatedSince(dto, generation);
+                loaded.put(dto.getId(), dto);
+            }
+        }
 
-        // Convert to DTO and return
-        return StoreMapper.toDto(store);
+        // Step 3: Answer in the order the ids were asked for
+        Map<UUID, StoreDto> found = new LinkedHashMap<>();
+        List<UUID> missing = new ArrayList<>();
+        for (UUID id : distinctIds) {
+            StoreDto dto = loaded.get(id);
+            if (dto != null) {
+                found.put(id, dto);
+            } else {
+                missing.add(id);
+            }
+        }
+        return new BatchLookupResult<>(found, missing);
     }
 
     // ============================================
-    // GET STORES BY STATUS
+    // GET STORE VERSION
     // ============================================
-    // Find all stores with a specific status (ACTIVE, PENDING, BLOCKED)
-    public List<StoreDto> getStoresByStatus(StoreStatus status) {
-
-        // Find all stores with this status
-        List<Store> stores = storeRepository.findByStatus(status);
+    // Just the row version (a single-column query) - lets the controller answer
+    // "has this store changed?" (If-None-Match) without loading or mapping it
+    public Optional<Long> getStoreVersion(UUID id) {
+        return storeRepository.findVersionById(id);
+    }
 
-        // Convert each Store to StoreDto and return
-        return stores.stream()
-                .map(StoreMapper::toDto)
-                .collect(Collectors.toList());
+    // The store's version together with its admin's - what the store ETag is built from
+    public Optional<StoreVersions> getStoreVersions(UUID id) {
+        return storeRepository.findVersionsById(id);
     }
 
     // ============================================
@@ -138,6 +303,9 @@ public class StoreService {
         }
 
         Store existingStore = existingStoreOptional.get();
+        StoreStatus oldStatus = existingStore.getStatus();
+        String oldStoreType = existingStore.getStoreType();
+        String oldBrand = existingStore.getBrand();
 
         // Step 2: Update fields
         // We update only the fields that can be changed
@@ -148,27 +316,156 @@ public class StoreService {
         existingStore.setContact(storeDto.getContact());
 
         // Step 3: Save updated store
-        // This updates the row in the database
-        Store updatedStore = storeRepository.save(existingStore);
+        // This updates the row in the database (renaming onto a taken brand hits the unique constraint)
+        Store updatedStore;
+        statistics.writeStarted();
+        try {
+            try {
+                updatedStore = storeRepository.save(existingStore);
+            } catch (DataIntegrityViolationException e) {
+                // Only call it a brand clash if another store really has that brand
+                if (!storeDto.getBrand().equals(oldBrand) && storeRepository.existsByBrand(storeDto.getBrand())) {
+                    throw new UserException("Store brand already exists!");
+                }
+                throw e;
+            }
+            statistics.changed(oldStatus, oldStoreType, updatedStore.getStatus(), updatedStore.getStoreType());
+        } finally {
+            statistics.writeFinished();
+        }
+        uniqueKeyFilter.addBrand(updatedStore.getBrand());
+        storeCache.invalidate(id);
+        searchIndex.put(updatedStore);
 
         // Step 4: Convert to DTO and return
         return StoreMapper.toDto(updatedStore);
     }
 
+    // ============================================
+    // PATCH STORE (PARTIAL UPDATE)
+    // ============================================
+    // Change only the fields the client sent. Store has @DynamicUpdate, so the UPDATE
+    // lists just the changed columns - two admins editing different fields don't touch
+    // each other's columns. expectedVersion is the version the client last saw: if the
+    // store changed since (or changes while we save), we answer 409 instead of silently
+    // overwriting someone else's edit. No row locks are held.
+    // A brand that another store already has is a UserException, like in updateStore.
+    public StoreDto patchStore(UUID id, StorePatchRequest patch, long expectedVersion) throws UserException {
+
+        // Step 1: Find existing store
+        Optional<Store> existingStoreOptional = storeRepository.findById(id);
+        if (!existingStoreOptional.isPresent()) {
+            throw new UserException("Store not found!");
+        }
+        Store store = existingStoreOptional.get();
+        if (store.getVersion() != expectedVersion) {
+            throw conflict();
+        }
+        StoreStatus oldStatus = store.getStatus();
+        String oldStoreType = store.getStoreType();
+        String oldBrand = store.getBrand();
+
+        // Step 2: Copy over only what was sent
+        if (patch.getBrand() != null) {
+            store.setBrand(patch.getBrand());
+        }
+        if (patch.getDescription() != null) {
+            store.setDescription(patch.getDescription());
+        }
+        if (patch.getStoreType() != null) {
+            store.setStoreType(patch.getStoreType());
+        }
+        if (patch.getStatus() != null) {
+            store.setStatus(patch.getStatus());
+        }
+        if (patch.getAddress() != null || patch.getPhone() != null || patch.getEmail() != null) {
+            if (store.getContact() == null) {
+                store.setContact(new StoreContact());
+            }
+            if (patch.getAddress() != null) {
+                store.getContact().setAddress(patch.getAddress());
+            }
+            if (patch.getPhone() != null) {
+                store.getContact().setPhone(patch.getPhone());
+            }
+            if (patch.getEmail() != null) {
+                store.getContact().setEmail(patch.getEmail());
+            }
+        }
+
+        // Step 3: Save - "UPDATE stores SET <changed columns> ... WHERE id = ? AND version = ?"
+        Store updatedStore;
+        statistics.writeStarted();
+        try {
+            try {
+                updatedStore = storeRepository.saveAndFlush(store);
+            } catch (ObjectOptimisticLockingFailureException e) {
+                throw conflict();
+            } catch (DataIntegrityViolationException e) {
+                // Only call it a brand clash if another store really has that brand
+                if (patch.getBrand() != null && !patch.getBrand().equals(oldBrand)
+                        && storeRepository.existsByBrand(patch.getBrand())) {
+                    throw new UserException("Store brand already exists!");
+                }
+                throw e;
+            }
+            statistics.changed(oldStatus, oldStoreType, updatedStore.getStatus(), updatedStore.getStoreType());
+        } finally {
+            statistics.writeFinished();
+        }
+        uniqueKeyFilter.addBrand(updatedStore.getBrand());
+        storeCache.invalidate(id);
+        searchIndex.put(updatedStore);
+
+        return StoreMapper.toDto(updatedStore);
+    }
+
+    private static ResponseStatusException storeHasOrders() {
+        return new ResponseStatusException(HttpStatus.CONFLICT,
+                "Store has orders and cannot be deleted - block it instead");
+    }
+
+    private static ResponseStatusException conflict() {
+        return new ResponseStatusException(HttpStatus.CONFLICT,
+                "Store was changed by someone else - reload it and try again");
+    }
+
     // ============================================
     // DELETE STORE
     // ============================================
     // Delete a store from the system
     public void deleteStore(UUID id) throws UserException {
 
-        // Check if store exists
-        if (!storeRepository.existsById(id)) {
+        // Check if store exists (we need its status and type for the counters)
+        Optional<Store> storeOptional = storeRepository.findById(id);
+        if (!storeOptional.isPresent()) {
             throw new UserException("Store not found!");
         }
+        Store store = storeOptional.get();
+
+        // Orders keep their store (the foreign key is ON DELETE RESTRICT) - block it instead
+        if (orderRepository.existsByStoreId(id)) {
+            throw storeHasOrders();
+        }
 
         // Delete the store
         // This removes the row from the database
-        storeRepository.deleteById(id);
+        statistics.writeStarted();
+        try {
+            storeRepository.delete(store);
+            statistics.deleted(store.getStatus(), store.getStoreType());
+        } catch (DataIntegrityViolationException e) {
+            // A sale went through between the check and the delete
+            if (orderRepository.existsByStoreId(id)) {
+                throw storeHasOrders();
+            }
+            throw e;
+        } finally {
+            statistics.writeFinished();
+        }
+        storeCache.invalidate(id);
+        searchIndex.remove(id);
+        catalogSnapshots.invalidate(id);  // its products went with it
     }
 
     // ============================================
@@ -185,12 +482,102 @@ public class StoreService {
         }
 
         Store store = storeOptional.get();
+        StoreStatus oldStatus = store.getStatus();
 
         // Update the status
         store.setStatus(newStatus);
 
         // Save and return
-        Store updatedStore = storeRepository.save(store);
+        Store updatedStore;
+        statistics.writeStarted();
+        try {
+            updatedStore = storeRepository.save(store);
+            statistics.changed(oldStatus, updatedStore.getStoreType(), newStatus, updatedStore.getStoreType());
+        } finally {
+            statistics.writeFinished();
+        }
+        storeCache.invalidate(id);
+        searchIndex.put(updatedStore);
         return StoreMapper.toDto(updatedStore);
     }
+
+    // ============================================
+    // CHANGE STATUS OF MANY STORES
+    // ============================================
+    // Suspending a region means changing thousands of stores at once. Instead of a
+    // findById + save + toDto per store, we read only the matching ids, then run one
+    // UPDATE ... WHERE id IN (...) per chunk of 1000. Each chunk commits on its own
+    // (short locks), and its ids are evicted from the cache right after.
+    // A set-based UPDATE skips the JPA listeners, so the chunk's change-log entries
+    // are written here, in the same transaction - one per store that actually changed
+    // (the rows are locked first, so those are exactly the ones the UPDATE touches).
+    // Their old status is read with the lock, so the store counters move exactly too.
+    public BulkStoreStatusResult changeStoreStatuses(BulkStoreStatusRequest request) throws UserException {
+
+        List<UUID> requestedIds = request.getIds();
+        boolean byIds = requestedIds != null && !requestedIds.isEmpty();
+
+        // Never turn an empty request into "every store in the system"
+        if (!byIds && request.getStoreType() == null && request.getCurrentStatus() == null) {
+            throw new UserException("Give store ids, a storeType or a currentStatus");
+        }
+
+        // Step 1: Find the stores to change (id column only)
+        List<UUID> matchedIds;
+        List<UUID> notFound = new ArrayList<>();
+        if (byIds) {
+            List<UUID> distinctIds = new ArrayList<>(new LinkedHashSet<>(requestedIds));
+            matchedIds = new ArrayList<>(distinctIds.size());
+            for (List<UUID> chunk : chunks(distinctIds)) {
+                List<UUID> found = storeRepository.findIdsIn(chunk, request.getCurrentStatus(), request.getStoreType());
+                matchedIds.addAll(found);
+                if (found.size() < chunk.size()) {
+                    Set<UUID> foundSet = new HashSet<>(found);
+                    chunk.stream().filter(id -> !foundSet.contains(id)).forEach(notFound::add);
+                }
+            }
+        } else {
+            matchedIds = storeRepository.findIds(request.getCurrentStatus(), request.getStoreType());
+        }
+
+        // Step 2: One set-based UPDATE per chunk
+        LocalDateTime now = LocalDateTime.now();
+        int updated = 0;
+        statistics.writeStarted();
+        try {
+            for (List<UUID> chunk : chunks(matchedIds)) {
+                List<Object[]> changed = transactionTemplate.execute(status -> {
+                    List<Object[]> changing = storeRepository.lockNotInStatus(chunk, request.getTargetStatus());
+                    if (changing.isEmpty()) {
+                        return changing;
+                    }
+                    List<UUID> changingIds = changing.stream().map(row -> (UUID) row[0]).toList();
+                    storeRepository.updateStatus(changingIds, request.getTargetStatus(), now);
+                    // Last statement of the transaction: the log ids are taken as late as possible
+                    changeLog.insertAll(SyncEntity.STORE, changingIds, null, ChangeOperation.UPDATED);
+                    return changing;
+                });
+                // Committed: move the counters by exactly the stores that changed
+                for (Object[] row : changed) {
+                    statistics.changed((StoreStatus) row[1], (String) row[2], request.getTargetStatus(), (String) row[2]);
+                }
+                updated += changed.size();
+                storeCache.invalidateAll(chunk);
+                searchIndex.updateStatus(chunk, request.getTargetStatus());
+            }
+        } finally {
+            statistics.writeFinished();
+        }
+
+        return new BulkStoreStatusResult(matchedIds.size(), updated, matchedIds.size() - updated, notFound);
+    }
+
+    // Split a list into consecutive pieces of at most BULK_CHUNK_SIZE
+    private static List<List<UUID>> chunks(List<UUID> ids) {
+        List<List<UUID>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += BULK_CHUNK_SIZE) {
+            chunks.add(ids.subList(from, Math.min(from + BULK_CHUNK_SIZE, ids.size())));
+        }
+        return chunks;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,197 @@
+package com.example.pos.service;
+
+import com.example.pos.domain.StoreStatus;
+import com.example.pos.payload.response.StoreStats;
+import com.example.pos.repo.StoreRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Live store counts by status and by storeType, so dashboards don't have to pull every store
+// and count client-side. Seeded from two GROUP BY queries at startup, then moved up and down
+// by StoreService after each committed write (bulk changes included). A periodic
+// reconciliation re-reads the real counts and fixes any drift (writes from other nodes,
+// a crash mid-update).
+// The status counts are also published as the gauge "stores.count" tagged by status.
+@Component
+public class StoreStatistics {
+
+    private static final Logger log = LoggerFactory.getLogger(StoreStatistics.class);
+
+    private final StoreRepository storeRepository;
+
+    private final Map<StoreStatus, AtomicLong> byStatus = new EnumMap<>(StoreStatus.class);
+    private final Map<String, AtomicLong> byStoreType = new ConcurrentHashMap<>();
+
+    // Bumped by every change; reconciliation only overwrites the counters if none happened meanwhile
+    private final AtomicLong changes = new AtomicLong();
+
+    // Writes between writeStarted() and writeFinished(). Such a write may already be in the
+    // database but not yet in the counters, so a count taken meanwhile would add it twice.
+    // Guarded by "this", which also keeps new writes from starting while counters are overwritten.
+    private int writesInFlight;
+
+    public StoreStatistics(StoreRepository storeRepository, MeterRegistry meterRegistry) {
+        this.storeRepository = storeRepository;
+        for (StoreStatus status : StoreStatus.values()) {
+            AtomicLong counter = new AtomicLong();
+            byStatus.put(status, counter);
+            Gauge.builder("stores.count", counter, AtomicLong::get)
+                    .tag("status", status.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    // ============================================
+    // SEED AND RECONCILIATION
+    // ============================================
+    // The first count must not be skipped like a reconcile can be (the counters would sit at
+    // zero until the next run): wait for running writes to finish, and keep new ones from
+    // starting (writeStarted() needs the lock) until the counts are in.
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void seed() {
+        try {
+            while (writesInFlight > 0) {
+                wait();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        overwrite(storeRepository.countByStatus(), storeRepository.countByStoreType());
+    }
+
+    // Best effort: skipped while writes are running, the next run catches up
+    @Scheduled(fixedDelayString = "${pos.stores.stats.reconcile-millis:300000}",
+            initialDelayString = "${pos.stores.stats.reconcile-millis:300000}")
+    public void reconcile() {
+        long before;
+        synchronized (this) {
+            if (writesInFlight > 0) {
+                return;  // a store is being written - try again next time
+            }
+            before = changes.get();
+        }
+        List<Object[]> statusCounts = storeRepository.countByStatus();
+        List<Object[]> typeCounts = storeRepository.countByStoreType();
+        synchronized (this) {
+            // Any write since "before" may or may not be in the counts - try again next time
+            if (writesInFlight > 0 || changes.get() != before) {
+                return;
+            }
+            overwrite(statusCounts, typeCounts);
+        }
+    }
+
+    private void overwrite(List<Object[]> statusCounts, List<Object[]> typeCounts) {
+        Map<StoreStatus, Long> actualStatus = new EnumMap<>(StoreStatus.class);
+        for (Object[] row : statusCounts) {
+            actualStatus.put((StoreStatus) row[0], (Long) row[1]);
+        }
+        Map<String, Long> actualType = new HashMap<>();
+        for (Object[] row : typeCounts) {
+            if (row[0] != null) {
+                actualType.put((String) row[0], (Long) row[1]);
+            }
+        }
+
+        long drift = 0;
+        for (StoreStatus status : StoreStatus.values()) {
+            long actual = actualStatus.getOrDefault(status, 0L);
+            drift += Math.abs(byStatus.get(status).getAndSet(actual) - actual);
+        }
+        for (Map.Entry<String, AtomicLong> entry : byStoreType.entrySet()) {
+            if (!actualType.containsKey(entry.getKey())) {
+                drift += Math.abs(entry.getValue().getAndSet(0));
+            }
+        }
+        for (Map.Entry<String, Long> entry : actualType.entrySet()) {
+            drift += Math.abs(counter(entry.getKey()).getAndSet(entry.getValue()) - entry.getValue());
+        }
+        if (drift != 0) {
+            log.info("Store counters reconciled, corrected a drift of {}", drift);
+        }
+    }
+
+    // ============================================
+    // UPDATES (called by StoreService after the write)
+    // ============================================
+    // StoreService calls writeStarted() before touching the stores table and writeFinished()
+    // (in a finally) once the counters have been moved, so reconcile() never overlaps a write.
+
+    public synchronized void writeStarted() {
+        writesInFlight++;
+        changes.incrementAndGet();
+    }
+
+    public synchronized void writeFinished() {
+        writesInFlight--;
+        changes.incrementAndGet();
+        notifyAll();  // seed() may be waiting
+    }
+
+    public void created(StoreStatus status, String storeType) {
+        add(status, storeType, 1);
+    }
+
+    public void deleted(StoreStatus status, String storeType) {
+        add(status, storeType, -1);
+    }
+
+    public void changed(StoreStatus oldStatus, String oldStoreType, StoreStatus newStatus, String newStoreType) {
+        if (oldStatus == newStatus && Objects.equals(oldStoreType, newStoreType)) {
+            return;
+        }
+        add(oldStatus, oldStoreType, -1);
+        add(newStatus, newStoreType, 1);
+    }
+
+    private void add(StoreStatus status, String storeType, long delta) {
+        changes.incrementAndGet();
+        if (status != null) {
+            byStatus.get(status).addAndGet(delta);
+        }
+        if (storeType != null) {
+            counter(storeType).addAndGet(delta);
+        }
+    }
+
+    private AtomicLong counter(String storeType) {
+        return byStoreType.computeIfAbsent(storeType, t -> new AtomicLong());
+    }
+
+    // ============================================
+    // READ
+    // ============================================
+    public StoreStats snapshot() {
+        Map<StoreStatus, Long> statuses = new EnumMap<>(StoreStatus.class);
+        long total = 0;
+        for (Map.Entry<StoreStatus, AtomicLong> entry : byStatus.entrySet()) {
+            long count = entry.getValue().get();
+            statuses.put(entry.getKey(), count);
+            total += count;
+        }
+        Map<String, Long> types = new TreeMap<>();
+        for (Map.Entry<String, AtomicLong> entry : byStoreType.entrySet()) {
+            long count = entry.getValue().get();
+            if (count != 0) {
+                types.put(entry.getKey(), count);
+            }
+        }
+        return new StoreStats(total, statuses, types);
+    }
+}
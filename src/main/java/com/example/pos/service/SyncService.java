@@ -0,0 +1,182 @@
+package com.example.pos.service;
+
+import com.example.pos.domain.ChangeOperation;
+import com.example.pos.domain.SyncEntity;
+import com.example.pos.exceptions.UserException;
+import com.example.pos.mapper.ProductMapper;
+import com.example.pos.mapper.StoreMapper;
+import com.example.pos.mapper.UserMapper;
+import com.example.pos.model.ChangeLogEntry;
+import com.example.pos.payload.response.SyncChange;
+import com.example.pos.payload.response.SyncPage;
+import com.example.pos.repo.ChangeLogJdbcRepository;
+import com.example.pos.repo.ChangeLogRepository;
+import com.example.pos.repo.ProductRepository;
+import com.example.pos.repo.StoreRepository;
+import com.example.pos.repo.UserRepository;
+import com.example.pos.utils.InFlightWrites;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Delta sync for offline terminals: instead of re-downloading every store, user and product
+// after a reconnect, a terminal asks for the change-log entries after its cursor and gets
+// only what changed - with the current data, or a tombstone for deletes.
+//
+// Committed head: log ids are handed out when a row is inserted, but transactions commit in
+// their own order, so id 105 can become visible before 104. Entries are only served up to an
+// id whose writers have all finished (InFlightWrites, kept by ChangeLogJdbcRepository), so a
+// terminal that already moved its cursor past 104 can't miss it.
+//
+// Retention: entries older than retention-days are purged. A terminal whose cursor is below
+// the purged entries gets 410 GONE and downloads everything again.
+// Like the other in-memory helpers here, this assumes one application instance per database.
+@Service
+public class SyncService {
+
+    private static final Logger log = LoggerFactory.getLogger(SyncService.class);
+
+    public static final int DEFAULT_LIMIT = 500;
+    public static final int MAX_LIMIT = 1000;
+
+    private final ChangeLogRepository changeLogRepository;
+    private final ChangeLogJdbcRepository changeLogJdbcRepository;
+    private final StoreRepository storeRepository;
+    private final UserRepository userRepository;
+    private final ProductRepository productRepository;
+    private final int retentionDays;
+
+    // How far the log can be served without skipping an entry that may still commit
+    private final InFlightWrites.Watermark committedHead;
+    // Entries up to this id may have been purged. Not simply "below the oldest entry": a rolled
+    // back insert also leaves a gap in the ids.
+    private volatile long purgedUpTo;
+
+    public SyncService(ChangeLogRepository changeLogRepository,
+                       ChangeLogJdbcRepository changeLogJdbcRepository,
+                       StoreRepository storeRepository,
+                       UserRepository userRepository,
+                       ProductRepository productRepository,
+                       @Value("${pos.sync.retention-days:30}") int retentionDays) {
+        this.changeLogRepository = changeLogRepository;
+        this.changeLogJdbcRepository = changeLogJdbcRepository;
+        this.committedHead = changeLogJdbcRepository.writes().watermark();
+        this.storeRepository = storeRepository;
+        this.userRepository = userRepository;
+        this.productRepository = productRepository;
+        this.retentionDays = retentionDays;
+    }
+
+    // ============================================
+    // CHANGES AFTER A CURSOR
+    // ============================================
+    // cursor null: no changes, just the cursor to start from (a terminal that is about to
+    // download everything takes this first, then syncs from it)
+    // storeId: only that store's entries (and users, which belong to no store)
+    public SyncPage getChanges(Long cursor, UUID storeId, Integer limit) throws UserException {
+        long head = committedHead.advance(changeLogRepository::findLastId);
+        if (cursor == null) {
+            return new SyncPage(List.of(), head, false);
+        }
+        if (cursor < 0) {
+            throw new UserException("cursor cannot be negative!");
+        }
+        if (cursor < purgedUpTo) {
+            throw new ResponseStatusException(HttpStatus.GONE,
+                    "Changes after this cursor have been purged, download everything again");
+        }
+
+        // Step 1: Read one more entry than asked, to know if there is another page
+        int pageSize = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+        PageRequest page = PageRequest.ofSize(pageSize + 1);
+        List<ChangeLogEntry> entries = storeId == null
+                ? changeLogRepository.findBetween(cursor, head, page)
+                : changeLogRepository.findBetweenForStore(cursor, head, storeId, page);
+        boolean hasMore = entries.size() > pageSize;
+        if (hasMore) {
+            entries = entries.subList(0, pageSize);
+        }
+        long nextCursor = entries.isEmpty() ? cursor : entries.get(entries.size() - 1).getId();
+
+        // Step 2: An entity changed several times in this page is sent once, with its latest change
+        Map<String, ChangeLogEntry> latest = new LinkedHashMap<>();
+        for (ChangeLogEntry entry : entries) {
+            String key = entry.getEntityType() + ":" + entry.getEntityId();
+            latest.remove(key);
+            latest.put(key, entry);
+        }
+
+        // Step 3: Load the current data of everything not deleted - one query per entity type
+        Map<SyncEntity, List<UUID>> wanted = new HashMap<>();
+        for (ChangeLogEntry entry : latest.values()) {
+            if (entry.getOperation() != ChangeOperation.DELETED) {
+                wanted.computeIfAbsent(entry.getEntityType(), type -> new ArrayList<>()).add(entry.getEntityId());
+            }
+        }
+        Map<UUID, Object> data = new HashMap<>();
+        if (wanted.containsKey(SyncEntity.STORE)) {
+            storeRepository.findWithAdminByIdIn(wanted.get(SyncEntity.STORE))
+                    .forEach(store -> data.put(store.getId(), StoreMapper.toDto(store)));
+        }
+        if (wanted.containsKey(SyncEntity.USER)) {
+            userRepository.findAllById(wanted.get(SyncEntity.USER))
+                    .forEach(user -> data.put(user.getId(), UserMapper.toDto(user)));
+        }
+        if (wanted.containsKey(SyncEntity.PRODUCT)) {
+            productRepository.findAllById(wanted.get(SyncEntity.PRODUCT))
+                    .forEach(product -> data.put(product.getId(), ProductMapper.toDto(product)));
+        }
+
+        // Step 4: Build the page; something deleted since its entry was written goes out as a tombstone
+        List<SyncChange> changes = new ArrayList<>(latest.size());
+        for (ChangeLogEntry entry : latest.values()) {
+            Object current = data.get(entry.getEntityId());
+            ChangeOperation operation = current == null ? ChangeOperation.DELETED : entry.getOperation();
+            changes.add(new SyncChange(entry.getId(), entry.getEntityType(), entry.getEntityId(), operation, current));
+        }
+        return new SyncPage(changes, nextCursor, hasMore);
+    }
+
+    // ============================================
+    // RETENTION
+    // ============================================
+    // After a restart, assume everything before the oldest entry kept has been purged
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadPurgedUpTo() {
+        Long firstId = changeLogRepository.findFirstId();
+        if (firstId != null) {
+            purgedUpTo = Math.max(purgedUpTo, firstId - 1);
+        }
+    }
+
+    // Deletes entries older than retention-days. The newest entry is always kept, so the
+    // head (and loadPurgedUpTo after a restart) survive a quiet period.
+    @Scheduled(fixedDelayString = "${pos.sync.retention.purge-interval-millis:3600000}")
+    public int purgeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        long upTo = Math.min(changeLogRepository.findLastIdBefore(cutoff), changeLogRepository.findLastId() - 1);
+        Long firstId = changeLogRepository.findFirstId();
+        if (firstId == null || upTo < firstId) {
+            return 0;
+        }
+        purgedUpTo = Math.max(purgedUpTo, upTo);
+        int deleted = changeLogJdbcRepository.deleteBetween(firstId - 1, upTo);
+        log.debug("Change log purged up to entry {} ({} entries)", upTo, deleted);
+        return deleted;
+    }
+}
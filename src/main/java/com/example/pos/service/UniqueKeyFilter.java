@@ -0,0 +1,124 @@
+package com.example.pos.service;
+
+import com.example.pos.repo.StoreRepository;
+import com.example.pos.repo.UserRepository;
+import com.example.pos.utils.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+// In-memory pre-check for "is this email / store brand already taken?"
+// Most signups and new stores use a value nobody has, and for those the Bloom filter
+// answers "definitely not taken" without a query. A "maybe" still goes to the database,
+// and the unique constraints on users.email and stores.brand stay the final word
+// (so a value we missed - e.g. one added by another node - is still rejected on insert).
+//
+// Values are lower-cased: MySQL's default collation compares them case-insensitively.
+@Component
+public class UniqueKeyFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(UniqueKeyFilter.class);
+
+    private final UserRepository userRepository;
+    private final StoreRepository storeRepository;
+    private final double falsePositiveRate;
+
+    // null until the first build finishes - until then every check says "maybe"
+    private volatile BloomFilter emails;
+    private volatile BloomFilter brands;
+    private final AtomicLong emailsAdded = new AtomicLong();
+    private final AtomicLong brandsAdded = new AtomicLong();
+
+    private final Counter skipped;
+    private final Counter checked;
+
+    public UniqueKeyFilter(UserRepository userRepository,
+                           StoreRepository storeRepository,
+                           MeterRegistry meterRegistry,
+                           @Value("${pos.unique-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.userRepository = userRepository;
+        this.storeRepository = storeRepository;
+        this.falsePositiveRate = falsePositiveRate;
+        this.skipped = meterRegistry.counter("unique.filter.checks", "result", "definitely-new");
+        this.checked = meterRegistry.counter("unique.filter.checks", "result", "maybe-taken");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<String> allEmails = userRepository.findAllEmails();
+        List<String> allBrands = storeRepository.findAllBrands();
+
+        emails = build(allEmails);
+        brands = build(allBrands);
+        emailsAdded.set(allEmails.size());
+        brandsAdded.set(allBrands.size());
+        log.info("Unique key filters built for {} emails and {} store brands", allEmails.size(), allBrands.size());
+    }
+
+    // The filters are sized at twice the current row count; rebuild once they fill up
+    @Scheduled(fixedDelayString = "${pos.unique-filter.resize-check-millis:600000}")
+    public void rebuildIfFull() {
+        BloomFilter currentEmails = emails;
+        BloomFilter currentBrands = brands;
+        if ((currentEmails != null && emailsAdded.get() > currentEmails.getExpectedInsertions())
+                || (currentBrands != null && brandsAdded.get() > currentBrands.getExpectedInsertions())) {
+            rebuild();
+        }
+    }
+
+    public boolean mightContainEmail(String email) {
+        return mightContain(emails, email);
+    }
+
+    public void addEmail(String email) {
+        add(emails, email, emailsAdded);
+    }
+
+    public boolean mightContainBrand(String brand) {
+        return mightContain(brands, brand);
+    }
+
+    public void addBrand(String brand) {
+        add(brands, brand, brandsAdded);
+    }
+
+    private boolean mightContain(BloomFilter filter, String value) {
+        if (filter == null || value == null) {
+            return true;
+        }
+        boolean maybe = filter.mightContain(normalize(value));
+        (maybe ? checked : skipped).increment();
+        return maybe;
+    }
+
+    private void add(BloomFilter filter, String value, AtomicLong added) {
+        if (filter != null && value != null) {
+            filter.put(normalize(value));
+            added.incrementAndGet();
+        }
+    }
+
+    private BloomFilter build(List<String> values) {
+        BloomFilter filter = new BloomFilter(Math.max(values.size() * 2L, 10_000), falsePositiveRate);
+        for (String value : values) {
+            if (value != null) {
+                filter.put(normalize(value));
+            }
+        }
+        return filter;
+    }
+
+    private static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.pos.service;
+
+import com.example.pos.exceptions.UserException;
+import com.example.pos.payload.response.UserImportReport;
+
+import java.io.InputStream;
+
+public interface UserImportService {
+
+    enum Format { CSV, NDJSON }
+
+    UserImportReport importUsers(InputStream input, Format format) throws UserException;
+}
@@ -1,15 +1,21 @@
 package com.example.pos.service;
 
+import com.example.pos.configuration.AuthenticatedUser;
 import com.example.pos.exceptions.UserException;
 import com.example.pos.model.User;
+import com.example.pos.payload.response.BatchLookupResult;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface UserService {
     User getUserFromJwtToken(String token) throws UserException;
+    User getUser(AuthenticatedUser principal) throws UserException;
     User getCurrentUser() throws UserException;
     User getUserByEmail(String email) throws UserException;
     User getUserById(UUID id) throws UserException;
+    Optional<Long> getUserVersion(UUID id);
+    BatchLookupResult<User> getUsersByIds(List<UUID> ids) throws UserException;
     List<User> getAllUsers();
 }
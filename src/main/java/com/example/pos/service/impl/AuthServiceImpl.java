@@ -1,26 +1,27 @@
 package com.example.pos.service.impl;
 
+import com.example.pos.configuration.AuthenticatedUser;
 import com.example.pos.configuration.JwtProvider;
+import com.example.pos.configuration.TokenRevocationList;
 import com.example.pos.domain.UserRole;
 import com.example.pos.exceptions.UserException;
 import com.example.pos.mapper.UserMapper;
 import com.example.pos.model.User;
 import com.example.pos.payload.dto.UserDto;
 import com.example.pos.payload.response.AuthResponse;
+import com.example.pos.repo.UserCredentials;
 import com.example.pos.repo.UserRepository;
 import com.example.pos.service.AuthService;
+import com.example.pos.service.UniqueKeyFilter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
-import java.util.Collection;
-import java.util.Optional;  // IMPORTANT: Import this! It's like a "safe box" for values that might not exist
 
 // @Service tells Spring: "Hey, this is a service class! Create one instance and manage it for me"
 @Service
@@ -28,19 +29,32 @@ public class AuthServiceImpl implements AuthService {
 
     // These are the "tools" this service needs to do its job
     private final UserRepository userRepository;      // Talks to the database
-    private final PasswordEncoder passwordEncoder;    // Encrypts passwords (security!)
     private final JwtProvider jwtProvider;            // Creates JWT tokens (like a special ID card)
     private final CustomUserImpl customUserImpl;      // Loads user details for authentication
+    private final PasswordHashingService passwordHashingService; // Runs BCrypt off the request threads
+    private final LastLoginRecorder lastLoginRecorder; // Buffers lastLogin writes and flushes them in batches
+    private final UserCredentialsCache userCredentialsCache; // Cached login credentials (see CustomUserImpl)
+    private final UniqueKeyFilter uniqueKeyFilter;    // Fast "is this email taken?" pre-check
+    private final TokenRevocationList tokenRevocationList; // Deny-list of logged-out tokens
 
     // @Autowired means: "Spring, automatically give me these tools when you create this service"
     // This is called "Dependency Injection" - Spring gives us what we need
     @Autowired
-    public AuthServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder,
-                           JwtProvider jwtProvider, CustomUserImpl customUserImpl) {
+    public AuthServiceImpl(UserRepository userRepository,
+                           JwtProvider jwtProvider, CustomUserImpl customUserImpl,
+                           PasswordHashingService passwordHashingService,
+                           LastLoginRecorder lastLoginRecorder,
+                           UserCredentialsCache userCredentialsCache,
+                           UniqueKeyFilter uniqueKeyFilter,
+                           TokenRevocationList tokenRevocationList) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
         this.jwtProvider = jwtProvider;
         this.customUserImpl = customUserImpl;
+        this.passwordHashingService = passwordHashingService;
+        this.lastLoginRecorder = lastLoginRecorder;
+        this.userCredentialsCache = userCredentialsCache;
+        this.uniqueKeyFilter = uniqueKeyFilter;
+        this.tokenRevocationList = tokenRevocationList;
     }
 
     // ============================================
@@ -50,12 +64,10 @@ public class AuthServiceImpl implements AuthService {
     public AuthResponse signup(UserDto userDto) throws UserException {
 
         // Step 1: Check if email already exists in database
-        // Think of Optional like a "gift box" - it might contain a User, or it might be empty
-        Optional<User> existingUser = userRepository.findByEmail(userDto.getEmail());
-
-        // .isPresent() asks: "Is there something in the box?"
-        // If YES (box has a user) = email already exists!
-        if (existingUser.isPresent()) {
+        // The in-memory filter answers "definitely new" for most emails without a query;
+        // only when it says "maybe" do we ask the database
+        if (uniqueKeyFilter.mightContainEmail(userDto.getEmail())
+                && userRepository.existsByEmail(userDto.getEmail())) {
             // Stop! Throw an error - can't register with duplicate email
             throw new UserException("Email already registered! Please try a different email");
         }
@@ -73,8 +85,9 @@ public class AuthServiceImpl implements AuthService {
         newUser.setEmail(userDto.getEmail());
 
         // IMPORTANT: Never save passwords as plain text!
-        // passwordEncoder.encode() encrypts the password (turns "password123" into gibberish)
-        newUser.setPassword(passwordEncoder.encode(userDto.getPassword()));
+        // passwordHashingService.encode() encrypts the password (turns "password123" into gibberish)
+        // It runs on the hashing pool and answers 503 straight away when that pool is full
+        newUser.setPassword(passwordHashingService.encode(userDto.getPassword()));
 
         newUser.setRole(userDto.getRole());              // CASHIER, MANAGER, etc.
         newUser.setFullname(userDto.getFullname());      // Person's name
@@ -87,7 +100,17 @@ public class AuthServiceImpl implements AuthService {
 
         // Step 4: Save the new user to the database
         // userRepository.save() is like pressing "Save" in a document - it stores it permanently
-        User savedUser = userRepository.save(newUser);
+        // The unique constraint on email catches anyone who registered the same email a moment ago
+        User savedUser;
+        try {
+            savedUser = userRepository.save(newUser);
+        } catch (DataIntegrityViolationException e) {
+            if (userRepository.existsByEmail(userDto.getEmail())) {
+                throw new UserException("Email already registered! Please try a different email");
+            }
+            throw e;
+        }
+        uniqueKeyFilter.addEmail(savedUser.getEmail());
 
         // Step 5: Create authentication (prove who they are)
         // This is like showing your ID card to prove you're you
@@ -100,7 +123,7 @@ public class AuthServiceImpl implements AuthService {
         // Step 6: Generate a JWT token
         // JWT = JSON Web Token (like a special ticket that proves you're logged in)
         // This token will be sent to the frontend and used for future requests
-        String jwt = jwtProvider.generateToken(authentication);
+        String jwt = jwtProvider.generateToken(authentication, savedUser.getId());
 
         // Step 7: Prepare the response to send back to the frontend
         AuthResponse authResponse = new AuthResponse();
@@ -121,76 +144,85 @@ public class AuthServiceImpl implements AuthService {
         String email = userDto.getEmail();
         String password = userDto.getPassword();
 
-        // Step 1: Authenticate - check if email and password are correct
+        // Step 1: Load the user's credentials by email
+        // They usually come from the cache, and they carry everything the response needs,
+        // so a login reads the users table at most once
+        UserCredentials user = customUserImpl.loadCredentials(email);
+
+        // Step 2: Authenticate - check if the password is correct
         // This calls the authenticate() method below (scroll down to see it)
-        Authentication authentication = authenticate(email, password);
+        Authentication authentication = authenticate(user, password);
 
         // Put authentication in SecurityContext (tell Spring this user is now logged in)
         SecurityContextHolder.getContext().setAuthentication(authentication);
 
-        // Get the user's role (ADMIN, CASHIER, etc.)
-        Collection<? extends GrantedAuthority> authorities = authentication.getAuthorities();
-        String role = authorities.iterator().next().getAuthority();
-
-        // Step 2: Generate JWT token (login ticket)
-        String jwt = jwtProvider.generateToken(authentication);
-
-        // Step 3: Update the user's "last login" time in database
-        // First, find the user by email
-        Optional<User> userOptional = userRepository.findByEmail(email);
-
-        // Check: Is there a user in the Optional box?
-        if (!userOptional.isPresent()) {
-            // If box is empty (no user found) = something went wrong!
-            throw new UserException("User not found");
+        // Update last login time to RIGHT NOW
+        // We don't save the user here - the recorder writes lastLogin to the database
+        // in the background, batched with everyone else who logged in meanwhile
+        LocalDateTime loginTime = LocalDateTime.now();
+        UserDto loggedIn = UserMapper.toDto(user, loginTime);
+
+        // If the BCrypt cost was raised since this password was hashed,
+        // re-hash it now while we still have the plain password
+        if (passwordHashingService.needsRehash(user.getPassword())) {
+            String upgradedHash = passwordHashingService.encode(password);
+            userRepository.updatePassword(user.getId(), upgradedHash, loginTime);
+            // JPQL updates skip entity listeners, so drop the cached credentials ourselves
+            userCredentialsCache.invalidate(email);
+            // updatePassword bumped the row's version and updatedAt
+            loggedIn.setVersion(user.getVersion() + 1);
+            loggedIn.setUpdatedAt(loginTime);
         }
 
-        // Get the user out of the Optional box
-        // .get() means "open the box and give me what's inside"
-        User user = userOptional.get();
-
-        // Update last login time to RIGHT NOW
-        user.setLastLogin(LocalDateTime.now());
+        lastLoginRecorder.record(user.getId(), loginTime);
 
-        // Save the updated user back to database
-        userRepository.save(user);
+        // Step 3: Generate JWT token (login ticket)
+        // It carries the user's id, so later requests can skip the email lookup
+        String jwt = jwtProvider.generateToken(authentication, user.getId());
 
         // Step 4: Prepare response to send back
         AuthResponse authResponse = new AuthResponse();
         authResponse.setJwt(jwt);                          // Login token
         authResponse.setMessage("Login Successfully");     // Success message
-        authResponse.setUser(UserMapper.toDto(user));      // User info
+        authResponse.setUser(loggedIn);                    // User info
 
         return authResponse;
     }
 
+    // ============================================
+    // LOGOUT METHOD - Revoke the token used for this request
+    // ============================================
+    // JWTs are valid for 24h; logging out puts this token's id on the deny-list
+    // so JwtValidator rejects it from now on, even after a restart
+    @Override
+    public void logout(AuthenticatedUser principal) throws UserException {
+        if (principal == null || principal.getTokenId() == null) {
+            throw new UserException("This token cannot be revoked");
+        }
+        tokenRevocationList.revoke(principal.getTokenId(), principal.getExpiresAt());
+    }
+
     // ============================================
     // AUTHENTICATE METHOD - Check if email/password are correct
     // ============================================
     // This is a PRIVATE method (only used inside this class)
-    private Authentication authenticate(String email, String password) throws UserException {
+    private Authentication authenticate(UserCredentials user, String password) throws UserException {
 
-        // Step 1: Load the user from database by email
-        // CustomUserImpl.loadUserByUsername() gets user details for Spring Security
-        UserDetails userDetails = customUserImpl.loadUserByUsername(email);
-
-        // Step 2: Check if user exists
-        if (userDetails == null) {
-            // No user found with this email!
-            throw new UserException("Email doesn't exist: " + email);
-        }
+        // Step 1: Turn the credentials into Spring Security's UserDetails
+        // (the credentials were already loaded by login(), so this doesn't touch the database)
+        UserDetails userDetails = customUserImpl.toUserDetails(user);
 
-        // Step 3: Check if password matches
-        // passwordEncoder.matches() compares:
+        // Step 2: Check if password matches
+        // passwordHashingService.matches() runs passwordEncoder.matches() on the hashing pool. It compares:
         // - "password" = what user typed
         // - userDetails.getPassword() = encrypted password from database
         // It decrypts and compares them
-        if (!passwordEncoder.matches(password, userDetails.getPassword())) {
+        if (!passwordHashingService.matches(password, userDetails.getPassword())) {
             // Password is wrong!
             throw new UserException("Password doesn't match");
         }
 
-        // Step 4: Everything is correct! Create and return authentication
+        // Step 3: Everything is correct! Create and return authentication
         // This proves: "Yes, this person is who they say they are!"
         return new UsernamePasswordAuthenticationToken(
                 userDetails,              // The user
@@ -198,4 +230,4 @@ public class AuthServiceImpl implements AuthService {
                 userDetails.getAuthorities()  // Their permissions (roles)
         );
     }
-}
\ No newline at end of file
+}
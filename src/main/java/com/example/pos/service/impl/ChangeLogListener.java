@@ -0,0 +1,53 @@
+package com.example.pos.service.impl;
+
+import com.example.pos.domain.ChangeOperation;
+import com.example.pos.domain.SyncEntity;
+import com.example.pos.model.Product;
+import com.example.pos.model.Store;
+import com.example.pos.model.User;
+import com.example.pos.repo.ChangeLogJdbcRepository;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.stereotype.Component;
+
+// JPA entity listener on Store, User and Product (Spring creates it, so it can have beans injected).
+// Every insert, update and delete that goes through JPA appends a change_log entry, in the same
+// transaction. Post* rather than Pre* callbacks: they run once the statement has actually
+// been executed, so a write that fails never leaves an entry behind.
+// Bulk writes that skip JPA (set-based UPDATEs, JDBC imports) write their entries themselves.
+@Component
+public class ChangeLogListener {
+
+    private final ChangeLogJdbcRepository changeLogJdbcRepository;
+
+    public ChangeLogListener(ChangeLogJdbcRepository changeLogJdbcRepository) {
+        this.changeLogJdbcRepository = changeLogJdbcRepository;
+    }
+
+    @PostPersist
+    public void created(Object entity) {
+        record(entity, ChangeOperation.CREATED);
+    }
+
+    @PostUpdate
+    public void updated(Object entity) {
+        record(entity, ChangeOperation.UPDATED);
+    }
+
+    @PostRemove
+    public void deleted(Object entity) {
+        record(entity, ChangeOperation.DELETED);
+    }
+
+    private void record(Object entity, ChangeOperation operation) {
+        if (entity instanceof Store store) {
+            changeLogJdbcRepository.insert(SyncEntity.STORE, store.getId(), store.getId(), operation);
+        } else if (entity instanceof User user) {
+            changeLogJdbcRepository.insert(SyncEntity.USER, user.getId(), null, operation);
+        } else if (entity instanceof Product product) {
+            // getId() on a lazy proxy doesn't load the store
+            changeLogJdbcRepository.insert(SyncEntity.PRODUCT, product.getId(), product.getStore().getId(), operation);
+        }
+    }
+}
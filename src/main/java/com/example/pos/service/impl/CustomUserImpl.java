@@ -1,7 +1,7 @@
 package com.example.pos.service.impl;
 
+import com.example.pos.repo.UserCredentials;
 import com.example.pos.repo.UserRepository;
-import com.example.pos.model.User;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -22,9 +22,13 @@ public class CustomUserImpl implements UserDetailsService {
     @Autowired
     private UserRepository userRepository;
 
+    // Remembers recently used credentials so repeated logins skip the database
+    private final UserCredentialsCache userCredentialsCache;
+
     // Constructor - Spring gives us the userRepository automatically
-    public CustomUserImpl(UserRepository userRepository) {
+    public CustomUserImpl(UserRepository userRepository, UserCredentialsCache userCredentialsCache) {
         this.userRepository = userRepository;
+        this.userCredentialsCache = userCredentialsCache;
     }
 
     // ============================================
@@ -34,10 +38,22 @@ public class CustomUserImpl implements UserDetailsService {
     // It finds the user and returns their details (email, password, role)
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        return toUserDetails(loadCredentials(username));
+    }
+
+    // ============================================
+    // LOAD CREDENTIALS
+    // ============================================
+    // The cached credentials themselves - AuthServiceImpl.login also builds its response
+    // from them, so a login never loads the full User
+    public UserCredentials loadCredentials(String username) throws UsernameNotFoundException {
 
         // Step 1: Find user by email (username is actually email in our POS system)
-        // Remember: findByEmail returns Optional<User> (a "box" that might be empty)
-        Optional<User> userOptional = userRepository.findByEmail(username);
+        // The cache answers if it can; otherwise findCredentialsByEmail loads just the
+        // columns a login needs (not the whole User)
+        // Remember: it returns Optional (a "box" that might be empty)
+        Optional<UserCredentials> userOptional =
+                userCredentialsCache.get(username, userRepository::findCredentialsByEmail);
 
         // Step 2: Check if user exists
         // .isPresent() asks: "Is there a user in the box?"
@@ -48,7 +64,11 @@ public class CustomUserImpl implements UserDetailsService {
 
         // Step 3: Get the user out of the Optional box
         // .get() means "open the box and give me what's inside"
-        User user = userOptional.get();
+        return userOptional.get();
+    }
+
+    // Spring Security's view of the credentials: email, hash, enabled flag and role
+    public UserDetails toUserDetails(UserCredentials user) {
 
         // Step 4: Create the user's authority (permission/role)
         // GrantedAuthority is Spring Security's way of saying "what can this user do?"
@@ -64,10 +84,12 @@ public class CustomUserImpl implements UserDetailsService {
 
         // Step 6: Return Spring Security's UserDetails object
         // This is what Spring Security uses to check login and permissions
-        // It contains: email, password, and roles
+        // It contains: email, password, whether the account is active, and roles
         return new org.springframework.security.core.userdetails.User(
                 user.getEmail(),      // Username (we use email as username)
                 user.getPassword(),   // Encrypted password
+                user.isActive(),      // Enabled?
+                true, true, true,     // Account not expired, credentials not expired, not locked
                 authorities           // Roles/permissions (CASHIER, ADMIN, etc.)
         );
     }
@@ -0,0 +1,107 @@
+package com.example.pos.service.impl;
+
+import com.example.pos.repo.UserJdbcRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Write-behind buffer for users.last_login.
+// Login only records the timestamp in memory; the buffer is written out as one
+// batched UPDATE when it reaches the batch size, on a timer, and on shutdown.
+// If a user logs in twice before a flush only the latest time is written.
+@Component
+public class LastLoginRecorder {
+
+    private static final Logger log = LoggerFactory.getLogger(LastLoginRecorder.class);
+
+    private final UserJdbcRepository userJdbcRepository;
+    private final int batchSize;
+    private final ConcurrentHashMap<UUID, LocalDateTime> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final ExecutorService flusher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "last-login-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Counter flushed;
+    private final Counter failed;
+
+    public LastLoginRecorder(UserJdbcRepository userJdbcRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${pos.users.last-login.batch-size:500}") int batchSize) {
+        this.userJdbcRepository = userJdbcRepository;
+        this.batchSize = batchSize;
+        meterRegistry.gaugeMapSize("users.last_login.pending", List.of(), pending);
+        this.flushed = meterRegistry.counter("users.last_login.flushed");
+        this.failed = meterRegistry.counter("users.last_login.flush.failures");
+    }
+
+    public void record(UUID userId, LocalDateTime loginTime) {
+        pending.merge(userId, loginTime, (older, newer) -> newer.isAfter(older) ? newer : older);
+
+        // Size trigger - hand the flush to the background thread so login never waits on it
+        if (pending.size() >= batchSize && flushScheduled.compareAndSet(false, true)) {
+            flusher.execute(() -> {
+                flushScheduled.set(false);
+                flush();
+            });
+        }
+    }
+
+    // Time trigger
+    @Scheduled(fixedDelayString = "${pos.users.last-login.flush-interval-millis:5000}")
+    public void scheduledFlush() {
+        flush();
+    }
+
+    public synchronized void flush() {
+        while (!pending.isEmpty()) {
+            Map<UUID, LocalDateTime> batch = drain();
+            try {
+                userJdbcRepository.updateLastLogins(batch);
+                flushed.increment(batch.size());
+            } catch (RuntimeException e) {
+                // Put the timestamps back (unless a newer login already replaced them) and retry next tick
+                failed.increment();
+                batch.forEach((id, time) -> pending.merge(id, time, (current, old) -> current.isAfter(old) ? current : old));
+                log.warn("Could not flush {} last-login timestamps, will retry", batch.size(), e);
+                return;
+            }
+        }
+    }
+
+    private Map<UUID, LocalDateTime> drain() {
+        Map<UUID, LocalDateTime> batch = new HashMap<>();
+        for (UUID id : pending.keySet()) {
+            LocalDateTime time = pending.remove(id);
+            if (time != null) {
+                batch.put(id, time);
+            }
+            if (batch.size() >= batchSize) {
+                break;
+            }
+        }
+        return batch;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdown();
+        flush();
+    }
+}
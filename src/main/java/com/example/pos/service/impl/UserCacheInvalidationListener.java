@@ -0,0 +1,53 @@
+package com.example.pos.service.impl;
+
+import com.example.pos.model.User;
+import com.example.pos.service.StoreCache;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+
+// JPA entity listener on User (Spring creates it, so it can have beans injected).
+// Any insert, update or delete of a user drops that user's cached credentials,
+// and the cached stores that show the user as their admin.
+// Post* callbacks run at flush, before the commit: a login in between still reads the old
+// row and would cache it (old password, role or active flag) for the whole TTL. So the
+// entries are dropped again once the transaction has ended.
+@Component
+public class UserCacheInvalidationListener {
+
+    private final UserCredentialsCache userCredentialsCache;
+    private final StoreCache storeCache;
+
+    public UserCacheInvalidationListener(UserCredentialsCache userCredentialsCache, StoreCache storeCache) {
+        this.userCredentialsCache = userCredentialsCache;
+        this.storeCache = storeCache;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void userChanged(User user) {
+        String email = user.getEmail();
+        UUID id = user.getId();
+        invalidate(email, id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidate(email, id);
+                }
+            });
+        }
+    }
+
+    private void invalidate(String email, UUID id) {
+        userCredentialsCache.invalidate(email);
+        userCredentialsCache.invalidate(id);
+        storeCache.invalidateAdmin(id);
+    }
+}
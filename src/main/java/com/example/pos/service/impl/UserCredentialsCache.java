@@ -0,0 +1,72 @@
+package com.example.pos.service.impl;
+
+import com.example.pos.repo.UserCredentials;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+// Size- and time-bounded cache of login credentials, keyed by email.
+// Entries are dropped whenever the user row changes (UserCacheInvalidationListener)
+// and when the password hash is rewritten outside JPA, so the TTL is only a safety net.
+// A small id -> email index lets invalidate(UUID) find the entry without scanning the cache.
+@Component
+public class UserCredentialsCache {
+
+    private final Cache<String, UserCredentials> cache;
+    private final Map<UUID, String> emailsById = new ConcurrentHashMap<>();
+
+    public UserCredentialsCache(MeterRegistry meterRegistry,
+                                @Value("${pos.cache.user-credentials.max-size:10000}") long maxSize,
+                                @Value("${pos.cache.user-credentials.ttl:10m}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                // Runs inside the eviction itself, so the index never outlives its entry
+                .evictionListener((String email, UserCredentials credentials, RemovalCause cause) -> {
+                    if (credentials != null) {
+                        emailsById.remove(credentials.getId(), email);
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "user.credentials");
+    }
+
+    // Unknown emails are not cached, so a user who signs up right after a failed login is found
+    public Optional<UserCredentials> get(String email, Function<String, Optional<UserCredentials>> loader) {
+        return Optional.ofNullable(cache.get(email, key -> {
+            UserCredentials credentials = loader.apply(key).orElse(null);
+            if (credentials != null) {
+                emailsById.put(credentials.getId(), key);
+            }
+            return credentials;
+        }));
+    }
+
+    public void invalidate(String email) {
+        if (email != null) {
+            UserCredentials removed = cache.asMap().remove(email);
+            if (removed != null) {
+                emailsById.remove(removed.getId(), email);
+            }
+        }
+    }
+
+    // Covers email changes: the entry is still filed under the old address
+    public void invalidate(UUID userId) {
+        if (userId != null) {
+            invalidate(emailsById.get(userId));
+        }
+    }
+}
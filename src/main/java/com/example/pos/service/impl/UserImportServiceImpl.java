@@ -0,0 +1,309 @@
+package com.example.pos.service.impl;
+
+import com.example.pos.domain.ChangeOperation;
+import com.example.pos.domain.SyncEntity;
+import com.example.pos.domain.UserRole;
+import com.example.pos.exceptions.UserException;
+import com.example.pos.model.User;
+import com.example.pos.payload.dto.UserDto;
+import com.example.pos.payload.response.UserImportReport;
+import com.example.pos.repo.ChangeLogJdbcRepository;
+import com.example.pos.repo.UserJdbcRepository;
+import com.example.pos.repo.UserRepository;
+import com.example.pos.service.UniqueKeyFilter;
+import com.example.pos.service.UserImportService;
+import com.example.pos.utils.CsvLines;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Bulk onboarding of staff accounts (CSV or NDJSON, one user per line).
+// The input is read in chunks, so only one chunk is ever held in memory:
+//   validate -> drop emails that already exist (one IN query) -> hash passwords in
+//   parallel -> insert the chunk as one JDBC batch inside a transaction.
+// Hashing uses its own bounded pool so a big import cannot starve logins: by default it
+// gets half the cores (PasswordHashingService's login pool uses all of them), and its
+// queue holds one chunk - beyond that the importing thread hashes the row itself,
+// which slows the import down instead of queueing without limit.
+@Service
+public class UserImportServiceImpl implements UserImportService {
+
+    private static final List<String> CSV_COLUMNS = List.of("fullname", "email", "phone", "role", "password");
+
+    private final UserRepository userRepository;
+    private final UserJdbcRepository userJdbcRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final UniqueKeyFilter uniqueKeyFilter;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ChangeLogJdbcRepository changeLog;
+    private final ExecutorService hashingPool;
+    private final int chunkSize;
+
+    public UserImportServiceImpl(UserRepository userRepository,
+                                 UserJdbcRepository userJdbcRepository,
+                                 PasswordEncoder passwordEncoder,
+                                 UniqueKeyFilter uniqueKeyFilter,
+                                 Validator validator,
+                                 ObjectMapper objectMapper,
+                                 TransactionTemplate transactionTemplate,
+                                 ChangeLogJdbcRepository changeLog,
+                                 @Value("${pos.users.import.hash-threads:0}") int hashThreads,
+                                 @Value("${pos.users.import.chunk-size:500}") int chunkSize) {
+        this.userRepository = userRepository;
+        this.userJdbcRepository = userJdbcRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.uniqueKeyFilter = uniqueKeyFilter;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.changeLog = changeLog;
+        this.chunkSize = chunkSize;
+
+        int threads = hashThreads > 0 ? hashThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger counter = new AtomicInteger();
+        this.hashingPool = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(chunkSize),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "user-import-hash-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @Override
+    public UserImportReport importUsers(InputStream input, Format format) throws UserException {
+        UserImportReport report = new UserImportReport();
+        Set<String> seenEmails = new HashSet<>();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            int[] columns = format == Format.CSV ? readCsvHeader(reader) : null;
+            int lineNumber = format == Format.CSV ? 1 : 0;
+
+            List<PendingRow> chunk = new ArrayList<>(chunkSize);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                PendingRow row = parse(line, lineNumber, format, columns, report);
+                if (row == null) {
+                    continue;
+                }
+                String key = row.dto.getEmail().toLowerCase(Locale.ROOT);
+                if (!seenEmails.add(key)) {
+                    report.add(failed(row, "Duplicate email in this file"));
+                    continue;
+                }
+
+                chunk.add(row);
+                if (chunk.size() >= chunkSize) {
+                    importChunk(chunk, report);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(chunk, report);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return report;
+    }
+
+    private int[] readCsvHeader(BufferedReader reader) throws IOException, UserException {
+        String header = reader.readLine();
+        if (header == null) {
+            throw new UserException("CSV header is missing");
+        }
+        List<String> names = CsvLines.split(header.toLowerCase(Locale.ROOT));
+        int[] columns = new int[CSV_COLUMNS.size()];
+        for (int i = 0; i < CSV_COLUMNS.size(); i++) {
+            columns[i] = names.indexOf(CSV_COLUMNS.get(i));
+            if (columns[i] < 0 && !CSV_COLUMNS.get(i).equals("phone")) {
+                throw new UserException("CSV header must contain: " + String.join(",", CSV_COLUMNS));
+            }
+        }
+        return columns;
+    }
+
+    private PendingRow parse(String line, int lineNumber, Format format, int[] columns, UserImportReport report) {
+        UserDto dto;
+        try {
+            dto = format == Format.CSV ? fromCsv(CsvLines.split(line), columns) : objectMapper.readValue(line, UserDto.class);
+        } catch (Exception e) {
+            report.add(new UserImportReport.Row(lineNumber, null, false, "Unreadable row"));
+            return null;
+        }
+
+        // Same rules as signup: UserDto constraints, and nobody becomes ADMIN this way
+        Set<ConstraintViolation<UserDto>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            report.add(new UserImportReport.Row(lineNumber, dto.getEmail(), false,
+                    violations.iterator().next().getMessage()));
+            return null;
+        }
+        if (dto.getRole() == UserRole.ROLE_ADMIN) {
+            report.add(new UserImportReport.Row(lineNumber, dto.getEmail(), false, "Role admin is not allowed!"));
+            return null;
+        }
+        return new PendingRow(lineNumber, dto);
+    }
+
+    private static UserDto fromCsv(List<String> fields, int[] columns) {
+        UserDto dto = new UserDto();
+        dto.setFullname(field(fields, columns[0]));
+        dto.setEmail(field(fields, columns[1]));
+        dto.setPhone(field(fields, columns[2]));
+        String role = field(fields, columns[3]);
+        dto.setRole(role != null ? UserRole.valueOf(role.toUpperCase(Locale.ROOT)) : null);
+        dto.setPassword(field(fields, columns[4]));
+        return dto;
+    }
+
+    private static String field(List<String> fields, int column) {
+        if (column < 0 || column >= fields.size() || fields.get(column).isEmpty()) {
+            return null;
+        }
+        return fields.get(column);
+    }
+
+    private void importChunk(List<PendingRow> chunk, UserImportReport report) {
+        // Step 1: drop emails that are already registered - one IN query for the whole chunk
+        List<String> maybeTaken = chunk.stream()
+                .map(row -> row.dto.getEmail())
+                .filter(uniqueKeyFilter::mightContainEmail)
+                .toList();
+        Set<String> taken = new HashSet<>();
+        if (!maybeTaken.isEmpty()) {
+            userRepository.findExistingEmails(maybeTaken).forEach(email -> taken.add(email.toLowerCase(Locale.ROOT)));
+        }
+
+        List<PendingRow> fresh = new ArrayList<>(chunk.size());
+        for (PendingRow row : chunk) {
+            if (taken.contains(row.dto.getEmail().toLowerCase(Locale.ROOT))) {
+                report.add(failed(row, "Email already registered!"));
+            } else {
+                fresh.add(row);
+            }
+        }
+        if (fresh.isEmpty()) {
+            return;
+        }
+
+        // Step 2: hash passwords in parallel on the import pool
+        List<User> users = hashAll(fresh);
+
+        // Step 3: one batched insert; if the batch hits a constraint, retry row by row to report who failed.
+        // The change-log entries for terminal sync are written with it (JDBC skips the JPA listeners).
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                userJdbcRepository.insertAll(users);
+                changeLog.insertAll(SyncEntity.USER, users.stream().map(User::getId).toList(), null,
+                        ChangeOperation.CREATED);
+            });
+            for (int i = 0; i < fresh.size(); i++) {
+                imported(fresh.get(i), users.get(i), report);
+            }
+        } catch (DataAccessException batchFailure) {
+            for (int i = 0; i < fresh.size(); i++) {
+                User user = users.get(i);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        userJdbcRepository.insert(user);
+                        changeLog.insert(SyncEntity.USER, user.getId(), null, ChangeOperation.CREATED);
+                    });
+                    imported(fresh.get(i), user, report);
+                } catch (DataAccessException e) {
+                    // Only blame the email if it really is taken (e.g. registered meanwhile)
+                    if (userRepository.existsByEmail(user.getEmail())) {
+                        report.add(failed(fresh.get(i), "Email already registered!"));
+                    } else {
+                        report.add(failed(fresh.get(i), "Could not import user"));
+                    }
+                }
+            }
+        }
+    }
+
+    private List<User> hashAll(List<PendingRow> rows) {
+        List<Future<String>> hashes = new ArrayList<>(rows.size());
+        for (PendingRow row : rows) {
+            String raw = row.dto.getPassword();
+            hashes.add(hashingPool.submit(() -> passwordEncoder.encode(raw)));
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<User> users = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            UserDto dto = rows.get(i).dto;
+            User user = new User(UUID.randomUUID(), dto.getFullname(), dto.getEmail(), dto.getPhone(),
+                    dto.getRole(), await(hashes.get(i)), now, now, null, true);
+            users.add(user);
+        }
+        return users;
+    }
+
+    private static String await(Future<String> hash) {
+        try {
+            return hash.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("User import interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private void imported(PendingRow row, User user, UserImportReport report) {
+        uniqueKeyFilter.addEmail(user.getEmail());
+        report.add(new UserImportReport.Row(row.line, user.getEmail(), true, "Imported"));
+    }
+
+    private static UserImportReport.Row failed(PendingRow row, String message) {
+        return new UserImportReport.Row(row.line, row.dto.getEmail(), false, message);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashingPool.shutdown();
+    }
+
+    private static final class PendingRow {
+        private final int line;
+        private final UserDto dto;
+
+        private PendingRow(int line, UserDto dto) {
+            this.line = line;
+            this.dto = dto;
+        }
+    }
+}
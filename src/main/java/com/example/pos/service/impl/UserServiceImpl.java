@@ -1,13 +1,22 @@
 package com.example.pos.service.impl;
 
+import com.example.pos.configuration.AuthenticatedUser;
 import com.example.pos.configuration.JwtProvider;
 import com.example.pos.exceptions.UserException;
 import com.example.pos.model.User;
+import com.example.pos.payload.response.BatchLookupResult;
 import com.example.pos.repo.UserRepository;
 import com.example.pos.service.UserService;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;  // ← IMPORTANT: Import this! Optional is like a "safe box" for values
 import java.util.UUID;
 
@@ -20,6 +29,10 @@ public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;  // Talks to the database
     private final JwtProvider jwtProvider;        // Works with JWT tokens (login tickets)
 
+    // Batch lookups: most ids per request, and ids per IN (...) query
+    public static final int MAX_BATCH_IDS = 500;
+    private static final int BATCH_CHUNK_SIZE = 250;
+
     // Constructor - Spring automatically gives us these tools
     // This is called "Dependency Injection"
     public UserServiceImpl(UserRepository userRepository, JwtProvider jwtProvider) {
@@ -60,30 +73,47 @@ public class UserServiceImpl implements UserService {
     }
 
     // ============================================
-    // GET CURRENT USER
+    // GET USER FROM AUTHENTICATED PRINCIPAL
     // ============================================
-    // This gets the currently logged-in user
-    // (Note: This implementation might need improvement in production)
+    // JwtValidator already verified the token and put its claims in an AuthenticatedUser,
+    // so there's nothing to parse here - we just load the row.
+    // New tokens carry the user id, so this is a primary key lookup;
+    // older tokens only have the email, so we fall back to findByEmail.
     @Override
-    public User getCurrentUser() throws UserException {
+    public User getUser(AuthenticatedUser principal) throws UserException {
 
-        // Get email from token
-        String email = jwtProvider.getEmailFormToken(jwtProvider.generateToken(null));
+        if (principal == null) {
+            throw new UserException("User not found");
+        }
 
-        // Find user by email
-        // Remember: findByEmail returns Optional<User> (the "safe box")
-        Optional<User> userOptional = userRepository.findByEmail(email);
+        Optional<User> userOptional = principal.getId() != null
+                ? userRepository.findById(principal.getId())
+                : userRepository.findByEmail(principal.getEmail());
 
-        // Check if user exists (is there something in the box?)
         if (!userOptional.isPresent()) {
-            // Box is empty - no user found
-            throw new UserException("User not found");
+            // The token is valid but the user was deleted since it was issued
+            throw new UserException("Invalid token");
         }
 
-        // Open the box and return the user
         return userOptional.get();
     }
 
+    // ============================================
+    // GET CURRENT USER
+    // ============================================
+    // This gets the currently logged-in user from the SecurityContext
+    // (filled in by JwtValidator for every /api/** request)
+    @Override
+    public User getCurrentUser() throws UserException {
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof AuthenticatedUser principal)) {
+            throw new UserException("User not found");
+        }
+
+        return getUser(principal);
+    }
+
     // ============================================
     // GET USER BY EMAIL
     // ============================================
@@ -130,6 +160,50 @@ public class UserServiceImpl implements UserService {
         return userOptional.get();
     }
 
+    // ============================================
+    // GET MANY USERS BY ID
+    // ============================================
+    // One "WHERE id IN (...)" query per chunk of ids instead of one findById per user.
+    // Ids that don't exist end up in "missing"; found users keep the order they were asked in.
+    @Override
+    public BatchLookupResult<User> getUsersByIds(List<UUID> ids) throws UserException {
+
+        List<UUID> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        if (distinctIds.size() > MAX_BATCH_IDS) {
+            throw new UserException("At most " + MAX_BATCH_IDS + " ids per request");
+        }
+
+        Map<UUID, User> loaded = new HashMap<>();
+        for (int from = 0; from < distinctIds.size(); from += BATCH_CHUNK_SIZE) {
+            List<UUID> chunk = distinctIds.subList(from, Math.min(from + BATCH_CHUNK_SIZE, distinctIds.size()));
+            for (User user : userRepository.findAllById(chunk)) {
+                loaded.put(user.getId(), user);
+            }
+        }
+
+        Map<UUID, User> found = new LinkedHashMap<>();
+        List<UUID> missing = new ArrayList<>();
+        for (UUID id : distinctIds) {
+            User user = loaded.get(id);
+            if (user != null) {
+                found.put(id, user);
+            } else {
+                missing.add(id);
+            }
+        }
+        return new BatchLookupResult<>(found, missing);
+    }
+
+    // ============================================
+    // GET USER VERSION
+    // ============================================
+    // Just the row version (a single-column query) - used to answer
+    // If-None-Match on the profile endpoint without loading the whole user
+    @Override
+    public Optional<Long> getUserVersion(UUID id) {
+        return userRepository.findVersionById(id);
+    }
+
     // ============================================
     // GET ALL USERS
     // ============================================
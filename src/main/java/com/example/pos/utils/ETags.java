@@ -0,0 +1,51 @@
+package com.example.pos.utils;
+
+// ETags built from row versions, shared by the controllers that support
+// If-None-Match / If-Match. A response that also shows data from another row (a store
+// shows its admin's name) carries both versions, "7.3", so a change to either one
+// changes the ETag.
+public final class ETags {
+
+    private ETags() {
+    }
+
+    // 7 -> "7"
+    public static String of(long version) {
+        return "\"" + version + "\"";
+    }
+
+    // 7, 3 -> "7.3"   (7, null -> "7")
+    public static String of(long version, Long joinedVersion) {
+        if (joinedVersion == null) {
+            return of(version);
+        }
+        return "\"" + version + "." + joinedVersion + "\"";
+    }
+
+    // 7 -> W/"7"   For a body that also carries a field the version doesn't cover: the same
+    // ETag then promises an equivalent representation, not the same bytes
+    public static String weak(long version) {
+        return "W/" + of(version);
+    }
+
+    // The row's own version from an If-Match value: "7", W/"7" or "7.3" -> 7; anything else -> null
+    public static Long leadingVersion(String eTag) {
+        if (eTag == null) {
+            return null;
+        }
+        String value = eTag.trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        value = value.replace("\"", "");
+        int dot = value.indexOf('.');
+        if (dot >= 0) {
+            value = value.substring(0, dot);
+        }
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.pos.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Set of keys that each expire at their own time.
+// contains() is one hash lookup. Expiry uses a hashed timing wheel: each key also
+// goes into the slot for its expiry tick, and advance() empties only the slots
+// whose time has passed - no full scans, no per-key timers.
+// Keys may live longer than the wheel covers; those are put back until their time comes.
+public class ExpiringKeySet {
+
+    private final Map<String, Long> expiries = new ConcurrentHashMap<>();
+    private final List<Queue<String>> wheel;
+    private final long tickMillis;
+    private long currentTick;
+
+    public ExpiringKeySet(long tickMillis, int slots, long nowMillis) {
+        this.tickMillis = tickMillis;
+        this.wheel = new ArrayList<>(slots);
+        for (int i = 0; i < slots; i++) {
+            wheel.add(new ConcurrentLinkedQueue<>());
+        }
+        this.currentTick = nowMillis / tickMillis;
+    }
+
+    public void add(String key, long expiresAtMillis) {
+        expiries.merge(key, expiresAtMillis, Math::max);
+        slotFor(expiresAtMillis).add(key);
+    }
+
+    public boolean contains(String key) {
+        return expiries.containsKey(key);
+    }
+
+    public int size() {
+        return expiries.size();
+    }
+
+    // Removes every key whose expiry is at or before nowMillis. Call it from one thread (a scheduler).
+    public synchronized void advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        // After a long pause one lap over the wheel visits every slot once
+        long lastTick = Math.min(targetTick, currentTick + wheel.size());
+        for (long tick = currentTick; tick <= lastTick; tick++) {
+            Queue<String> slot = wheel.get((int) (tick % wheel.size()));
+            int pending = slot.size();
+            for (int i = 0; i < pending; i++) {
+                String key = slot.poll();
+                if (key == null) {
+                    break;
+                }
+                Long expiresAt = expiries.get(key);
+                if (expiresAt == null) {
+                    continue;
+                }
+                if (expiresAt <= nowMillis) {
+                    expiries.remove(key, expiresAt);
+                } else {
+                    // Not due yet (more than one lap away, or re-added later) - file it again
+                    slotFor(expiresAt).add(key);
+                }
+            }
+        }
+        currentTick = targetTick;
+    }
+
+    private Queue<String> slotFor(long expiresAtMillis) {
+        return wheel.get((int) ((expiresAtMillis / tickMillis) % wheel.size()));
+    }
+}
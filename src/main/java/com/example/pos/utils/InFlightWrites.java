@@ -0,0 +1,105 @@
+package com.example.pos.utils;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// Tells a reader of an IDENTITY-keyed table how far it can read without skipping a row that
+// is still being written. Ids are handed out at insert time but become visible at commit, so
+// a slow transaction can commit id 104 after 105 is already visible.
+//
+// Every writer calls start() before its insert and finish() once its transaction is over.
+// A reader then:
+//   1. reads max(id) of the table,
+//   2. takes mark() - the newest writer that may have started before step 1,
+//   3. trusts that max(id) once finishedUpTo(mark) is true: every id up to it has then either
+//      committed or been rolled back. A writer that starts later inserts after step 1, so its
+//      id is higher.
+// Watermark does those steps for a reader that comes back again and again.
+// Like the other in-memory helpers here, this assumes one application instance per database.
+public class InFlightWrites {
+
+    private final AtomicLong tickets = new AtomicLong();
+    private final Set<Long> running = ConcurrentHashMap.newKeySet();
+
+    public long start() {
+        long ticket = tickets.incrementAndGet();
+        running.add(ticket);
+        return ticket;
+    }
+
+    public void finish(long ticket) {
+        running.remove(ticket);
+    }
+
+    // Finishes when the caller's transaction commits or rolls back (right away if there is none)
+    public void finishWithTransaction(long ticket) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            finish(ticket);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                finish(ticket);
+            }
+        });
+    }
+
+    public long mark() {
+        return tickets.get();
+    }
+
+    public boolean finishedUpTo(long mark) {
+        for (long ticket : running) {
+            if (ticket <= mark) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // A new reader's watermark (each reader keeps its own)
+    public Watermark watermark() {
+        return new Watermark();
+    }
+
+    // ============================================
+    // WATERMARK
+    // ============================================
+    // The newest id a reader can trust, moved forward each time it asks.
+    // Under steady writes the newest max(id) usually has writers in flight; it is kept and
+    // trusted by a later call, once they have finished.
+    public class Watermark {
+
+        private long committed;
+        // A max(id) read while writes were still running (mark < 0: none)
+        private long pendingId;
+        private long pendingMark = -1;
+
+        // lastId reads max(id) of the table; the result never goes down
+        public synchronized long advance(LongSupplier lastId) {
+            // Step 1: the newest id, and the newest writer that may have been running when it was read
+            long latestId = lastId.getAsLong();
+            long latestMark = mark();
+
+            // Step 2: move to the newest of the two whose writers have all finished
+            if (finishedUpTo(latestMark)) {
+                committed = Math.max(committed, latestId);
+                pendingMark = -1;
+            } else if (pendingMark >= 0 && finishedUpTo(pendingMark)) {
+                committed = Math.max(committed, pendingId);
+                pendingId = latestId;
+                pendingMark = latestMark;
+            } else if (pendingMark < 0) {
+                pendingId = latestId;
+                pendingMark = latestMark;
+            }
+            return committed;
+        }
+    }
+}
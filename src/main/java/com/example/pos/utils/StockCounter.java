@@ -0,0 +1,138 @@
+package com.example.pos.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Available quantity of one product, taken by concurrent tills without locks and never below zero.
+//
+// Starts as a single AtomicLong: a sale is one compare-and-set. When two tills collide on it
+// (a CAS fails), it splits into stripes - one per CPU, each on its own cache line - like
+// LongAdder does, and each thread takes from its "home" stripe. Every stripe stays >= 0 on its
+// own, so the total can never go negative: oversell is impossible without any lock.
+// Only when a till's home stripe runs short (near stock-out, or uneven sales) does it take the
+// lock, gather every stripe and split the rest evenly again. That check is exact, so a sale is
+// refused only if the whole product really doesn't have enough.
+public class StockCounter {
+
+    private static final int PAD = 8;  // 8 longs = 64 bytes: one stripe per cache line
+    private static final int MAX_STRIPES = 64;
+
+    private final AtomicLong base;
+    private volatile AtomicLongArray stripes;  // null until there is contention
+    private final int stripeCount;
+
+    public StockCounter(long available) {
+        this(available, Runtime.getRuntime().availableProcessors());
+    }
+
+    public StockCounter(long available, int cpus) {
+        if (available < 0) {
+            throw new IllegalArgumentException("available cannot be negative");
+        }
+        this.base = new AtomicLong(available);
+        this.stripeCount = Integer.highestOneBit(Math.max(1, Math.min(cpus, MAX_STRIPES)) * 2 - 1);
+    }
+
+    // Takes quantity if that much is available; false (and nothing taken) otherwise
+    public boolean tryTake(long quantity) {
+        if (stripes == null) {
+            while (true) {
+                long current = base.get();
+                if (current < quantity) {
+                    if (stripes == null) {
+                        return false;  // base still holds everything - this answer is exact
+                    }
+                    break;             // split meanwhile - base was just emptied into the stripes
+                }
+                if (base.compareAndSet(current, current - quantity)) {
+                    return true;
+                }
+                if (stripeCount > 1) {
+                    split();           // another till got there first - spread out
+                    break;
+                }
+            }
+        }
+        AtomicLongArray cells = stripes;
+
+        int home = home() * PAD;
+        while (true) {
+            long current = cells.get(home);
+            if (current < quantity) {
+                return takeFromAll(quantity);
+            }
+            if (cells.compareAndSet(home, current, current - quantity)) {
+                return true;
+            }
+        }
+    }
+
+    // Puts quantity back (a cancelled sale) or adds new stock (a delivery)
+    public void add(long quantity) {
+        AtomicLongArray cells = stripes;
+        if (cells == null) {
+            base.addAndGet(quantity);
+        } else {
+            cells.addAndGet(home() * PAD, quantity);
+        }
+    }
+
+    // A moment-in-time total (exact when nothing is running concurrently)
+    public long available() {
+        long total = base.get();
+        AtomicLongArray cells = stripes;
+        if (cells != null) {
+            for (int i = 0; i < stripeCount; i++) {
+                total += cells.get(i * PAD);
+            }
+        }
+        return total;
+    }
+
+    public boolean isStriped() {
+        return stripes != null;
+    }
+
+    // ============================================
+    // SLOW PATH (under the lock)
+    // ============================================
+
+    // Called on the first collision (package-private so tests can start out striped).
+    // stripes is published before base is emptied: a till that then finds base short
+    // also sees the stripes, and looks there instead of refusing the sale
+    synchronized void split() {
+        if (stripes == null) {
+            AtomicLongArray cells = new AtomicLongArray(stripeCount * PAD);
+            stripes = cells;
+            spread(cells, base.getAndSet(0));
+        }
+    }
+
+    // Gathers every stripe (and anything left in base), takes quantity if the total allows,
+    // and spreads the rest evenly. Tills on the fast path meanwhile find their stripe empty
+    // and queue up here, so nothing can be taken twice.
+    private synchronized boolean takeFromAll(long quantity) {
+        AtomicLongArray cells = stripes;
+        long total = base.getAndSet(0);
+        for (int i = 0; i < stripeCount; i++) {
+            total += cells.getAndSet(i * PAD, 0);
+        }
+        boolean taken = total >= quantity;
+        spread(cells, taken ? total - quantity : total);
+        return taken;
+    }
+
+    // add, not set: a concurrent add() to a stripe we already emptied must not be lost
+    private void spread(AtomicLongArray cells, long total) {
+        long share = total / stripeCount;
+        long rest = total % stripeCount;
+        for (int i = 0; i < stripeCount; i++) {
+            cells.addAndGet(i * PAD, share + (i < rest ? 1 : 0));
+        }
+    }
+
+    private int home() {
+        long id = Thread.currentThread().threadId();
+        return (int) ((id * 0x9E3779B97F4A7C15L) >>> 40) & (stripeCount - 1);
+    }
+}
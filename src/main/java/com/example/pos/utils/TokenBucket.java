@@ -0,0 +1,39 @@
+package com.example.pos.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Lock-free token bucket, implemented as GCRA (generic cell rate algorithm).
+// The whole bucket state is one long - the "theoretical arrival time" of the next
+// request - so taking a token is a single compare-and-set, no locks.
+public class TokenBucket {
+
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(int capacity, double tokensPerSecond, long nowNanos) {
+        this.nanosPerToken = (long) (1_000_000_000L / tokensPerSecond);
+        this.burstNanos = nanosPerToken * capacity;
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    // Returns 0 if a token was taken, otherwise how many nanos to wait before the next one is available
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, nowNanos) + nanosPerToken;
+            long wait = next - nowNanos - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    // Gives back a token taken by tryAcquire (the request was refused for another reason)
+    public void refund() {
+        theoreticalArrival.addAndGet(-nanosPerToken);
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.pos;
+
+import com.example.pos.repo.ChangeLogJdbcRepository;
+import com.example.pos.repo.OrderJdbcRepository;
+import com.example.pos.repo.ProductJdbcRepository;
+import com.example.pos.repo.StockJdbcRepository;
+import com.example.pos.repo.UserJdbcRepository;
+import com.example.pos.service.CatalogSnapshots;
+import com.example.pos.service.CheckoutService;
+import com.example.pos.service.ProductImportService;
+import com.example.pos.service.StockLedger;
+import com.example.pos.service.StoreCache;
+import com.example.pos.service.StoreExportService;
+import com.example.pos.service.StoreSearchIndex;
+import com.example.pos.service.StoreService;
+import com.example.pos.service.StoreStatistics;
+import com.example.pos.service.SyncService;
+import com.example.pos.service.UniqueKeyFilter;
+import com.example.pos.service.impl.ChangeLogListener;
+import com.example.pos.service.impl.UserCacheInvalidationListener;
+import com.example.pos.service.impl.UserCredentialsCache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.annotation.AliasFor;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// The JPA slice every service test runs in: the entity listeners with the beans they need,
+// the services under test and a simple meter registry. Tests with the same properties share
+// one cached Spring context, so adding a listener or service only needs a change here.
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@DataJpaTest
+@Import(PosDataJpaTest.Beans.class)
+// H2 rejects the MySQL row-streaming fetch size that application.properties sets
+@TestPropertySource(properties = "pos.stores.export.fetch-size=500")
+public @interface PosDataJpaTest {
+
+    @AliasFor(annotation = DataJpaTest.class, attribute = "properties")
+    String[] properties() default {"spring.jpa.show-sql=false"};
+
+    @TestConfiguration
+    @Import({UserCredentialsCache.class, UserCacheInvalidationListener.class,
+            ChangeLogListener.class, ChangeLogJdbcRepository.class,
+            StoreService.class, StoreCache.class, UniqueKeyFilter.class, StoreSearchIndex.class,
+            StoreStatistics.class, CatalogSnapshots.class, StoreExportService.class, UserJdbcRepository.class,
+            ProductImportService.class, ProductJdbcRepository.class,
+            CheckoutService.class, OrderJdbcRepository.class,
+            StockLedger.class, StockJdbcRepository.class,
+            SyncService.class})
+    class Beans {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper().findAndRegisterModules();
+        }
+
+        @Bean
+        LocalValidatorFactoryBean validator() {
+            return new LocalValidatorFactoryBean();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.pos.configuration;
+
+import com.example.pos.exceptions.UserException;
+import com.example.pos.model.User;
+import com.example.pos.repo.RevokedTokenRepository;
+import com.example.pos.repo.UserRepository;
+import com.example.pos.service.impl.UserServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+// Tokens carry the user id, the validator turns it into the principal, and the profile
+// lookup uses the primary key - falling back to the email only for tokens without an id.
+class JwtProviderTests {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final JwtValidator validator = new JwtValidator(new JwtAuthenticationCache(meterRegistry, 100),
+            new TokenRevocationList(mock(RevokedTokenRepository.class), meterRegistry));
+    private final JwtProvider jwtProvider = new JwtProvider();
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserServiceImpl userService = new UserServiceImpl(userRepository, jwtProvider);
+
+    private final Authentication login = new UsernamePasswordAuthenticationToken(
+            "manager@example.com", null, AuthorityUtils.createAuthorityList("ROLE_MANAGER"));
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void tokenWithIdResolvesToPrincipalAndPrimaryKeyLookup() throws Throwable {
+        UUID id = UUID.randomUUID();
+        String jwt = jwtProvider.generateToken(login, id);
+        User user = new User();
+        user.setId(id);
+        user.setEmail("manager@example.com");
+        when(userRepository.findById(id)).thenReturn(Optional.of(user));
+
+        AuthenticatedUser principal = (AuthenticatedUser) filter("Bearer " + jwt).getPrincipal();
+
+        assertEquals(id, principal.getId());
+        assertEquals("manager@example.com", principal.getEmail());
+        assertNotNull(principal.getTokenId());
+        assertNotNull(principal.getExpiresAt());
+        assertEquals("manager@example.com", jwtProvider.getEmailFormToken("Bearer " + jwt));
+
+        assertSame(user, userService.getCurrentUser());
+        verify(userRepository).findById(id);
+        verify(userRepository, never()).findByEmail(anyString());
+    }
+
+    @Test
+    void tokenWithoutIdFallsBackToEmail() throws Throwable {
+        String jwt = jwtProvider.generateToken(login);
+        User user = new User();
+        user.setEmail("manager@example.com");
+        when(userRepository.findByEmail("manager@example.com")).thenReturn(Optional.of(user));
+
+        AuthenticatedUser principal = (AuthenticatedUser) filter("Bearer " + jwt).getPrincipal();
+
+        assertNull(principal.getId());
+        assertSame(user, userService.getUser(principal));
+        verify(userRepository, never()).findById(any());
+    }
+
+    @Test
+    void deletedUserIsAnInvalidToken() throws Throwable {
+        UUID id = UUID.randomUUID();
+        when(userRepository.findById(id)).thenReturn(Optional.empty());
+
+        AuthenticatedUser principal = (AuthenticatedUser) filter("Bearer " + jwtProvider.generateToken(login, id))
+                .getPrincipal();
+
+        UserException e = assertThrows(UserException.class, () -> userService.getUser(principal));
+        assertEquals("Invalid token", e.getMessage());
+    }
+
+    private Authentication filter(String header) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/profile");
+        request.addHeader(JwtConstant.JWT_HEADER, header);
+        validator.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.pos.configuration;
+
+import com.example.pos.repo.RevokedTokenRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class JwtValidatorTests {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final JwtAuthenticationCache cache = new JwtAuthenticationCache(meterRegistry, 100);
+    private final TokenRevocationList revocationList =
+            new TokenRevocationList(mock(RevokedTokenRepository.class), meterRegistry);
+    private final JwtValidator validator = new JwtValidator(cache, revocationList);
+    private final String jwt = new JwtProvider().generateToken(new UsernamePasswordAuthenticationToken(
+            "cashier@example.com", null, AuthorityUtils.createAuthorityList("ROLE_CASHIER")));
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void sameTokenIsVerifiedOnceThenServedFromCache() throws Exception {
+        Authentication first = filter("Bearer " + jwt);
+        Authentication second = filter("Bearer " + jwt);
+
+        assertEquals("cashier@example.com", first.getName());
+        assertSame(first, second);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "jwt.authentication")
+                .tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void revokedTokenIsRejectedEvenWhenCached() throws Exception {
+        AuthenticatedUser user = (AuthenticatedUser) filter("Bearer " + jwt).getPrincipal();
+        SecurityContextHolder.clearContext();
+
+        revocationList.revoke(user.getTokenId(), user.getExpiresAt());
+
+        assertThrows(BadCredentialsException.class, () -> filter("Bearer " + jwt));
+    }
+
+    @Test
+    void tamperedTokenIsRejected() {
+        int payloadStart = jwt.indexOf('.') + 1;
+        char flipped = jwt.charAt(payloadStart) == 'e' ? 'f' : 'e';
+        String tampered = jwt.substring(0, payloadStart) + flipped + jwt.substring(payloadStart + 1);
+
+        assertThrows(BadCredentialsException.class, () -> filter("Bearer " + tampered));
+    }
+
+    private Authentication filter(String header) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/stores");
+        request.addHeader(JwtConstant.JWT_HEADER, header);
+        validator.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
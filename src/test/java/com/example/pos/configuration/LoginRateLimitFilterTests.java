@@ -0,0 +1,189 @@
+package com.example.pos.configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginRateLimitFilterTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final LoginRateLimitFilter filter = new LoginRateLimitFilter(
+            new LoginRateLimiter(meterRegistry, 1000, 100, 1, 3, 0.001), new ObjectMapper());
+
+    @Test
+    void rejectsAnEmailOnceItsBucketIsEmptyAndReplaysTheBodyOtherwise() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            MockFilterChain chain = new MockFilterChain();
+            MockHttpServletResponse response = login("cashier@example.com", chain);
+
+            assertEquals(200, response.getStatus());
+            String forwardedBody = new String(chain.getRequest().getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            assertTrue(forwardedBody.contains("cashier@example.com"));
+        }
+
+        MockHttpServletResponse rejected = login("Cashier@Example.com", new MockFilterChain());
+        assertEquals(429, rejected.getStatus());
+        assertNotNull(rejected.getHeader("Retry-After"));
+        assertEquals(1.0, meterRegistry.get("auth.throttled").tag("key", "email").counter().count());
+
+        // Other accounts from the same terminal are unaffected
+        assertEquals(200, login("manager@example.com", new MockFilterChain()).getStatus());
+    }
+
+    @Test
+    void lockedOutAccountDoesNotUseUpItsTerminalsIp() {
+        // Room for 4 attempts per IP, 1 per email
+        LoginRateLimiter limiter = new LoginRateLimiter(new SimpleMeterRegistry(), 1000, 4, 0.001, 1, 0.001);
+        assertEquals(0, limiter.tryAcquire("10.0.0.1", "locked@example.com"));
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire("10.0.0.1", "locked@example.com") > 0);
+        }
+
+        // The other tills behind the same address still get their 3 attempts
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("10.0.0.1", "till" + i + "@example.com"));
+        }
+        assertTrue(limiter.tryAcquire("10.0.0.1", "till3@example.com") > 0);
+    }
+
+    @Test
+    void readerDecodesWithTheRequestCharset() throws Exception {
+        MockHttpServletRequest request = loginRequest();
+        request.setContentType("application/json;charset=ISO-8859-1");
+        request.setCharacterEncoding("ISO-8859-1");
+        request.setContent("{\"email\":\"cashier@example.com\",\"password\":\"caf\u00e9\"}"
+                .getBytes(StandardCharsets.ISO_8859_1));
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertTrue(chain.getRequest().getReader().readLine().contains("caf\u00e9"));
+    }
+
+    @Test
+    void bodyBiggerThanTheInspectedPartIsReplayedWhole() throws Exception {
+        byte[] body = ("{\"email\":\"cashier@example.com\",\"password\":\"" + "x".repeat(20_000) + "\"}")
+                .getBytes(StandardCharsets.UTF_8);
+        MockHttpServletRequest request = loginRequest();
+        request.setContent(body);
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        ServletInputStream in = chain.getRequest().getInputStream();
+        assertArrayEquals(body, in.readAllBytes());
+        assertTrue(in.isFinished());
+        assertSame(in, chain.getRequest().getInputStream());
+    }
+
+    @Test
+    void asyncReaderGetsTheReplayedBody() throws Exception {
+        byte[] body = "{\"email\":\"cashier@example.com\",\"password\":\"secret\"}".getBytes(StandardCharsets.UTF_8);
+        MockHttpServletRequest mock = loginRequest();
+        mock.setContent(body);
+        // Like the container once the filter has drained it: nothing left, so it reports
+        // onAllDataRead right away without an onDataAvailable first
+        HttpServletRequest request = new HttpServletRequestWrapper(mock) {
+            private final ServletInputStream drained = new DrainedInputStream(mock.getInputStream());
+
+            @Override
+            public ServletInputStream getInputStream() {
+                return drained;
+            }
+        };
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        ServletInputStream in = chain.getRequest().getInputStream();
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        List<String> events = new ArrayList<>();
+        in.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                events.add("data");
+                while (in.isReady() && !in.isFinished()) {
+                    int b = in.read();
+                    if (b == -1) {
+                        break;
+                    }
+                    received.write(b);
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                events.add("done");
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                events.add("error");
+            }
+        });
+
+        assertEquals(List.of("data", "done"), events);
+        assertArrayEquals(body, received.toByteArray());
+    }
+
+    private static final class DrainedInputStream extends ServletInputStream {
+        private final ServletInputStream source;
+
+        private DrainedInputStream(ServletInputStream source) {
+            this.source = source;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return source.read();
+        }
+
+        @Override
+        public boolean isFinished() {
+            return source.isFinished();
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            try {
+                readListener.onAllDataRead();
+            } catch (IOException e) {
+                readListener.onError(e);
+            }
+        }
+    }
+
+    private static MockHttpServletRequest loginRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/auth/login");
+        request.setServletPath("/auth/login");
+        request.setContentType("application/json");
+        return request;
+    }
+
+    private MockHttpServletResponse login(String email, MockFilterChain chain) throws Exception {
+        MockHttpServletRequest request = loginRequest();
+        request.setContent(("{\"email\":\"" + email + "\",\"password\":\"secret\"}").getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.pos.controller;
+
+import com.example.pos.configuration.JwtProvider;
+import com.example.pos.domain.UserRole;
+import com.example.pos.model.User;
+import com.example.pos.payload.dto.StoreDto;
+import com.example.pos.payload.request.BatchLookupRequest;
+import com.example.pos.payload.response.BatchLookupResult;
+import com.example.pos.payload.response.SyncPage;
+import com.example.pos.service.StoreExportService;
+import com.example.pos.service.StoreService;
+import com.example.pos.service.SyncService;
+import com.example.pos.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// The @PreAuthorize rules on the controllers are enforced, with the roles users really have
+// (UserRole): cashiers are refused the endpoints that expose other users' data or every
+// store, managers are served, and cashiers can still read a store.
+@SpringJUnitConfig(ControllerAuthorizationTests.Beans.class)
+class ControllerAuthorizationTests {
+
+    @Configuration
+    @EnableMethodSecurity
+    static class Beans {
+        @Bean
+        UserService userService() {
+            return mock(UserService.class);
+        }
+
+        @Bean
+        UserController userController(UserService userService) {
+            return new UserController(userService, new JwtProvider());
+        }
+
+        @Bean
+        StoreService storeService() {
+            return mock(StoreService.class);
+        }
+
+        @Bean
+        StoreExportService storeExportService() {
+            return mock(StoreExportService.class);
+        }
+
+        @Bean
+        StoreController storeController() {
+            return new StoreController();
+        }
+
+        @Bean
+        SyncService syncService() {
+            return mock(SyncService.class);
+        }
+
+        @Bean
+        SyncController syncController(SyncService syncService) {
+            return new SyncController(syncService);
+        }
+    }
+
+    @Autowired
+    private UserController userController;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private StoreController storeController;
+
+    @Autowired
+    private StoreService storeService;
+
+    @Autowired
+    private SyncController syncController;
+
+    @Autowired
+    private SyncService syncService;
+
+    @AfterEach
+    void signOut() {
+        SecurityContextHolder.clearContext();
+    }
+
+    // A role in an expression that no user can hold silently locks everyone but ADMIN out
+    @Test
+    void everyRoleInTheRulesExists() {
+        Set<String> roles = Arrays.stream(UserRole.values()).map(Enum::name).collect(Collectors.toSet());
+        Pattern quoted = Pattern.compile("'([A-Z_]+)'");
+        for (Class<?> controller : List.of(UserController.class, StoreController.class, ProductController.class,
+                ScanController.class, StockController.class, SyncController.class)) {
+            for (Method method : controller.getDeclaredMethods()) {
+                PreAuthorize rule = method.getAnnotation(PreAuthorize.class);
+                if (rule == null) {
+                    continue;
+                }
+                Matcher matcher = quoted.matcher(rule.value());
+                while (matcher.find()) {
+                    assertTrue(roles.contains(matcher.group(1)),
+                            controller.getSimpleName() + "." + method.getName() + ": " + matcher.group(1));
+                }
+            }
+        }
+    }
+
+    @Test
+    void cashierCannotBatchLookUpUsers() {
+        signInAs(UserRole.ROLE_CASHIER);
+        assertThrows(AccessDeniedException.class, () -> userController.getUsersByIds(batchOf(UUID.randomUUID())));
+    }
+
+    @Test
+    void managersCanBatchLookUpUsers() throws Throwable {
+        UUID missing = UUID.randomUUID();
+        when(userService.getUsersByIds(any())).thenReturn(new BatchLookupResult<User>(Map.of(), List.of(missing)));
+
+        for (UserRole role : List.of(UserRole.ROLE_ADMIN, UserRole.ROLE_STORE_MANAGER, UserRole.ROLE_BRANCH_MANAGER)) {
+            signInAs(role);
+            var response = userController.getUsersByIds(batchOf(missing));
+
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertEquals(List.of(missing), response.getBody().getMissing());
+        }
+    }
+
+    @Test
+    void cashierCanReadAStoreButNotListStores() throws Throwable {
+        StoreDto store = new StoreDto();
+        store.setVersion(1L);
+        when(storeService.getStoreById(any())).thenReturn(store);
+
+        signInAs(UserRole.ROLE_CASHIER);
+        var response = storeController.getStoreById(UUID.randomUUID(), new ServletWebRequest(new MockHttpServletRequest()));
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertThrows(AccessDeniedException.class, () -> storeController.getStoreStats());
+
+        signInAs(UserRole.ROLE_BRANCH_MANAGER);
+        assertEquals(HttpStatus.OK, storeController.getStoreStats().getStatusCode());
+    }
+
+    @Test
+    void cashierCannotSyncChanges() {
+        signInAs(UserRole.ROLE_CASHIER);
+        assertThrows(AccessDeniedException.class, () -> syncController.getChanges(0L, null, null));
+    }
+
+    @Test
+    void managersCanSyncChanges() throws Throwable {
+        when(syncService.getChanges(0L, null, null)).thenReturn(new SyncPage(List.of(), 0, false));
+
+        for (UserRole role : List.of(UserRole.ROLE_STORE_MANAGER, UserRole.ROLE_BRANCH_MANAGER)) {
+            signInAs(role);
+            assertEquals(HttpStatus.OK, syncController.getChanges(0L, null, null).getStatusCode());
+        }
+    }
+
+    // The authority a logged-in user gets (see CustomUserImpl): the UserRole name
+    private static void signInAs(UserRole role) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "user@example.com", null, List.of(new SimpleGrantedAuthority(role.name()))));
+    }
+
+    private static BatchLookupRequest batchOf(UUID... ids) {
+        BatchLookupRequest request = new BatchLookupRequest();
+        request.setIds(List.of(ids));
+        return request;
+    }
+}
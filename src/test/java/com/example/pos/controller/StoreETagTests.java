@@ -0,0 +1,133 @@
+package com.example.pos.controller;
+
+import com.example.pos.PosDataJpaTest;
+import com.example.pos.configuration.AuthenticatedUser;
+import com.example.pos.configuration.JwtProvider;
+import com.example.pos.domain.UserRole;
+import com.example.pos.model.Store;
+import com.example.pos.model.User;
+import com.example.pos.payload.dto.StoreDto;
+import com.example.pos.payload.dto.UserDto;
+import com.example.pos.payload.request.StorePatchRequest;
+import com.example.pos.repo.UserJdbcRepository;
+import com.example.pos.service.impl.UserServiceImpl;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Conditional GETs answer 304 only while nothing shown in the response has changed,
+// and PATCH takes the store ETag back as If-Match.
+@PosDataJpaTest
+@Import({StoreController.class, UserController.class, UserServiceImpl.class, JwtProvider.class})
+class StoreETagTests {
+
+    @Autowired
+    private StoreController storeController;
+
+    @Autowired
+    private UserController userController;
+
+    @Autowired
+    private UserJdbcRepository userJdbcRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User admin;
+    private Store store;
+
+    @BeforeEach
+    void seed() {
+        LocalDateTime now = LocalDateTime.now();
+        admin = new User(null, "Ama Mensah", "ama@example.com", null, UserRole.ROLE_ADMIN, "hash", now, now, null, true);
+        entityManager.persist(admin);
+        store = new Store("Game Osu", admin, "Main branch", "Retail");
+        entityManager.persist(store);
+        entityManager.flush();
+    }
+
+    @Test
+    void unchangedStoreIsNotModified() {
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        ResponseEntity<StoreDto> ok = storeController.getStoreById(store.getId(), request(null, first));
+        String eTag = ok.getHeaders().getETag();
+        assertEquals("\"0.0\"", eTag);
+
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        assertNull(storeController.getStoreById(store.getId(), request(eTag, second)));
+        assertEquals(HttpStatus.NOT_MODIFIED.value(), second.getStatus());
+    }
+
+    @Test
+    void renamingTheAdminChangesTheStoreETag() {
+        String eTag = storeController.getStoreById(store.getId(), request(null, new MockHttpServletResponse()))
+                .getHeaders().getETag();
+
+        admin.setFullname("Ama Owusu");
+        entityManager.flush();
+
+        ResponseEntity<StoreDto> changed = storeController.getStoreById(store.getId(),
+                request(eTag, new MockHttpServletResponse()));
+        assertEquals(HttpStatus.OK, changed.getStatusCode());
+        assertEquals("\"0.1\"", changed.getHeaders().getETag());
+        assertEquals("Ama Owusu", changed.getBody().getStoreAdminName());
+    }
+
+    @Test
+    void loginDoesNotChangeTheProfileETag() throws Throwable {
+        AuthenticatedUser principal = new AuthenticatedUser(admin.getId(), admin.getEmail(), null, null);
+        String eTag = userController.getUserProfile(principal, request(null, new MockHttpServletResponse()))
+                .getHeaders().getETag();
+        // lastLogin is in the body but not in the version: the ETag only promises an equivalent body
+        assertTrue(eTag.startsWith("W/\""));
+
+        userJdbcRepository.updateLastLogins(Map.of(admin.getId(), LocalDateTime.now()));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        ResponseEntity<UserDto> notModified = userController.getUserProfile(principal, request(eTag, response));
+        assertNull(notModified);
+        assertEquals(HttpStatus.NOT_MODIFIED.value(), response.getStatus());
+    }
+
+    @Test
+    void patchTakesTheStoreETagAsIfMatch() {
+        String eTag = storeController.getStoreById(store.getId(), request(null, new MockHttpServletResponse()))
+                .getHeaders().getETag();
+        StorePatchRequest patch = new StorePatchRequest();
+        patch.setDescription("Renovated");
+
+        ResponseEntity<StoreDto> patched = storeController.patchStore(store.getId(), patch, eTag);
+        assertEquals(HttpStatus.OK, patched.getStatusCode());
+        assertEquals("\"1.0\"", patched.getHeaders().getETag());
+
+        // The old ETag is now stale, and no version at all is refused
+        ResponseStatusException stale = assertThrows(ResponseStatusException.class,
+                () -> storeController.patchStore(store.getId(), patch, eTag));
+        assertEquals(HttpStatus.CONFLICT, stale.getStatusCode());
+        ResponseStatusException missing = assertThrows(ResponseStatusException.class,
+                () -> storeController.patchStore(store.getId(), patch, null));
+        assertEquals(HttpStatus.PRECONDITION_REQUIRED, missing.getStatusCode());
+    }
+
+    private static ServletWebRequest request(String ifNoneMatch, MockHttpServletResponse response) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/stores");
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return new ServletWebRequest(request, response);
+    }
+}
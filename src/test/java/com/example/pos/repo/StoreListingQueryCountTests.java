@@ -0,0 +1,74 @@
+package com.example.pos.repo;
+
+import com.example.pos.PosDataJpaTest;
+import com.example.pos.domain.UserRole;
+import com.example.pos.mapper.StoreMapper;
+import com.example.pos.model.Store;
+import com.example.pos.model.User;
+import com.example.pos.payload.dto.StoreDto;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Listing stores must cost the same number of SQL statements whatever the page size:
+// the store admin has to come from the same query, not one lookup per store.
+@PosDataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"
+})
+class StoreListingQueryCountTests {
+
+    @Autowired
+    private StoreRepository storeRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void createStores() {
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 500; i++) {
+            User admin = new User(null, "Admin " + i, "admin" + i + "@example.com", null,
+                    UserRole.ROLE_STORE_MANAGER, "hash", now, now, null, true);
+            entityManager.persist(admin);
+            entityManager.persist(new Store("Store " + i, admin, "Branch " + i, i % 2 == 0 ? "Retail" : "Wholesale"));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void listingFiveHundredStoresIsOneStatement() {
+        assertEquals(1, statementsToList(500));
+    }
+
+    @Test
+    void statementCountDoesNotGrowWithPageSize() {
+        assertEquals(statementsToList(10), statementsToList(500));
+    }
+
+    private long statementsToList(int pageSize) {
+        entityManager.clear();
+        statistics.clear();
+
+        List<Store> stores = storeRepository.findFirstPage(null, null, PageRequest.ofSize(pageSize));
+        List<StoreDto> dtos = stores.stream().map(StoreMapper::toDto).toList();
+
+        assertEquals(pageSize, dtos.size());
+        assertTrue(dtos.stream().allMatch(dto -> dto.getStoreAdminName() != null));
+        return statistics.getPrepareStatementCount();
+    }
+}
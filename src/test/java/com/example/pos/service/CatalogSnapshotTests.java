@@ -0,0 +1,143 @@
+package com.example.pos.service;
+
+import com.example.pos.domain.TaxClass;
+import com.example.pos.exceptions.UserException;
+import com.example.pos.payload.response.ScanResult;
+import com.example.pos.repo.ProductRepository;
+import com.example.pos.repo.StoreRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CatalogSnapshotTests {
+
+    private final ScanResult cola = product("COLA-330", "5449000000996", "Coca-Cola 330ml", 650);
+    private final ScanResult milk = product("MILK-1L", "0012345678905", "Fresh Milk 1L", 1200);
+    private final ScanResult bread = product("BREAD-01", "BAKERY-7", "Sliced Bread", 900);
+    private final ScanResult bag = product("BAG-01", null, "Carrier Bag", 50);
+
+    @Test
+    void findsProductsByBarcodeAndId() {
+        CatalogSnapshot snapshot = new CatalogSnapshot(List.of(bag, bread, cola, milk));
+
+        assertEquals("COLA-330", snapshot.findByBarcode("5449000000996").getSku());
+        assertEquals(650, snapshot.findByBarcode("5449000000996").getPriceMinor());
+        assertEquals("BREAD-01", snapshot.findByBarcode("BAKERY-7").getSku());
+        assertNull(snapshot.findByBarcode("4000000000000"));
+        assertNull(snapshot.findByBarcode(null));
+
+        assertEquals("Carrier Bag", snapshot.findById(bag.getProductId()).getName());
+        assertNull(snapshot.findById(UUID.randomUUID()));
+
+        assertEquals(4, snapshot.size());
+        assertEquals(3, snapshot.barcodeCount());
+    }
+
+    @Test
+    void leadingZerosAreKept() {
+        CatalogSnapshot snapshot = new CatalogSnapshot(List.of(milk));
+
+        assertEquals("MILK-1L", snapshot.findByBarcode("0012345678905").getSku());
+        assertNull(snapshot.findByBarcode("012345678905"));
+        assertNull(snapshot.findByBarcode("12345678905"));
+    }
+
+    @Test
+    void longBarcodesFallBackToTheMap() {
+        ScanResult serial = product("SERIAL", "123456789012345678901234", "Gift Card", 5000);
+        CatalogSnapshot snapshot = new CatalogSnapshot(List.of(serial));
+
+        assertEquals("SERIAL", snapshot.findByBarcode("123456789012345678901234").getSku());
+        assertNull(snapshot.findByBarcode("123456789012345678901235"));
+    }
+
+    @Test
+    void firstSkuWinsADuplicateBarcode() {
+        ScanResult cola2 = product("COLA-330-PROMO", "5449000000996", "Coca-Cola 330ml promo", 500);
+        CatalogSnapshot snapshot = new CatalogSnapshot(List.of(cola, cola2));
+
+        assertEquals("COLA-330", snapshot.findByBarcode("5449000000996").getSku());
+        assertEquals(1, snapshot.barcodeCount());
+        assertEquals(1, snapshot.duplicateBarcodes());
+    }
+
+    @Test
+    void changesMakeANewSnapshotAndLeaveTheOldOneAlone() {
+        CatalogSnapshot before = new CatalogSnapshot(List.of(bread, milk));
+
+        ScanResult cheaperMilk = new ScanResult(milk.getProductId(), "MILK-1L", "0012345678905", "Fresh Milk 1L", 999, TaxClass.REDUCED);
+        CatalogSnapshot after = before.with(cola).with(cheaperMilk).without(bread.getProductId());
+
+        assertEquals(1200, before.findByBarcode("0012345678905").getPriceMinor());
+        assertEquals("BREAD-01", before.findByBarcode("BAKERY-7").getSku());
+        assertNull(before.findByBarcode("5449000000996"));
+
+        assertEquals(999, after.findByBarcode("0012345678905").getPriceMinor());
+        assertEquals(TaxClass.REDUCED, after.findById(milk.getProductId()).getTaxClass());
+        assertNull(after.findByBarcode("BAKERY-7"));
+        assertEquals("COLA-330", after.findByBarcode("5449000000996").getSku());
+        assertEquals(2, after.size());
+    }
+
+    @Test
+    void barcodeChangeMovesTheLookup() {
+        CatalogSnapshot before = new CatalogSnapshot(List.of(cola));
+        CatalogSnapshot after = before.with(new ScanResult(cola.getProductId(), "COLA-330", "5449000000997", "Coca-Cola 330ml", 650, TaxClass.STANDARD));
+
+        assertNull(after.findByBarcode("5449000000996"));
+        assertEquals("COLA-330", after.findByBarcode("5449000000997").getSku());
+    }
+
+    @Test
+    void manyProductsAllFound() {
+        List<ScanResult> products = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            products.add(product(String.format("SKU-%05d", i), String.format("6%012d", i * 7919L), "Item " + i, i));
+        }
+        CatalogSnapshot snapshot = new CatalogSnapshot(products);
+
+        for (ScanResult product : products) {
+            assertEquals(product.getSku(), snapshot.findByBarcode(product.getBarcode()).getSku());
+            assertEquals(product.getSku(), snapshot.findById(product.getProductId()).getSku());
+        }
+        assertTrue(snapshot.estimatedBytes() > 0);
+    }
+
+    @Test
+    void snapshotsAreOnlyLoadedForStoresThatExist() throws Throwable {
+        ProductRepository productRepository = mock(ProductRepository.class);
+        StoreRepository storeRepository = mock(StoreRepository.class);
+        CatalogSnapshots snapshots = new CatalogSnapshots(productRepository, storeRepository, new SimpleMeterRegistry(), 10);
+        UUID storeId = UUID.randomUUID();
+        UUID unknown = UUID.randomUUID();
+        when(storeRepository.existsById(storeId)).thenReturn(true);
+        when(productRepository.findScanResultsByStoreId(storeId)).thenReturn(List.of(cola));
+
+        // Unknown stores are refused without a catalog query, and nothing is cached for them
+        assertThrows(UserException.class, () -> snapshots.scan(unknown, "5449000000996"));
+        assertThrows(UserException.class, () -> snapshots.get(unknown));
+        verify(productRepository, never()).findScanResultsByStoreId(unknown);
+
+        // A known store is loaded once; later changes go into the cached snapshot
+        assertEquals("COLA-330", snapshots.scan(storeId, "5449000000996").getSku());
+        snapshots.productChanged(storeId, milk);
+        assertEquals("MILK-1L", snapshots.scan(storeId, "0012345678905").getSku());
+        verify(productRepository, times(1)).findScanResultsByStoreId(storeId);
+        verify(storeRepository, times(1)).existsById(storeId);
+
+        // After an invalidation the next scan reloads
+        snapshots.invalidate(storeId);
+        assertNull(snapshots.scan(storeId, "0012345678905"));
+        verify(productRepository, times(2)).findScanResultsByStoreId(storeId);
+    }
+
+    private static ScanResult product(String sku, String barcode, String name, long priceMinor) {
+        return new ScanResult(UUID.randomUUID(), sku, barcode, name, priceMinor, TaxClass.STANDARD);
+    }
+}
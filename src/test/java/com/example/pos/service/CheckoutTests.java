@@ -0,0 +1,156 @@
+package com.example.pos.service;
+
+import com.example.pos.PosDataJpaTest;
+import com.example.pos.domain.TaxClass;
+import com.example.pos.domain.UserRole;
+import com.example.pos.exceptions.UserException;
+import com.example.pos.model.Product;
+import com.example.pos.model.Store;
+import com.example.pos.model.User;
+import com.example.pos.payload.dto.OrderDto;
+import com.example.pos.payload.request.CheckoutRequest;
+import com.example.pos.payload.response.CheckoutResult;
+import com.example.pos.repo.OrderRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Checkout prices baskets from the catalog, writes order + lines together, and turns a
+// retried Idempotency-Key into the original order instead of a second sale.
+@PosDataJpaTest
+class CheckoutTests {
+
+    @Autowired
+    private CheckoutService checkoutService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private StoreService storeService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private UUID storeId;
+    private UUID cashierId;
+    private final List<Product> products = new ArrayList<>();
+
+    @BeforeEach
+    void createStoreAndCatalog() {
+        LocalDateTime now = LocalDateTime.now();
+        User cashier = new User(null, "Cashier", "cashier@example.com", null, UserRole.ROLE_CASHIER, "hash", now, now, null, true);
+        entityManager.persist(cashier);
+        Store store = new Store("Game Osu", null, null, "Retail");
+        entityManager.persist(store);
+        for (int i = 0; i < 50; i++) {
+            Product product = new Product();
+            product.setStore(store);
+            product.setSku(String.format("SKU-%02d", i));
+            product.setBarcode(String.valueOf(600000000000L + i));
+            product.setName("Product " + i);
+            product.setPriceMinor(100 + i);
+            product.setTaxClass(i % 2 == 0 ? TaxClass.STANDARD : TaxClass.REDUCED);
+            entityManager.persist(product);
+            products.add(product);
+        }
+        entityManager.flush();
+        storeId = store.getId();
+        cashierId = cashier.getId();
+    }
+
+    @Test
+    void twentyLineBasketIsPricedFromTheCatalog() throws UserException {
+        CheckoutResult result = checkoutService.checkout(storeId, cashierId, "till-1-0001", basket(20, 3));
+        assertFalse(result.isReplayed());
+
+        entityManager.clear();
+        OrderDto saved = checkoutService.getOrder(storeId, result.getOrder().getId()).getOrder();
+        assertEquals(20, saved.getLines().size());
+        assertEquals(cashierId, saved.getCashierId());
+        assertEquals("SKU-00", saved.getLines().get(0).getSku());
+        assertEquals(1, saved.getLines().get(0).getLineNo());
+        assertEquals(3 * 101, saved.getLines().get(1).getLineTotalMinor());
+        assertEquals(TaxClass.REDUCED, saved.getLines().get(1).getTaxClass());
+        // 3 * (100 + 101 + ... + 119)
+        assertEquals(3 * (20 * 100 + 190), saved.getTotalMinor());
+        assertEquals(saved.getTotalMinor(), result.getOrder().getTotalMinor());
+    }
+
+    @Test
+    void retryWithTheSameKeyReturnsTheOriginalOrder() throws UserException {
+        CheckoutResult first = checkoutService.checkout(storeId, cashierId, "till-1-0002", basket(5, 1));
+        CheckoutResult retry = checkoutService.checkout(storeId, cashierId, "till-1-0002", basket(5, 1));
+
+        assertTrue(retry.isReplayed());
+        assertEquals(first.getOrder().getId(), retry.getOrder().getId());
+        assertEquals(5, retry.getOrder().getLines().size());
+        assertEquals(1, orderRepository.count());
+
+        // The same key in another store is a different sale
+        Store other = new Store("Game Tema", null, null, "Retail");
+        entityManager.persist(other);
+        entityManager.flush();
+        assertThrows(UserException.class,
+                () -> checkoutService.checkout(other.getId(), cashierId, "till-1-0002", basket(5, 1)));
+    }
+
+    @Test
+    void sameKeyWithADifferentBasketIsAConflict() throws UserException {
+        checkoutService.checkout(storeId, cashierId, "till-1-0003", basket(5, 1));
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> checkoutService.checkout(storeId, cashierId, "till-1-0003", basket(5, 2)));
+        assertEquals(HttpStatus.CONFLICT, e.getStatusCode());
+    }
+
+    @Test
+    void badRequestsAreRejected() {
+        CheckoutRequest unknown = basket(2, 1);
+        unknown.getLines().get(1).setProductId(UUID.randomUUID());
+
+        assertThrows(UserException.class, () -> checkoutService.checkout(storeId, cashierId, "till-1-0004", unknown));
+        assertThrows(UserException.class, () -> checkoutService.checkout(storeId, cashierId, null, basket(2, 1)));
+        assertThrows(UserException.class, () -> checkoutService.checkout(storeId, cashierId, "x".repeat(65), basket(2, 1)));
+        assertEquals(0, orderRepository.count());
+    }
+
+    @Test
+    void unknownCashierIsReportedAsSuch() {
+        UserException e = assertThrows(UserException.class,
+                () -> checkoutService.checkout(storeId, UUID.randomUUID(), "till-1-0005", basket(2, 1)));
+        assertEquals("Cashier not found!", e.getMessage());
+    }
+
+    @Test
+    void storeWithOrdersCannotBeDeleted() throws UserException {
+        checkoutService.checkout(storeId, cashierId, "till-1-0006", basket(2, 1));
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> storeService.deleteStore(storeId));
+        assertEquals(HttpStatus.CONFLICT, e.getStatusCode());
+        assertEquals(1, orderRepository.count());
+    }
+
+    private CheckoutRequest basket(int lines, int quantity) {
+        CheckoutRequest request = new CheckoutRequest();
+        request.setLines(new ArrayList<>());
+        for (int i = 0; i < lines; i++) {
+            CheckoutRequest.Line line = new CheckoutRequest.Line();
+            line.setProductId(products.get(i).getId());
+            line.setQuantity(quantity);
+            request.getLines().add(line);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.pos.service;
+
+import com.example.pos.model.Product;
+import com.example.pos.payload.response.ProductImportReport;
+import com.example.pos.repo.ChangeLogJdbcRepository;
+import com.example.pos.repo.ProductJdbcRepository;
+import com.example.pos.repo.ProductRepository;
+import com.example.pos.repo.StoreRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+// When a chunk's batch fails, the row-by-row retry must say why each row failed:
+// "SKU already exists" only when the SKU is really taken.
+class ProductImportFallbackTests {
+
+    private final UUID storeId = UUID.randomUUID();
+    private final StoreRepository storeRepository = mock(StoreRepository.class);
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final ProductJdbcRepository productJdbcRepository = mock(ProductJdbcRepository.class);
+    private final ProductImportService service = new ProductImportService(storeRepository, productRepository,
+            productJdbcRepository, Validation.buildDefaultValidatorFactory().getValidator(),
+            new TransactionTemplate(mock(PlatformTransactionManager.class)), mock(CatalogSnapshots.class),
+            mock(ChangeLogJdbcRepository.class), 2);
+
+    @Test
+    void failedRowsAreReportedByTheirRealCause() throws Throwable {
+        when(storeRepository.existsById(storeId)).thenReturn(true);
+        when(productRepository.findIdsBySkus(eq(storeId), anyList())).thenReturn(List.of());
+        when(productJdbcRepository.insertAll(eq(storeId), anyList()))
+                .thenThrow(new DataIntegrityViolationException("batch"));
+        // SKU-TAKEN was inserted by someone else meanwhile; SKU-BROKEN fails for another reason
+        doThrow(new DataIntegrityViolationException("row")).when(productJdbcRepository)
+                .insert(eq(storeId), argThat((Product p) -> !p.getSku().equals("SKU-OK")));
+        when(productRepository.existsByStoreIdAndSku(storeId, "SKU-TAKEN")).thenReturn(true);
+
+        ProductImportReport report = service.importProducts(storeId, csv(
+                "sku,name,priceMinor\nSKU-OK,Fine,100\nSKU-TAKEN,Taken,100\nSKU-BROKEN,Broken,100\n"));
+
+        assertEquals(1, report.getInserted());
+        assertEquals(2, report.getFailed());
+        assertEquals("SKU already exists in this store!", report.getErrors().get(0).getMessage());
+        assertEquals("Could not insert product", report.getErrors().get(1).getMessage());
+    }
+
+    @Test
+    void overlongNameFailsValidationAndRepeatsAcrossChunksAreUpdates() throws Throwable {
+        when(storeRepository.existsById(storeId)).thenReturn(true);
+        UUID firstId = UUID.randomUUID();
+        // chunk 1 = A, B (both new); chunk 2 = A again, which now exists
+        when(productRepository.findIdsBySkus(eq(storeId), anyList()))
+                .thenReturn(List.of())
+                .thenReturn(List.<Object[]>of(new Object[]{"SKU-A", firstId}));
+
+        ProductImportReport report = service.importProducts(storeId, csv(
+                "sku,name,priceMinor\nSKU-A,First,100\nSKU-B,Other,100\nSKU-A,Second,100\n"
+                        + "SKU-LONG," + "x".repeat(256) + ",100\n"));
+
+        assertEquals(2, report.getInserted());
+        assertEquals(1, report.getUpdated());
+        assertEquals(1, report.getFailed());
+        assertEquals("Product name is at most 255 characters", report.getErrors().get(0).getMessage());
+    }
+
+    private static ByteArrayInputStream csv(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
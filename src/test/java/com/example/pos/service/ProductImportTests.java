@@ -0,0 +1,91 @@
+package com.example.pos.service;
+
+import com.example.pos.PosDataJpaTest;
+import com.example.pos.domain.TaxClass;
+import com.example.pos.exceptions.UserException;
+import com.example.pos.model.Product;
+import com.example.pos.model.Store;
+import com.example.pos.payload.response.ProductImportReport;
+import com.example.pos.repo.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The catalog import must insert new SKUs, update existing ones and report bad rows,
+// all through batched statements.
+@PosDataJpaTest
+class ProductImportTests {
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private UUID storeId;
+
+    @BeforeEach
+    void createStore() {
+        Store store = new Store("Game Osu", null, null, "Retail");
+        entityManager.persist(store);
+        entityManager.flush();
+        storeId = store.getId();
+    }
+
+    @Test
+    void importsThenUpdatesACatalog() throws UserException {
+        StringBuilder csv = new StringBuilder("sku,barcode,name,priceMinor,taxClass\n");
+        for (int i = 0; i < 5000; i++) {
+            csv.append("SKU-").append(i).append(",").append(600000000000L + i)
+                    .append(",\"Product ").append(i).append(", 500ml\",").append(100 + i).append(",standard\n");
+        }
+        ProductImportReport first = productImportService.importProducts(storeId, csv(csv.toString()));
+        assertEquals(5000, first.getInserted());
+        assertEquals(0, first.getFailed());
+        assertEquals(5000, productRepository.count());
+
+        String second = "sku,name,priceMinor,taxClass\n" +
+                "SKU-1,Renamed,999,reduced\n" +      // existing
+                "SKU-NEW,New product,50,\n" +         // new, default tax class
+                "SKU-NEW,Again,50,zero\n" +           // duplicate in file
+                "SKU-BAD,Bad price,abc,zero\n" +      // unreadable
+                "SKU-NEG,Negative,-1,zero\n";         // fails validation
+        ProductImportReport report = productImportService.importProducts(storeId, csv(second));
+        assertEquals(5, report.getTotal());
+        assertEquals(1, report.getInserted());
+        assertEquals(1, report.getUpdated());
+        assertEquals(3, report.getFailed());
+        assertEquals("Duplicate SKU in this file", report.getErrors().get(0).getMessage());
+
+        entityManager.clear();
+        Product renamed = productRepository.findAll().stream()
+                .filter(p -> p.getSku().equals("SKU-1")).findFirst().orElseThrow();
+        assertEquals("Renamed", renamed.getName());
+        assertEquals(999, renamed.getPriceMinor());
+        assertEquals(TaxClass.REDUCED, renamed.getTaxClass());
+        assertEquals(1, renamed.getVersion());
+        assertEquals(5001, productRepository.count());
+    }
+
+    @Test
+    void unknownStoreOrMissingHeaderIsRejected() {
+        assertThrows(UserException.class,
+                () -> productImportService.importProducts(UUID.randomUUID(), csv("sku,name,priceMinor\n")));
+        assertThrows(UserException.class,
+                () -> productImportService.importProducts(storeId, csv("code,title\n")));
+    }
+
+    private static ByteArrayInputStream csv(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
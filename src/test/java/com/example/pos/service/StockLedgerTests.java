@@ -0,0 +1,153 @@
+package com.example.pos.service;
+
+import com.example.pos.PosDataJpaTest;
+import com.example.pos.domain.StockMovementType;
+import com.example.pos.domain.TaxClass;
+import com.example.pos.exceptions.UserException;
+import com.example.pos.model.Product;
+import com.example.pos.model.Store;
+import com.example.pos.payload.request.CheckoutRequest;
+import com.example.pos.repo.OrderRepository;
+import com.example.pos.repo.ProductRepository;
+import com.example.pos.repo.StockJdbcRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Stock is taken by checkout, refused once it runs out, and survives compaction and a reload.
+@PosDataJpaTest
+class StockLedgerTests {
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired
+    private CheckoutService checkoutService;
+
+    @Autowired
+    private StockJdbcRepository stockJdbcRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private UUID storeId;
+    private Product tracked;
+    private Product untracked;
+
+    @BeforeEach
+    void createStoreAndProducts() {
+        Store store = new Store("Game Osu", null, null, "Retail");
+        entityManager.persist(store);
+        tracked = product(store, "COLA-330");
+        untracked = product(store, "BAG-01");
+        entityManager.flush();
+        storeId = store.getId();
+    }
+
+    @Test
+    void checkoutTakesStockAndRefusesToOversell() throws UserException {
+        assertFalse(stockLedger.getAvailability(storeId, tracked.getId()).isTracked());
+        assertEquals(10, stockLedger.record(storeId, tracked.getId(), StockMovementType.RECEIPT, 10).getAvailable());
+
+        checkoutService.checkout(storeId, null, "till-1", basket(4));
+        checkoutService.checkout(storeId, null, "till-2", basket(4));
+        assertEquals(2, stockLedger.getAvailability(storeId, tracked.getId()).getAvailable());
+
+        // Only 2 left: refused, and nothing taken from the untracked bag on the same basket
+        assertThrows(UserException.class, () -> checkoutService.checkout(storeId, null, "till-3", basket(4)));
+        assertEquals(2, stockLedger.getAvailability(storeId, tracked.getId()).getAvailable());
+        assertEquals(2, orderRepository.count());
+
+        // A retry of a sale that went through is still answered with its order
+        assertTrue(checkoutService.checkout(storeId, null, "till-2", basket(4)).isReplayed());
+        assertEquals(2, stockLedger.getAvailability(storeId, tracked.getId()).getAvailable());
+
+        // Adjustments can't take it below zero either
+        assertThrows(UserException.class,
+                () -> stockLedger.record(storeId, tracked.getId(), StockMovementType.ADJUSTMENT, -3));
+        assertEquals(1, stockLedger.record(storeId, tracked.getId(), StockMovementType.ADJUSTMENT, -1).getAvailable());
+
+        assertEquals(4, count("select count(*) from stock_movements"));
+        assertFalse(stockLedger.getAvailability(storeId, untracked.getId()).isTracked());
+    }
+
+    @Test
+    void refusedFirstAdjustmentLeavesTheProductUntracked() throws UserException {
+        assertThrows(UserException.class,
+                () -> stockLedger.record(storeId, tracked.getId(), StockMovementType.ADJUSTMENT, -1));
+        assertFalse(stockLedger.getAvailability(storeId, tracked.getId()).isTracked());
+
+        // The first receipt still creates the level row, so the stock survives a restart
+        stockLedger.record(storeId, tracked.getId(), StockMovementType.RECEIPT, 5);
+        assertEquals(1, count("select count(*) from stock_levels"));
+        StockLedger restarted = new StockLedger(stockJdbcRepository, productRepository, transactionTemplate);
+        assertEquals(5, restarted.getAvailability(storeId, tracked.getId()).getAvailable());
+    }
+
+    @Test
+    void compactionFoldsTheLedgerIntoOnHand() throws UserException {
+        stockLedger.record(storeId, tracked.getId(), StockMovementType.RECEIPT, 10);
+        stockLedger.record(storeId, tracked.getId(), StockMovementType.ADJUSTMENT, -3);
+
+        assertEquals(1, stockLedger.compact());
+        assertEquals(7, count("select on_hand from stock_levels"));
+        assertEquals(0, stockLedger.compact());
+
+        // A sale whose transaction (this test's) hasn't ended yet: compaction must not pass it
+        checkoutService.checkout(storeId, null, "till-1", basket(2));
+        assertEquals(0, stockLedger.compact());
+        assertEquals(7, count("select on_hand from stock_levels"));
+
+        // A fresh ledger (a restart) reads level + newer movements
+        StockLedger restarted = new StockLedger(stockJdbcRepository, productRepository, transactionTemplate);
+        assertEquals(5, restarted.getAvailability(storeId, tracked.getId()).getAvailable());
+    }
+
+    private CheckoutRequest basket(int colas) {
+        CheckoutRequest request = new CheckoutRequest();
+        request.setLines(new ArrayList<>());
+        for (Product product : List.of(tracked, untracked)) {
+            CheckoutRequest.Line line = new CheckoutRequest.Line();
+            line.setProductId(product.getId());
+            line.setQuantity(product == tracked ? colas : 1);
+            request.getLines().add(line);
+        }
+        return request;
+    }
+
+    private Product product(Store store, String sku) {
+        Product product = new Product();
+        product.setStore(store);
+        product.setSku(sku);
+        product.setName(sku);
+        product.setPriceMinor(500);
+        product.setTaxClass(TaxClass.STANDARD);
+        entityManager.persist(product);
+        return product;
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
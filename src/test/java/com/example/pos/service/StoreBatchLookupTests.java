@@ -0,0 +1,86 @@
+package com.example.pos.service;
+
+import com.example.pos.PosDataJpaTest;
+import com.example.pos.domain.UserRole;
+import com.example.pos.exceptions.UserException;
+import com.example.pos.model.Store;
+import com.example.pos.model.User;
+import com.example.pos.payload.dto.StoreDto;
+import com.example.pos.payload.response.BatchLookupResult;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Resolving a page worth of store ids must be one query, not one per id.
+@PosDataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"
+})
+class StoreBatchLookupTests {
+
+    @Autowired
+    private StoreService storeService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final List<UUID> ids = new ArrayList<>();
+
+    @BeforeEach
+    void createStores() {
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 200; i++) {
+            User admin = new User(null, "Admin " + i, "admin" + i + "@example.com", null,
+                    UserRole.ROLE_STORE_MANAGER, "hash", now, now, null, true);
+            entityManager.persist(admin);
+            Store store = new Store("Store " + i, admin, null, "Retail");
+            entityManager.persist(store);
+            ids.add(store.getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void storesAndAdminsComeFromOneQuery() throws UserException {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        UUID missing = UUID.randomUUID();
+        List<UUID> request = new ArrayList<>(ids);
+        Collections.reverse(request);
+        request.add(1, missing);
+
+        statistics.clear();
+        BatchLookupResult<StoreDto> result = storeService.getStoresByIds(request);
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(200, result.getFound().size());
+        assertEquals(List.of(missing), result.getMissing());
+        assertEquals(ids.get(199), result.getFound().keySet().iterator().next());
+        assertTrue(result.getFound().values().stream().allMatch(dto -> dto.getStoreAdminName() != null));
+
+        // Second time round everything is cached
+        statistics.clear();
+        storeService.getStoresByIds(ids);
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void tooManyIdsAreRejected() {
+        List<UUID> tooMany = new ArrayList<>();
+        for (int i = 0; i <= StoreService.MAX_BATCH_IDS; i++) {
+            tooMany.add(UUID.randomUUID());
+        }
+        assertThrows(UserException.class, () -> storeService.getStoresByIds(tooMany));
+    }
+}
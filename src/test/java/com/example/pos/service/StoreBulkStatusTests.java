@@ -0,0 +1,113 @@
+package com.example.pos.service;
+
+import com.example.pos.PosDataJpaTest;
+import com.example.pos.domain.StoreStatus;
+import com.example.pos.exceptions.UserException;
+import com.example.pos.model.Store;
+import com.example.pos.payload.request.BulkStoreStatusRequest;
+import com.example.pos.payload.response.BulkStoreStatusResult;
+import com.example.pos.repo.StoreRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Changing the status of thousands of stores must be a handful of set-based statements,
+// not one select + update per store.
+@PosDataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"
+})
+class StoreBulkStatusTests {
+
+    @Autowired
+    private StoreService storeService;
+
+    @Autowired
+    private StoreRepository storeRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<UUID> retailIds = new ArrayList<>();
+
+    @BeforeEach
+    void createStores() {
+        for (int i = 0; i < 5000; i++) {
+            Store store = new Store("Store " + i, null, null, i % 5 == 0 ? "Wholesale" : "Retail");
+            entityManager.persist(store);
+            if (i % 5 != 0) {
+                retailIds.add(store.getId());
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void filterChangesMatchingStoresInChunkedStatements() throws UserException {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        BulkStoreStatusRequest request = new BulkStoreStatusRequest();
+        request.setStoreType("Retail");
+        request.setTargetStatus(StoreStatus.BLOCKED);
+        BulkStoreStatusResult result = storeService.changeStoreStatuses(request);
+
+        assertEquals(4000, result.getMatched());
+        assertEquals(4000, result.getUpdated());
+        assertEquals(0, result.getUnchanged());
+        // one id query + a locking select and an UPDATE per 1000 ids (the store counters move from the locked rows)
+        assertEquals(1 + 4 * 2, statistics.getPrepareStatementCount());
+        // The set-based UPDATE skips the entity listener, so the change log is written alongside it
+        assertEquals(4000, jdbcTemplate.queryForObject(
+                "select count(*) from change_log where entity_type = 'STORE' and operation = 'UPDATED'", Long.class));
+
+        entityManager.clear();
+        Store changed = storeRepository.findById(retailIds.get(0)).orElseThrow();
+        assertEquals(StoreStatus.BLOCKED, changed.getStatus());
+        assertEquals(1, changed.getVersion());
+        assertEquals(1000, storeRepository.findIds(StoreStatus.ACTIVE, null).size());
+    }
+
+    @Test
+    void idsReportMissingAndUnchangedStores() throws UserException {
+        UUID missing = UUID.randomUUID();
+        BulkStoreStatusRequest block = new BulkStoreStatusRequest();
+        block.setIds(List.of(retailIds.get(0), retailIds.get(1)));
+        block.setTargetStatus(StoreStatus.BLOCKED);
+        storeService.changeStoreStatuses(block);
+
+        BulkStoreStatusRequest request = new BulkStoreStatusRequest();
+        request.setIds(List.of(retailIds.get(0), retailIds.get(2), missing));
+        request.setTargetStatus(StoreStatus.BLOCKED);
+        BulkStoreStatusResult result = storeService.changeStoreStatuses(request);
+
+        assertEquals(2, result.getMatched());
+        assertEquals(1, result.getUpdated());
+        assertEquals(1, result.getUnchanged());
+        assertEquals(List.of(missing), result.getNotFound());
+        // Only the stores that actually changed are in the change log
+        assertEquals(3, jdbcTemplate.queryForObject(
+                "select count(*) from change_log where entity_type = 'STORE' and operation = 'UPDATED'", Long.class));
+    }
+
+    @Test
+    void emptySelectionIsRejected() {
+        BulkStoreStatusRequest request = new BulkStoreStatusRequest();
+        request.setTargetStatus(StoreStatus.BLOCKED);
+        assertThrows(UserException.class, () -> storeService.changeStoreStatuses(request));
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.pos.service;
+
+import com.example.pos.PosDataJpaTest;
+import com.example.pos.domain.StoreStatus;
+import com.example.pos.domain.UserRole;
+import com.example.pos.exceptions.UserException;
+import com.example.pos.model.Store;
+import com.example.pos.model.StoreContact;
+import com.example.pos.model.User;
+import com.example.pos.payload.dto.StoreDto;
+import com.example.pos.payload.request.BulkStoreStatusRequest;
+import com.example.pos.payload.request.StorePatchRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// GET /api/stores/{id} is answered from StoreCache: hits are counted, every kind of write
+// evicts, a read racing a write can't put stale data back, and callers can't change the cache.
+@PosDataJpaTest
+class StoreCacheTests {
+
+    @Autowired
+    private StoreService storeService;
+
+    @Autowired
+    private StoreCache storeCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private UUID storeId;
+
+    @BeforeEach
+    void createStore() {
+        LocalDateTime now = LocalDateTime.now();
+        User admin = new User(null, "Admin", "cache-admin@example.com", null,
+                UserRole.ROLE_STORE_MANAGER, "hash", now, now, null, true);
+        entityManager.persist(admin);
+        StoreContact contact = new StoreContact();
+        contact.setPhone("555-0100");
+        Store store = new Store("Game Osu", admin, "Flagship", "Retail");
+        store.setContact(contact);
+        entityManager.persist(store);
+        entityManager.flush();
+        entityManager.clear();
+        storeId = store.getId();
+        storeCache.invalidate(storeId);
+    }
+
+    @Test
+    void repeatedReadsAreCacheHits() throws UserException {
+        double hits = gets("hit");
+        double misses = gets("miss");
+
+        storeService.getStoreById(storeId);
+        storeService.getStoreById(storeId);
+        storeService.getStoresByIds(List.of(storeId));
+
+        assertEquals(misses + 1, gets("miss"));
+        assertEquals(hits + 2, gets("hit"));
+        assertThrows(UserException.class, () -> storeService.getStoreById(UUID.randomUUID()));
+    }
+
+    @Test
+    void callersGetTheirOwnCopy() throws UserException {
+        StoreDto first = storeService.getStoreById(storeId);
+        first.setBrand("Scribbled on");
+        first.getContact().setPhone("000");
+
+        StoreDto second = storeService.getStoreById(storeId);
+        assertEquals("Game Osu", second.getBrand());
+        assertEquals("555-0100", second.getContact().getPhone());
+        assertNotSame(first, second);
+    }
+
+    @Test
+    void everyWriteEvicts() throws UserException {
+        storeService.getStoreById(storeId);
+        StoreDto update = storeService.getStoreById(storeId);
+        update.setBrand("Game Osu Mall");
+        storeService.updateStore(storeId, update);
+        assertEquals("Game Osu Mall", storeService.getStoreById(storeId).getBrand());
+
+        StorePatchRequest patch = new StorePatchRequest();
+        patch.setDescription("Patched");
+        storeService.patchStore(storeId, patch, storeService.getStoreById(storeId).getVersion());
+        assertEquals("Patched", storeService.getStoreById(storeId).getDescription());
+
+        storeService.changeStoreStatus(storeId, StoreStatus.BLOCKED);
+        assertEquals(StoreStatus.BLOCKED, storeService.getStoreById(storeId).getStatus());
+
+        BulkStoreStatusRequest bulk = new BulkStoreStatusRequest();
+        bulk.setIds(List.of(storeId));
+        bulk.setTargetStatus(StoreStatus.ACTIVE);
+        storeService.changeStoreStatuses(bulk);
+        entityManager.clear();  // the bulk UPDATE bypasses the persistence context
+        assertEquals(StoreStatus.ACTIVE, storeService.getStoreById(storeId).getStatus());
+
+        storeService.deleteStore(storeId);
+        assertThrows(UserException.class, () -> storeService.getStoreById(storeId));
+    }
+
+    @Test
+    void loadThatRacedAnEvictionIsNotCached() {
+        // A batch read starts, then a write evicts before the read puts its result
+        long generation = storeCache.generation();
+        StoreDto loadedBeforeTheWrite = new StoreDto();
+        loadedBeforeTheWrite.setId(storeId);
+        loadedBeforeTheWrite.setBrand("Stale");
+        storeCache.invalidate(storeId);
+
+        storeCache.putIfNotInvalidatedSince(loadedBeforeTheWrite, generation);
+        assertNull(storeCache.getIfPresent(storeId));
+
+        // Without a write in between it is cached
+        storeCache.putIfNotInvalidatedSince(loadedBeforeTheWrite, storeCache.generation());
+        assertEquals("Stale", storeCache.getIfPresent(storeId).getBrand());
+        storeCache.invalidate(storeId);
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", "stores").tag("result", result)
+                .functionCounter().count();
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.pos.service;
+
+import com.example.pos.PosDataJpaTest;
+import com.example.pos.domain.UserRole;
+import com.example.pos.model.Store;
+import com.example.pos.model.StoreContact;
+import com.example.pos.model.User;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The export writes every store in order, in valid NDJSON or CSV, and keeps nothing
+// in the persistence context once a row is written.
+@PosDataJpaTest
+class StoreExportTests {
+
+    @Autowired
+    private StoreExportService storeExportService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void ndjsonHasOneStorePerLine() throws Exception {
+        seed(3);
+
+        String body = export(StoreExportService.Format.NDJSON);
+
+        assertTrue(body.endsWith("}\n"), body);
+        String[] lines = body.split("\n");
+        assertEquals(3, lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            JsonNode store = objectMapper.readTree(lines[i]);
+            assertEquals("Store " + i, store.get("brand").asText());
+        }
+        assertEquals("Ama Mensah", objectMapper.readTree(lines[0]).get("storeAdminName").asText());
+    }
+
+    @Test
+    void noStoresIsAnEmptyNdjsonBody() throws Exception {
+        assertEquals("", export(StoreExportService.Format.NDJSON));
+    }
+
+    @Test
+    void csvHasAHeaderAndQuotesAwkwardFields() throws Exception {
+        seed(2);
+
+        String[] lines = export(StoreExportService.Format.CSV).split("\n");
+
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("id,brand,storeType,status,"));
+        assertTrue(lines[1].contains(",Store 0,Retail,ACTIVE,\"Branch 0, \"\"the big one\"\"\","), lines[1]);
+        assertTrue(lines[2].contains(",Store 1,"), lines[2]);
+    }
+
+    @Test
+    void exportedRowsAreNotKeptInThePersistenceContext() throws Exception {
+        seed(50);
+
+        export(StoreExportService.Format.NDJSON);
+
+        assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    private void seed(int stores) {
+        LocalDateTime now = LocalDateTime.now();
+        User admin = new User(null, "Ama Mensah", "ama@example.com", null, UserRole.ROLE_ADMIN, "hash", now, now, null, true);
+        entityManager.persist(admin);
+        for (int i = 0; i < stores; i++) {
+            // A user runs at most one store
+            Store store = new Store("Store " + i, i == 0 ? admin : null, "Branch " + i + ", \"the big one\"", "Retail");
+            store.setContact(new StoreContact());
+            entityManager.persist(store);
+            entityManager.flush();  // createdAt orders the export
+        }
+        entityManager.clear();
+    }
+
+    private String export(StoreExportService.Format format) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        storeExportService.export(format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
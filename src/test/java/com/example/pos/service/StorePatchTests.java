@@ -0,0 +1,148 @@
+package com.example.pos.service;
+
+import com.example.pos.PosDataJpaTest;
+import com.example.pos.exceptions.UserException;
+import com.example.pos.model.Store;
+import com.example.pos.model.StoreContact;
+import com.example.pos.payload.dto.StoreDto;
+import com.example.pos.payload.request.StorePatchRequest;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// PATCH must write only the columns that changed, and refuse to overwrite a newer version.
+@PosDataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.example.pos.service.StorePatchTests$RecordingInspector",
+        "spring.jpa.show-sql=false"
+})
+class StorePatchTests {
+
+    public static class RecordingInspector implements StatementInspector {
+        static final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql.toLowerCase(Locale.ROOT));
+            return sql;
+        }
+    }
+
+    @Autowired
+    private StoreService storeService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID storeId;
+
+    @BeforeEach
+    void createStore() {
+        Store store = new Store("Game Osu", null, "Main branch", "Retail");
+        StoreContact contact = new StoreContact();
+        contact.setPhone("+233 24 123 4567");
+        contact.setAddress("Oxford Street, Osu");
+        store.setContact(contact);
+        entityManager.persist(store);
+        entityManager.flush();
+        entityManager.clear();
+        storeId = store.getId();
+    }
+
+    @Test
+    void onlyChangedColumnsAreWritten() throws UserException {
+        StorePatchRequest patch = new StorePatchRequest();
+        patch.setPhone("+233 24 765 4321");
+        RecordingInspector.statements.clear();
+
+        StoreDto patched = storeService.patchStore(storeId, patch, 0);
+
+        List<String> updates = RecordingInspector.statements.stream().filter(sql -> sql.startsWith("update")).toList();
+        assertEquals(1, updates.size());
+        String update = updates.get(0);
+        assertTrue(update.contains("phone"), update);
+        assertFalse(update.contains("brand"), update);
+        assertFalse(update.contains("description"), update);
+        assertTrue(update.contains("version=?"), update);
+
+        assertEquals(1, patched.getVersion());
+        assertEquals("+233 24 765 4321", patched.getContact().getPhone());
+        assertEquals("Oxford Street, Osu", patched.getContact().getAddress());
+        assertEquals("Game Osu", patched.getBrand());
+    }
+
+    @Test
+    void staleVersionIsAConflict() throws UserException {
+        StorePatchRequest first = new StorePatchRequest();
+        first.setDescription("Renovated");
+        storeService.patchStore(storeId, first, 0);
+
+        StorePatchRequest second = new StorePatchRequest();
+        second.setDescription("Closed for renovation");
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> storeService.patchStore(storeId, second, 0));
+        assertEquals(HttpStatus.CONFLICT, e.getStatusCode());
+    }
+
+    @Test
+    void concurrentChangeBetweenReadAndWriteIsAConflict() {
+        // Load the store, then let "another admin" bump the row behind Hibernate's back
+        entityManager.find(Store.class, storeId);
+        jdbcTemplate.update("update stores set description = 'Other edit', version = version + 1");
+
+        StorePatchRequest patch = new StorePatchRequest();
+        patch.setDescription("My edit");
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> storeService.patchStore(storeId, patch, 0));
+        assertEquals(HttpStatus.CONFLICT, e.getStatusCode());
+    }
+
+    @Test
+    void missingStoreIsNotFound() {
+        assertThrows(UserException.class,
+                () -> storeService.patchStore(UUID.randomUUID(), new StorePatchRequest(), 0));
+    }
+
+    @Test
+    void takenBrandIsAUserException() {
+        entityManager.persist(new Store("Shoprite Accra Mall", null, "Mall branch", "Retail"));
+        entityManager.flush();
+
+        StorePatchRequest patch = new StorePatchRequest();
+        patch.setBrand("Shoprite Accra Mall");
+        UserException e = assertThrows(UserException.class, () -> storeService.patchStore(storeId, patch, 0));
+        assertEquals("Store brand already exists!", e.getMessage());
+    }
+
+    @Test
+    void blankBrandIsRejectedButMissingBrandIsFine() {
+        try (ValidatorFactory factory = Validation.buildDefaultValidatorFactory()) {
+            Validator validator = factory.getValidator();
+            StorePatchRequest patch = new StorePatchRequest();
+            assertTrue(validator.validate(patch).isEmpty());
+
+            patch.setBrand("   ");
+            assertEquals(1, validator.validate(patch).size());
+
+            patch.setBrand("Game Osu");
+            assertTrue(validator.validate(patch).isEmpty());
+        }
+    }
+}
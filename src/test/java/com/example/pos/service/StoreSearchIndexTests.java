@@ -0,0 +1,124 @@
+package com.example.pos.service;
+
+import com.example.pos.domain.StoreStatus;
+import com.example.pos.exceptions.UserException;
+import com.example.pos.model.Store;
+import com.example.pos.model.StoreContact;
+import com.example.pos.payload.response.CursorPage;
+import com.example.pos.payload.response.StoreSearchHit;
+import com.example.pos.repo.StoreRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class StoreSearchIndexTests {
+
+    private StoreSearchIndex index;
+    private StoreSearchIndex rebuilding;
+
+    @BeforeEach
+    void buildIndex() {
+        StoreRepository repository = mock(StoreRepository.class);
+        when(repository.findAllSearchHits()).thenReturn(List.of(
+                hit("Shoprite Accra Mall", "Retail", "Spintex Road, Accra"),
+                hit("Game Osu", "Wholesale", "Oxford Street, Osu, Accra"),
+                hit("Melcom Kumasi", "Retail", "Adum, Kumasi")));
+        index = new StoreSearchIndex(repository);
+        index.rebuild();
+    }
+
+    @Test
+    void everyWordIsMatchedAsAPrefix() throws UserException {
+        assertEquals(List.of("Game Osu", "Shoprite Accra Mall"), brands(index.search("acc", null, 10)));
+        assertEquals(List.of("Shoprite Accra Mall"), brands(index.search("shop ACC", null, 10)));
+        assertEquals(List.of("Game Osu"), brands(index.search("whole oxford", null, 10)));
+        assertEquals(List.of(), brands(index.search("shop kumasi", null, 10)));
+    }
+
+    @Test
+    void writesAreVisibleImmediately() throws UserException {
+        Store store = new Store("Accra Fresh", null, null, "Grocery");
+        store.setId(UUID.randomUUID());
+        store.setContact(new StoreContact());
+        index.put(store);
+        assertEquals(List.of("Accra Fresh", "Game Osu", "Shoprite Accra Mall"), brands(index.search("accra", null, 10)));
+
+        store.setBrand("Kumasi Fresh");
+        index.put(store);
+        assertEquals(List.of("Game Osu", "Shoprite Accra Mall"), brands(index.search("accra", null, 10)));
+        assertEquals(List.of("Kumasi Fresh"), brands(index.search("fresh", null, 10)));
+
+        index.updateStatus(List.of(store.getId()), StoreStatus.BLOCKED);
+        assertEquals(StoreStatus.BLOCKED, index.search("fresh", null, 10).getItems().get(0).getStatus());
+
+        index.remove(store.getId());
+        assertEquals(List.of(), brands(index.search("fresh", null, 10)));
+    }
+
+    @Test
+    void writesDuringARebuildAreNotLost() throws UserException {
+        Store added = new Store("Accra Fresh", null, null, "Grocery");
+        added.setId(UUID.randomUUID());
+        UUID game = index.search("game", null, 10).getItems().get(0).getId();
+
+        // The stores are read before these writes, and the writes land before the new state is swapped in
+        StoreRepository repository = mock(StoreRepository.class);
+        when(repository.findAllSearchHits()).thenAnswer(invocation -> {
+            List<StoreSearchHit> before = List.of(
+                    new StoreSearchHit(game, "Game Osu", "Wholesale", StoreStatus.ACTIVE, "Oxford Street, Osu, Accra"));
+            rebuilding.put(added);
+            rebuilding.updateStatus(List.of(game), StoreStatus.BLOCKED);
+            return before;
+        });
+        rebuilding = new StoreSearchIndex(repository);
+        rebuilding.rebuild();
+
+        assertEquals(List.of("Accra Fresh", "Game Osu"), brands(rebuilding.search("accra", null, 10)));
+        assertEquals(StoreStatus.BLOCKED, rebuilding.search("game", null, 10).getItems().get(0).getStatus());
+    }
+
+    @Test
+    void resultsSurviveCompaction() throws UserException {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < StoreSearchIndex.COMPACT_AT + 10; i++) {
+            Store store = new Store(String.format("Kiosk %05d", i), null, null, "Retail");
+            store.setId(UUID.randomUUID());
+            index.put(store);
+            ids.add(store.getId());
+        }
+        index.remove(ids.get(0));
+
+        CursorPage<StoreSearchHit> page = index.search("kiosk", null, 2);
+        assertEquals(List.of("Kiosk 00001", "Kiosk 00002"), brands(page));
+        assertEquals(List.of("Kiosk 00003", "Kiosk 00004"), brands(index.search("kiosk", page.getNextCursor(), 2)));
+        assertEquals(3 + StoreSearchIndex.COMPACT_AT + 9, index.size());
+    }
+
+    @Test
+    void pagesFollowTheCursorInBrandOrder() throws UserException {
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<StoreSearchHit> page = index.search("a", cursor, 1);
+            seen.addAll(brands(page));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(List.of("Game Osu", "Melcom Kumasi", "Shoprite Accra Mall"), seen);
+        assertThrows(UserException.class, () -> index.search("a", "not a cursor", 1));
+    }
+
+    private static StoreSearchHit hit(String brand, String storeType, String address) {
+        return new StoreSearchHit(UUID.randomUUID(), brand, storeType, StoreStatus.ACTIVE, address);
+    }
+
+    private static List<String> brands(CursorPage<StoreSearchHit> page) {
+        return page.getItems().stream().map(StoreSearchHit::getBrand).toList();
+    }
+}
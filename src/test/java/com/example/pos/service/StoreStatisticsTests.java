@@ -0,0 +1,148 @@
+package com.example.pos.service;
+
+import com.example.pos.PosDataJpaTest;
+import com.example.pos.domain.StoreStatus;
+import com.example.pos.domain.UserRole;
+import com.example.pos.exceptions.UserException;
+import com.example.pos.model.Store;
+import com.example.pos.model.User;
+import com.example.pos.payload.dto.StoreDto;
+import com.example.pos.payload.request.BulkStoreStatusRequest;
+import com.example.pos.payload.response.StoreStats;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The counters behind /api/stores/stats must track every write path and agree with a fresh count.
+@PosDataJpaTest
+class StoreStatisticsTests {
+
+    @Autowired
+    private StoreService storeService;
+
+    @Autowired
+    private StoreStatistics statistics;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User admin;
+
+    @BeforeEach
+    void seed() {
+        LocalDateTime now = LocalDateTime.now();
+        admin = new User(null, "Admin", "admin@example.com", null, UserRole.ROLE_ADMIN, "hash", now, now, null, true);
+        entityManager.persist(admin);
+        entityManager.persist(new Store("Seeded Retail", null, null, "Retail"));
+        entityManager.persist(new Store("Seeded Wholesale", null, null, "Wholesale"));
+        entityManager.flush();
+        statistics.reconcile();
+    }
+
+    @Test
+    void everyWritePathMovesTheCounters() throws UserException {
+        StoreDto dto = new StoreDto();
+        dto.setBrand("Game Osu");
+        dto.setStoreType("Retail");
+        StoreDto created = storeService.createStore(dto, admin.getId());
+        assertCounts(3, 3, 0, Map.of("Retail", 2L, "Wholesale", 1L));
+
+        storeService.changeStoreStatus(created.getId(), StoreStatus.BLOCKED);
+        assertCounts(3, 2, 1, Map.of("Retail", 2L, "Wholesale", 1L));
+
+        dto.setStoreType("Restaurant");
+        dto.setStatus(StoreStatus.ACTIVE);
+        storeService.updateStore(created.getId(), dto);
+        assertCounts(3, 3, 0, Map.of("Retail", 1L, "Wholesale", 1L, "Restaurant", 1L));
+
+        BulkStoreStatusRequest bulk = new BulkStoreStatusRequest();
+        bulk.setStoreType("Wholesale");
+        bulk.setTargetStatus(StoreStatus.BLOCKED);
+        storeService.changeStoreStatuses(bulk);
+        assertCounts(3, 2, 1, Map.of("Retail", 1L, "Wholesale", 1L, "Restaurant", 1L));
+
+        storeService.deleteStore(created.getId());
+        assertCounts(2, 1, 1, Map.of("Retail", 1L, "Wholesale", 1L));
+
+        // A fresh count from the database agrees
+        StoreStats before = statistics.snapshot();
+        statistics.reconcile();
+        assertEquals(before, statistics.snapshot());
+    }
+
+    @Test
+    void countTakenDuringAWriteIsNotApplied() {
+        // The row is in the database before the write path gets to move the counters
+        statistics.writeStarted();
+        entityManager.persist(new Store("Mid-write Retail", null, null, "Retail"));
+        entityManager.flush();
+        statistics.reconcile();
+        statistics.created(StoreStatus.ACTIVE, "Retail");
+        statistics.writeFinished();
+
+        // Counted once, not once by reconcile and again by created()
+        assertCounts(3, 3, 0, Map.of("Retail", 2L, "Wholesale", 1L));
+        statistics.reconcile();
+        assertCounts(3, 3, 0, Map.of("Retail", 2L, "Wholesale", 1L));
+    }
+
+    @Test
+    void bulkChangeMovesTheCountersWhileAnotherWriteIsRunning() throws UserException {
+        // A recount would be skipped now; the bulk path moves the counters itself
+        statistics.writeStarted();
+        try {
+            BulkStoreStatusRequest bulk = new BulkStoreStatusRequest();
+            bulk.setStoreType("Wholesale");
+            bulk.setTargetStatus(StoreStatus.BLOCKED);
+            storeService.changeStoreStatuses(bulk);
+            assertCounts(2, 1, 1, Map.of("Retail", 1L, "Wholesale", 1L));
+
+            // Already blocked: nothing moves
+            storeService.changeStoreStatuses(bulk);
+            assertCounts(2, 1, 1, Map.of("Retail", 1L, "Wholesale", 1L));
+        } finally {
+            statistics.writeFinished();
+        }
+    }
+
+    @Test
+    void seedWaitsForRunningWritesInsteadOfGivingUp() throws InterruptedException {
+        CountDownLatch writing = new CountDownLatch(1);
+        AtomicBoolean finished = new AtomicBoolean();
+        Thread writer = new Thread(() -> {
+            statistics.writeStarted();
+            statistics.created(StoreStatus.ACTIVE, "Retail");  // a write that never happened: seed must replace it
+            writing.countDown();
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            finished.set(true);
+            statistics.writeFinished();
+        });
+        writer.start();
+        writing.await();
+
+        statistics.seed();
+        assertTrue(finished.get());
+        assertCounts(2, 2, 0, Map.of("Retail", 1L, "Wholesale", 1L));
+        writer.join();
+    }
+
+    private void assertCounts(long total, long active, long blocked, Map<String, Long> byType) {
+        StoreStats stats = storeService.getStoreStats();
+        assertEquals(total, stats.getTotal());
+        assertEquals(active, stats.getByStatus().get(StoreStatus.ACTIVE));
+        assertEquals(blocked, stats.getByStatus().get(StoreStatus.BLOCKED));
+        assertEquals(byType, stats.getByStoreType());
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.pos.service;
+
+import com.example.pos.PosDataJpaTest;
+import com.example.pos.domain.ChangeOperation;
+import com.example.pos.domain.SyncEntity;
+import com.example.pos.domain.TaxClass;
+import com.example.pos.domain.UserRole;
+import com.example.pos.exceptions.UserException;
+import com.example.pos.model.Product;
+import com.example.pos.model.Store;
+import com.example.pos.model.User;
+import com.example.pos.payload.dto.ProductDto;
+import com.example.pos.payload.response.SyncChange;
+import com.example.pos.payload.response.SyncPage;
+import com.example.pos.repo.JdbcUuids;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// JPA writes feed the change log; a terminal syncing from its cursor gets each changed entity
+// once, with its current data, and tombstones for deletes. Entries are only served once their
+// transaction has ended, so these tests write in their own transactions (and clean up after).
+@PosDataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SyncTests {
+
+    @Autowired
+    private SyncService syncService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Store osu;
+    private Store tema;
+    private long start;
+
+    @BeforeEach
+    void startFromTheHead() throws UserException {
+        start = syncService.getChanges(null, null, null).getNextCursor();
+        osu = new Store("Game Osu", null, null, "Retail");
+        tema = new Store("Game Tema", null, null, "Retail");
+        inTransaction(() -> {
+            entityManager.persist(osu);
+            entityManager.persist(tema);
+        });
+    }
+
+    @AfterEach
+    void removeTestData() {
+        for (Store store : List.of(osu, tema)) {
+            jdbcTemplate.update("delete from products where store_id = ?", JdbcUuids.toBytes(store.getId()));
+            jdbcTemplate.update("delete from stores where id = ?", JdbcUuids.toBytes(store.getId()));
+        }
+        jdbcTemplate.update("delete from users where email = 'cashier@example.com'");
+    }
+
+    @Test
+    void changesAfterTheCursorWithLatestDataAndTombstones() throws UserException {
+        Product cola = product(osu, "COLA-330");
+        Product bag = product(osu, "BAG-01");
+        inTransaction(() -> {
+            entityManager.merge(cola).setPriceMinor(700);
+            entityManager.remove(entityManager.merge(bag));
+        });
+
+        SyncPage page = syncService.getChanges(start, null, null);
+        assertFalse(page.isHasMore());
+
+        // Two stores, and each product once with its latest change
+        assertEquals(4, page.getChanges().size());
+        SyncChange colaChange = find(page, cola);
+        assertEquals(ChangeOperation.UPDATED, colaChange.getOperation());
+        assertEquals(700, ((ProductDto) colaChange.getData()).getPriceMinor());
+        SyncChange bagChange = find(page, bag);
+        assertEquals(ChangeOperation.DELETED, bagChange.getOperation());
+        assertNull(bagChange.getData());
+
+        // Nothing new after the returned cursor
+        assertTrue(syncService.getChanges(page.getNextCursor(), null, null).getChanges().isEmpty());
+        assertEquals(page.getNextCursor(), syncService.getChanges(null, null, null).getNextCursor());
+    }
+
+    @Test
+    void pagesFollowTheCursorAndStoreFilterKeepsUsers() throws UserException {
+        for (int i = 0; i < 5; i++) {
+            product(osu, "OSU-" + i);
+            product(tema, "TEMA-" + i);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        inTransaction(() -> entityManager.persist(new User(null, "Cashier", "cashier@example.com", null,
+                UserRole.ROLE_CASHIER, "hash", now, now, null, true)));
+
+        // Only Osu's store, its five products and the user
+        long cursor = start;
+        int seen = 0;
+        SyncPage page;
+        do {
+            page = syncService.getChanges(cursor, osu.getId(), 3);
+            for (SyncChange change : page.getChanges()) {
+                assertTrue(change.getEntity() == SyncEntity.USER || change.getId().equals(osu.getId())
+                        || ((ProductDto) change.getData()).getStoreId().equals(osu.getId()));
+                seen++;
+            }
+            cursor = page.getNextCursor();
+        } while (page.isHasMore());
+        assertEquals(1 + 5 + 1, seen);
+
+        assertThrows(UserException.class, () -> syncService.getChanges(-1L, null, null));
+    }
+
+    @Test
+    void entriesOfARunningTransactionAreNotServed() throws UserException {
+        long head = syncService.getChanges(null, null, null).getNextCursor();
+
+        // Its entry is already in the table (and visible to this connection), but not committed
+        Product cola = transactionTemplate.execute(status -> {
+            Product written = product(osu, "COLA-330");
+            entityManager.flush();
+            try {
+                assertEquals(head, syncService.getChanges(null, null, null).getNextCursor());
+                assertTrue(syncService.getChanges(head, null, null).getChanges().isEmpty());
+            } catch (UserException e) {
+                throw new IllegalStateException(e);
+            }
+            return written;
+        });
+
+        SyncPage page = syncService.getChanges(head, null, null);
+        assertEquals(cola.getId(), page.getChanges().get(0).getId());
+    }
+
+    @Test
+    void purgedCursorsAreToldToDownloadEverything() throws UserException {
+        // Both store entries are older than the retention window
+        jdbcTemplate.update("update change_log set created_at = ? where id > ?",
+                Timestamp.valueOf(LocalDateTime.now().minusDays(31)), start);
+
+        // The newest is always kept
+        assertTrue(syncService.purgeExpired() >= 1);
+        assertEquals(1, jdbcTemplate.queryForObject("select count(*) from change_log where id > ?", Long.class, start));
+        long head = syncService.getChanges(null, null, null).getNextCursor();
+        assertEquals(0, syncService.purgeExpired());
+
+        ResponseStatusException gone = assertThrows(ResponseStatusException.class,
+                () -> syncService.getChanges(start, null, null));
+        assertEquals(HttpStatus.GONE, gone.getStatusCode());
+        assertEquals(1, syncService.getChanges(head - 1, null, null).getChanges().size());
+    }
+
+    private void inTransaction(Runnable work) {
+        transactionTemplate.executeWithoutResult(status -> work.run());
+    }
+
+    private Product product(Store store, String sku) {
+        Product product = new Product();
+        product.setSku(sku);
+        product.setName(sku);
+        product.setPriceMinor(500);
+        product.setTaxClass(TaxClass.STANDARD);
+        inTransaction(() -> {
+            product.setStore(entityManager.getReference(Store.class, store.getId()));
+            entityManager.persist(product);
+        });
+        return product;
+    }
+
+    private static SyncChange find(SyncPage page, Product product) {
+        List<SyncChange> matches = page.getChanges().stream().filter(c -> c.getId().equals(product.getId())).toList();
+        assertEquals(1, matches.size());
+        return matches.get(0);
+    }
+}
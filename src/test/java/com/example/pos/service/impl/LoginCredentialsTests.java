@@ -0,0 +1,175 @@
+package com.example.pos.service.impl;
+
+import com.example.pos.configuration.JwtProvider;
+import com.example.pos.configuration.TokenRevocationList;
+import com.example.pos.domain.UserRole;
+import com.example.pos.model.User;
+import com.example.pos.payload.dto.UserDto;
+import com.example.pos.payload.response.AuthResponse;
+import com.example.pos.repo.UserCredentials;
+import com.example.pos.repo.UserRepository;
+import com.example.pos.service.StoreCache;
+import com.example.pos.service.UniqueKeyFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+// Logins are answered from the cached credentials (no User load), the cache can be
+// invalidated by user id without scanning its entries, and a change is dropped from it
+// again once its transaction has committed.
+class LoginCredentialsTests {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserCredentialsCache cache =
+            new UserCredentialsCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(10));
+    private final CustomUserImpl customUserImpl = new CustomUserImpl(userRepository, cache);
+    private final PasswordHashingService passwordHashingService = mock(PasswordHashingService.class);
+    private final LastLoginRecorder lastLoginRecorder = mock(LastLoginRecorder.class);
+    private final AuthServiceImpl authService = new AuthServiceImpl(userRepository, new JwtProvider(),
+            customUserImpl, passwordHashingService, lastLoginRecorder, cache,
+            mock(UniqueKeyFilter.class), mock(TokenRevocationList.class));
+
+    private final UUID id = UUID.randomUUID();
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void secondLoginIsServedFromTheCache() throws Throwable {
+        when(userRepository.findCredentialsByEmail("cashier@example.com"))
+                .thenReturn(Optional.of(credentials("cashier@example.com", 3)));
+        when(passwordHashingService.matches("secret", "hash")).thenReturn(true);
+
+        AuthResponse first = authService.login(login("cashier@example.com"));
+        AuthResponse second = authService.login(login("cashier@example.com"));
+
+        assertNotNull(second.getJwt());
+        UserDto user = second.getUser();
+        assertEquals(id, user.getId());
+        assertEquals("Cashier", user.getFullname());
+        assertEquals("555", user.getPhone());
+        assertEquals(UserRole.ROLE_CASHIER, user.getRole());
+        assertEquals(3L, user.getVersion());
+        assertNotNull(user.getLastLogin());
+        assertNotNull(first.getUser().getLastLogin());
+
+        verify(userRepository, times(1)).findCredentialsByEmail("cashier@example.com");
+        verify(userRepository, never()).findByEmail(anyString());
+        verify(lastLoginRecorder, times(2)).record(eq(id), any(LocalDateTime.class));
+    }
+
+    @Test
+    void rehashDropsTheCachedCredentialsAndReportsTheNewVersion() throws Throwable {
+        when(userRepository.findCredentialsByEmail("cashier@example.com"))
+                .thenReturn(Optional.of(credentials("cashier@example.com", 3)));
+        when(passwordHashingService.matches("secret", "hash")).thenReturn(true);
+        when(passwordHashingService.needsRehash("hash")).thenReturn(true);
+        when(passwordHashingService.encode("secret")).thenReturn("stronger");
+
+        AuthResponse response = authService.login(login("cashier@example.com"));
+
+        assertEquals(4L, response.getUser().getVersion());
+        verify(userRepository).updatePassword(eq(id), eq("stronger"), any(LocalDateTime.class));
+
+        // the next login reads the new hash instead of the cached one
+        customUserImpl.loadCredentials("cashier@example.com");
+        verify(userRepository, times(2)).findCredentialsByEmail("cashier@example.com");
+    }
+
+    @Test
+    void invalidateByIdFindsTheEntryUnderItsOldEmail() {
+        AtomicInteger loads = new AtomicInteger();
+        Function<String, Optional<UserCredentials>> loader = email -> {
+            loads.incrementAndGet();
+            return Optional.of(credentials(email, 1));
+        };
+
+        cache.get("old@example.com", loader);
+        cache.get("old@example.com", loader);
+        assertEquals(1, loads.get());
+
+        // the email changed, so only the id identifies the stale entry
+        cache.invalidate(id);
+        cache.get("old@example.com", loader);
+        assertEquals(2, loads.get());
+
+        // once reloaded under the new email, the index follows it there
+        cache.invalidate("old@example.com");
+        cache.get("new@example.com", loader);
+        cache.invalidate(id);
+        cache.get("new@example.com", loader);
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void loginBetweenFlushAndCommitDoesNotKeepTheOldRow() {
+        UserCacheInvalidationListener listener = new UserCacheInvalidationListener(cache, mock(StoreCache.class));
+        LocalDateTime now = LocalDateTime.now();
+        User deactivated = new User(id, "Cashier", "cashier@example.com", "555", UserRole.ROLE_CASHIER, "hash",
+                now, now, null, false);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // The update is flushed but not committed: a login meanwhile still reads the active row
+            listener.userChanged(deactivated);
+            assertTrue(cache.get("cashier@example.com", email -> Optional.of(credentials(email, 1))).get().isActive());
+
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Once committed, the next login reads the deactivated row
+        UserCredentials committed = new UserCredentials(id, "cashier@example.com", "hash", UserRole.ROLE_CASHIER,
+                false, "Cashier", "555", now, now, 2L);
+        assertFalse(cache.get("cashier@example.com", email -> Optional.of(committed)).get().isActive());
+    }
+
+    @Test
+    void missingUserIsNotCachedAndInvalidateIsHarmless() {
+        AtomicInteger loads = new AtomicInteger();
+        Function<String, Optional<UserCredentials>> loader = email -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        };
+
+        assertTrue(cache.get("nobody@example.com", loader).isEmpty());
+        assertTrue(cache.get("nobody@example.com", loader).isEmpty());
+        assertEquals(2, loads.get());
+
+        cache.invalidate(UUID.randomUUID());
+        cache.invalidate((String) null);
+        cache.invalidate((UUID) null);
+    }
+
+    private UserCredentials credentials(String email, long version) {
+        LocalDateTime created = LocalDateTime.of(2024, 1, 1, 9, 0);
+        return new UserCredentials(id, email, "hash", UserRole.ROLE_CASHIER, true,
+                "Cashier", "555", created, created, version);
+    }
+
+    private UserDto login(String email) {
+        UserDto dto = new UserDto();
+        dto.setEmail(email);
+        dto.setPassword("secret");
+        return dto;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.pos.service.impl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+// A full hashing pool answers 503 at once instead of parking the request thread,
+// and a queued hash that can't start in time gives up after the timeout.
+class PasswordHashingServiceTests {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PasswordEncoder encoder = mock(PasswordEncoder.class);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch hashing = new CountDownLatch(1);
+    private final ExecutorService requests = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void stop() {
+        release.countDown();
+        requests.shutdownNow();
+    }
+
+    @Test
+    void fullQueueIsRejectedStraightAway() throws Exception {
+        PasswordHashingService service = new PasswordHashingService(encoder, meterRegistry, 1, 1, 10_000);
+        blockHashing();
+
+        Future<String> running = requests.submit(() -> service.encode("first"));
+        assertTrue(hashing.await(5, TimeUnit.SECONDS));
+        Future<String> queued = requests.submit(() -> service.encode("second"));
+        waitForQueue(service);
+
+        long start = System.nanoTime();
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> service.encode("third"));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatusCode());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000, "rejected without waiting");
+        assertEquals(1, rejected());
+
+        // Nothing else is affected: the admitted requests finish normally
+        release.countDown();
+        assertEquals("hash", running.get(5, TimeUnit.SECONDS));
+        assertEquals("hash", queued.get(5, TimeUnit.SECONDS));
+        service.shutdown();
+    }
+
+    @Test
+    void queuedHashGivesUpAfterTheTimeout() throws Exception {
+        PasswordHashingService service = new PasswordHashingService(encoder, meterRegistry, 1, 1, 50);
+        blockHashing();
+
+        requests.submit(() -> service.encode("first"));
+        assertTrue(hashing.await(5, TimeUnit.SECONDS));
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> service.encode("second"));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatusCode());
+        // (the stuck first request times out too)
+        assertTrue(rejected() >= 1);
+        service.shutdown();
+    }
+
+    private void blockHashing() {
+        when(encoder.encode(any())).thenAnswer(invocation -> {
+            hashing.countDown();
+            release.await();
+            return "hash";
+        });
+    }
+
+    private void waitForQueue(PasswordHashingService service) throws InterruptedException {
+        // The second request is queued once the pool's queue gauge shows it
+        for (int i = 0; i < 500 && queued() < 1; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, queued());
+    }
+
+    private double queued() {
+        return meterRegistry.get("executor.queued").tag("name", "password.hashing").gauge().value();
+    }
+
+    private double rejected() {
+        return meterRegistry.get("password.hashing.rejected").counter().count();
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.pos.service.impl;
+
+import com.example.pos.PosDataJpaTest;
+import com.example.pos.domain.UserRole;
+import com.example.pos.exceptions.UserException;
+import com.example.pos.model.User;
+import com.example.pos.payload.response.UserImportReport;
+import com.example.pos.repo.ChangeLogJdbcRepository;
+import com.example.pos.repo.UserJdbcRepository;
+import com.example.pos.repo.UserRepository;
+import com.example.pos.service.UniqueKeyFilter;
+import com.example.pos.service.UserImportService.Format;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+// The staff import must insert valid rows in batches, and name every row it rejects
+// with the real reason - "Email already registered!" only when the email is taken.
+@PosDataJpaTest
+@Import({UserImportServiceImpl.class, UserImportTests.Encoder.class})
+class UserImportTests {
+
+    @TestConfiguration
+    static class Encoder {
+        // The lowest BCrypt cost keeps the test fast
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return new BCryptPasswordEncoder(4);
+        }
+    }
+
+    @Autowired
+    private UserImportServiceImpl userImportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private UniqueKeyFilter uniqueKeyFilter;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void importsCsvAcrossChunksAndReportsBadRows() throws Throwable {
+        User existing = new User(null, "Old Hand", "taken@example.com", null,
+                UserRole.ROLE_CASHIER, "hash", LocalDateTime.now(), LocalDateTime.now(), null, true);
+        userRepository.saveAndFlush(existing);
+        // the filter is filled from the table at startup; this user came later
+        uniqueKeyFilter.addEmail(existing.getEmail());
+
+        StringBuilder csv = new StringBuilder("fullname,email,phone,role,password\n");
+        for (int i = 0; i < 1200; i++) {
+            csv.append("Cashier ").append(i).append(",cashier").append(i).append("@example.com,,role_cashier,pw")
+                    .append(i).append('\n');
+        }
+        csv.append("Again,cashier7@example.com,,role_cashier,pw\n")      // duplicate in file
+                .append("Old Hand,taken@example.com,,role_cashier,pw\n") // already registered
+                .append("Boss,boss@example.com,,role_admin,pw\n")        // admin not allowed
+                .append("No Role,norole@example.com,,,pw\n")             // fails validation
+                .append("Bad,bad@example.com,,chef,pw\n");               // unreadable role
+
+        UserImportReport report = userImportService.importUsers(bytes(csv.toString()), Format.CSV);
+
+        assertEquals(1205, report.getTotal());
+        assertEquals(1200, report.getImported());
+        assertEquals(5, report.getFailed());
+        // parse failures are reported straight away, the rest when their chunk is written
+        List<String> messages = report.getRows().stream().filter(row -> !row.isImported())
+                .sorted(Comparator.comparingInt(UserImportReport.Row::getLine))
+                .map(UserImportReport.Row::getMessage).toList();
+        assertEquals(List.of("Duplicate email in this file", "Email already registered!",
+                "Role admin is not allowed!", "Role is required", "Unreadable row"), messages);
+
+        entityManager.clear();
+        assertEquals(1201, userRepository.count());
+        User imported = userRepository.findByEmail("cashier42@example.com").orElseThrow();
+        assertEquals(UserRole.ROLE_CASHIER, imported.getRole());
+        assertTrue(passwordEncoder.matches("pw42", imported.getPassword()));
+    }
+
+    @Test
+    void importsNdjson() throws Throwable {
+        String ndjson = "{\"fullname\":\"Ana\",\"email\":\"ana@example.com\",\"role\":\"ROLE_CASHIER\",\"password\":\"pw\"}\n"
+                + "not json\n";
+
+        UserImportReport report = userImportService.importUsers(bytes(ndjson), Format.NDJSON);
+
+        assertEquals(1, report.getImported());
+        assertEquals(1, report.getFailed());
+        assertTrue(userRepository.existsByEmail("ana@example.com"));
+    }
+
+    @Test
+    void missingCsvColumnsAreRejected() {
+        assertThrows(UserException.class, () -> userImportService.importUsers(bytes("email,password\n"), Format.CSV));
+    }
+
+    @Test
+    void rowByRowRetryOnlyBlamesTakenEmails() throws Throwable {
+        UserRepository users = mock(UserRepository.class);
+        UserJdbcRepository jdbc = mock(UserJdbcRepository.class);
+        UserImportServiceImpl service = new UserImportServiceImpl(users, jdbc, new BCryptPasswordEncoder(4),
+                mock(UniqueKeyFilter.class), Validation.buildDefaultValidatorFactory().getValidator(),
+                new ObjectMapper(), new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                mock(ChangeLogJdbcRepository.class), 1, 10);
+        try {
+            when(jdbc.insertAll(anyList())).thenThrow(new DataIntegrityViolationException("batch"));
+            // raced@ registered meanwhile; broken@ fails for some other reason
+            doThrow(new DataIntegrityViolationException("row")).when(jdbc)
+                    .insert(argThat((User u) -> !u.getEmail().equals("ok@example.com")));
+            when(users.existsByEmail("raced@example.com")).thenReturn(true);
+            when(users.existsByEmail("broken@example.com")).thenReturn(false);
+
+            UserImportReport report = service.importUsers(bytes("fullname,email,role,password\n"
+                    + "Ok,ok@example.com,role_cashier,pw\n"
+                    + "Raced,raced@example.com,role_cashier,pw\n"
+                    + "Broken,broken@example.com,role_cashier,pw\n"), Format.CSV);
+
+            assertEquals(1, report.getImported());
+            assertEquals("Email already registered!", report.getRows().get(1).getMessage());
+            assertEquals("Could not import user", report.getRows().get(2).getMessage());
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    private static ByteArrayInputStream bytes(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
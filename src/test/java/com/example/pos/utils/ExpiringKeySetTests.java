@@ -0,0 +1,37 @@
+package com.example.pos.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpiringKeySetTests {
+
+    @Test
+    void keysDisappearOnceTheirExpiryTickHasPassed() {
+        ExpiringKeySet set = new ExpiringKeySet(1_000, 60, 0);
+        set.add("short", 5_000);
+        set.add("long", 30_000);
+
+        set.advance(4_000);
+        assertTrue(set.contains("short"));
+
+        set.advance(6_000);
+        assertFalse(set.contains("short"));
+        assertTrue(set.contains("long"));
+
+        set.advance(31_000);
+        assertEquals(0, set.size());
+    }
+
+    @Test
+    void keysBeyondOneLapOfTheWheelAreKeptUntilDue() {
+        ExpiringKeySet set = new ExpiringKeySet(1_000, 10, 0);
+        set.add("far", 25_000);
+
+        set.advance(12_000);
+        assertTrue(set.contains("far"));
+
+        set.advance(26_000);
+        assertFalse(set.contains("far"));
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.pos.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InFlightWritesTests {
+
+    private final InFlightWrites writes = new InFlightWrites();
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void markIsTrustedOnceEveryEarlierWriteHasFinished() {
+        long slow = writes.start();
+        long fast = writes.start();
+        long mark = writes.mark();
+        writes.finish(fast);
+        assertFalse(writes.finishedUpTo(mark));
+
+        // a write that starts after the mark doesn't hold it back
+        long later = writes.start();
+        writes.finish(slow);
+        assertTrue(writes.finishedUpTo(mark));
+        assertFalse(writes.finishedUpTo(writes.mark()));
+
+        writes.finish(later);
+        assertTrue(writes.finishedUpTo(writes.mark()));
+    }
+
+    @Test
+    void watermarkMovesUpUnderSteadyWrites() {
+        InFlightWrites.Watermark watermark = writes.watermark();
+        assertEquals(10, watermark.advance(() -> 10));
+
+        // id 11 is being written: 10 is all that can be trusted, 11 is kept for later
+        long first = writes.start();
+        assertEquals(10, watermark.advance(() -> 11));
+
+        // a newer write is running by the time the first one finishes - 11 is trusted anyway
+        long second = writes.start();
+        writes.finish(first);
+        assertEquals(11, watermark.advance(() -> 12));
+
+        writes.finish(second);
+        assertEquals(12, watermark.advance(() -> 12));
+    }
+
+    @Test
+    void writeInsideATransactionFinishesWithIt() {
+        TransactionSynchronizationManager.initSynchronization();
+        writes.finishWithTransaction(writes.start());
+        long mark = writes.mark();
+        assertFalse(writes.finishedUpTo(mark));
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+        assertTrue(writes.finishedUpTo(mark));
+    }
+
+    @Test
+    void writeWithoutATransactionFinishesRightAway() {
+        writes.finishWithTransaction(writes.start());
+        assertTrue(writes.finishedUpTo(writes.mark()));
+    }
+}
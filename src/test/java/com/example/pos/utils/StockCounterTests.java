@@ -0,0 +1,113 @@
+package com.example.pos.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StockCounterTests {
+
+    @Test
+    void neverGivesOutMoreThanItHas() {
+        StockCounter counter = new StockCounter(10, 8);
+
+        assertTrue(counter.tryTake(4));
+        assertTrue(counter.tryTake(6));
+        assertFalse(counter.tryTake(1));
+        assertEquals(0, counter.available());
+
+        counter.add(3);
+        assertFalse(counter.tryTake(4));
+        assertTrue(counter.tryTake(3));
+    }
+
+    @Test
+    void stripedCounterIsJustAsExact() {
+        StockCounter counter = new StockCounter(10, 8);
+        counter.split();
+        assertTrue(counter.isStriped());
+
+        // 10 spread over 8 stripes: no stripe has 4, but the total does
+        assertTrue(counter.tryTake(4));
+        assertTrue(counter.tryTake(6));
+        assertFalse(counter.tryTake(1));
+        assertEquals(0, counter.available());
+    }
+
+    @Test
+    void concurrentTillsSellExactlyTheStockAndNoMore() throws InterruptedException {
+        int tills = 8;
+        StockCounter counter = new StockCounter(100_000, tills);
+        counter.split();  // collisions are rare on a small test machine - start out striped
+        AtomicLong sold = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < tills; t++) {
+            int quantity = 1 + t % 3;
+            threads.add(Thread.ofPlatform().start(() -> {
+                await(start);
+                int refusedInARow = 0;
+                while (refusedInARow < 1000) {
+                    if (counter.tryTake(quantity)) {
+                        sold.addAndGet(quantity);
+                        refusedInARow = 0;
+                    } else {
+                        refusedInARow++;
+                    }
+                }
+            }));
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(100_000, sold.get() + counter.available());
+        // Whatever is left is less than the largest quantity asked for
+        assertTrue(counter.available() < 3, "left " + counter.available());
+    }
+
+    @Test
+    void returnsAndDeliveriesDuringSalesAreNotLost() throws InterruptedException {
+        StockCounter counter = new StockCounter(1_000, 4);
+        counter.split();
+        CountDownLatch start = new CountDownLatch(1);
+
+        // Two tills sell and cancel (take then put back), two receive deliveries of 1
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            boolean seller = t < 2;
+            threads.add(Thread.ofPlatform().start(() -> {
+                await(start);
+                for (int i = 0; i < 50_000; i++) {
+                    if (seller) {
+                        if (counter.tryTake(5)) {
+                            counter.add(5);
+                        }
+                    } else if (i % 100 == 0) {
+                        counter.add(1);
+                    }
+                }
+            }));
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(1_000 + 2 * 500, counter.available());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}